@@ -0,0 +1,106 @@
+/*
+    JMH benchmarks for the game window's Board: bringing its move lists up to date after a move,
+    and painting it to an off-screen image. The forks run headless, so no display is needed.
+
+    Painting reuses one Graphics, as Swing does for a whole frame, so only the paint itself is measured.
+
+    Usage: java -jar benchmarks/target/benchmarks.jar Board
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BoardBenchmark {
+    Board board;
+    // The positions of one random game, stepped through by boardDetermineMoves
+    GameState[] game;
+    BufferedImage image;
+    Graphics2D brush;
+    // Clipped to the area around a dragged piece
+    Graphics2D dragBrush;
+    final CheckersPiece dragged = new CheckersPiece(true);
+    int next;
+
+    @Setup
+    public void setup() {
+        board = new Board(new JLabel());
+        board.setSize(board.WIDTH, board.HEIGHT);
+
+        game = new GameState[60];
+        game[0] = new GameState();
+        Random random = new Random(7);
+        for (int i = 1; i < game.length; i++) {
+            long[] legal = game[i - 1].fullMoves();
+            game[i] = legal.length == 0 ? new GameState() : game[i - 1].apply(legal[random.nextInt(legal.length)]);
+        }
+
+        image = new BufferedImage(board.WIDTH, board.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        brush = image.createGraphics();
+        dragBrush = image.createGraphics();
+        dragBrush.setClip(300, 200, 2 * board.TILE_SIZE_PX + 8, 2 * board.TILE_SIZE_PX + 8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        brush.dispose();
+        dragBrush.dispose();
+    }
+
+    @Benchmark
+    public int boardDetermineMoves() {
+        board.state = game[next];
+        next = (next + 1) % game.length;
+        board.determineMoves();
+        return board.mustCapture;
+    }
+
+    @Benchmark
+    public long boardPaint() {
+        board.paintComponent(brush);
+        return board.paintStats.frames();
+    }
+
+    // Painting while a piece is dragged, only the area around the piece is drawn
+    @Benchmark
+    public long boardDragPaint() {
+        board.movingPiece = true;
+        board.heldPiece = dragged;
+        board.movingPieceCurrent.set(360, 260);
+        board.paintComponent(dragBrush);
+        board.movingPiece = false;
+        board.heldPiece = null;
+        return board.paintStats.frames();
+    }
+
+    // Painting after the board has changed, so its cached layer has to be redrawn first
+    @Benchmark
+    public long boardRedraw() {
+        board.boardLayerDirty = true;
+        board.paintComponent(brush);
+        return board.paintStats.frames();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+    JMH benchmarks for scoring positions: the Evaluator's hand-made weights and the Nnue network,
+    both updating its accumulator move by move and adding every piece up again.
+    Every child of a reference position is scored, the way the search's leaves come one after another.
+
+    The network's speed doesn't depend on its weights, so random ones are used unless
+    -Dcheckers.nnue=<file> is given (pass it with -jvmArgsAppend).
+    The vector kernel is used when the JVM has jdk.incubator.vector, the forks here add it.
+
+    Usage: java -jar benchmarks/target/benchmarks.jar Evaluation
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class EvaluationBenchmark {
+    BitboardPosition[] positions;
+    final long[] moves = new long[MoveCode.MAX_MOVES];
+    final MoveGenerator generator = new MoveGenerator();
+    final BitboardPosition scratch = new BitboardPosition();
+    Evaluator evaluator;
+    NnueAccumulator accumulator;
+    int next;
+
+    @Setup
+    public void setup() {
+        positions = new BitboardPosition[Perft.REFERENCE_FENS.length];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = Notation.parseFen(Perft.REFERENCE_FENS[i]).toPosition();
+        evaluator = new Evaluator();
+        accumulator = new NnueAccumulator(benchmarkNetwork());
+    }
+
+    // The next reference position
+    BitboardPosition nextPosition() {
+        BitboardPosition pos = positions[next];
+        next = (next + 1) % positions.length;
+        return pos;
+    }
+
+    @Benchmark
+    public long evaluate() {
+        BitboardPosition pos = nextPosition();
+        int count = generator.generate(pos, moves);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            scratch.set(pos);
+            scratch.makeMove(moves[i]);
+            total += evaluator.evaluate(scratch);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long nnueIncremental() {
+        BitboardPosition pos = nextPosition();
+        int count = generator.generate(pos, moves);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            scratch.set(pos);
+            scratch.makeMove(moves[i]);
+            total += accumulator.evaluate(scratch);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long nnueRefresh() {
+        BitboardPosition pos = nextPosition();
+        int count = generator.generate(pos, moves);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            scratch.set(pos);
+            scratch.makeMove(moves[i]);
+            accumulator.refresh(scratch);
+            total += accumulator.evaluate(scratch);
+        }
+        return total;
+    }
+
+    // The network in -Dcheckers.nnue=<file>, or one with random weights
+    static Nnue benchmarkNetwork() {
+        String file = System.getProperty("checkers.nnue");
+        if (file != null) {
+            try {
+                return Nnue.load(java.nio.file.Path.of(file));
+            }
+            catch (java.io.IOException e) {
+                System.err.println("Could not load " + file + ", using random weights: " + e.getMessage());
+            }
+        }
+        Random random = new Random(7);
+        int hidden = Nnue.DEFAULT_HIDDEN;
+        short[] inputWeights = new short[Nnue.FEATURES * hidden];
+        for (int i = 0; i < inputWeights.length; i++)
+            inputWeights[i] = (short) (random.nextInt(61) - 30);
+        short[] inputBias = new short[hidden];
+        for (int i = 0; i < hidden; i++)
+            inputBias[i] = (short) random.nextInt(Nnue.QA);
+        short[] outputWeights = new short[2 * hidden];
+        for (int i = 0; i < outputWeights.length; i++)
+            outputWeights[i] = (short) (random.nextInt(2 * Nnue.MAX_OUTPUT_WEIGHT + 1) - Nnue.MAX_OUTPUT_WEIGHT);
+        return new Nnue(hidden, inputWeights, inputBias, outputWeights, 0);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+    JMH benchmarks for move generation and making moves. Each operation works on the next of
+    Perft's reference positions, so one unusual position can't make the numbers look better or worse.
+
+    Usage: java -jar benchmarks/target/benchmarks.jar MoveGeneration
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    BitboardPosition[] positions;
+    final long[] moves = new long[MoveCode.MAX_MOVES];
+    final MoveGenerator generator = new MoveGenerator();
+    final BitboardPosition scratch = new BitboardPosition();
+    Perft perft;
+    int next;
+
+    @Setup
+    public void setup() {
+        positions = new BitboardPosition[Perft.REFERENCE_FENS.length];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = Notation.parseFen(Perft.REFERENCE_FENS[i]).toPosition();
+        perft = new Perft(5);
+    }
+
+    // The next reference position
+    BitboardPosition nextPosition() {
+        BitboardPosition pos = positions[next];
+        next = (next + 1) % positions.length;
+        return pos;
+    }
+
+    @Benchmark
+    public int generateSteps() {
+        return nextPosition().generateMoves(moves);
+    }
+
+    @Benchmark
+    public int generateFullMoves() {
+        return generator.generate(nextPosition(), moves);
+    }
+
+    // Copy-make every move of a position
+    @Benchmark
+    public void makeMoves(Blackhole hole) {
+        BitboardPosition pos = nextPosition();
+        int count = generator.generate(pos, moves);
+        for (int i = 0; i < count; i++) {
+            scratch.set(pos);
+            scratch.makeMove(moves[i]);
+            hole.consume(scratch.hash);
+        }
+    }
+
+    // The same with make/unmake in one position, the way the search does it
+    @Benchmark
+    public void doUndoMoves(Blackhole hole) {
+        BitboardPosition pos = nextPosition();
+        int count = generator.generate(pos, moves);
+        for (int i = 0; i < count; i++) {
+            pos.doMove(moves[i]);
+            hole.consume(pos.hash);
+            pos.undoMove(moves[i]);
+        }
+    }
+
+    @Benchmark
+    public long perft5() {
+        return perft.count(positions[0], 5);
+    }
+
+    @Benchmark
+    public Vector2DInt[] directionsFromPermission() {
+        next = (next + 1) % 3;
+        return Direction2D.directionsFromPermission(next);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+    Analyzes a position in the background for as long as it's left alone, going one ply deeper
+    at a time, so the player can see what the computer thinks of the game while they think.
+
+    The search runs on a thread of its own and only publishes each finished depth as a Result,
+    which whoever shows it picks up when they're ready (see AnalysisPanel). Nothing is ever handed
+    to the event dispatch thread directly, so a fast search can't flood it.
+
+    When it shares its TranspositionTable with the ComputerPlayer, analyzing while the player
+    thinks is also "pondering": the computer finds the work already done when its turn comes.
+
+    stop() takes effect within about a thousand nodes, well under a millisecond.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class Analyzer implements SearchEngine.Listener {
+    // Longest line of play shown
+    final static int MAX_LINE = 16;
+
+    // One finished depth of analysis. Can't change, so it can be passed between threads freely.
+    static class Result {
+        final GameState state;
+        final int depth;
+        // Score for the side to move in state (see SearchEngine)
+        final int score;
+        final long nodes;
+        final long millis;
+        final long bestMove;
+        // The expected line of play in standard notation, e.g. "11-15 23-19 8-11"
+        final String line;
+
+        Result(GameState state, int depth, int score, long nodes, long millis, long bestMove, String line) {
+            this.state = state;
+            this.depth = depth;
+            this.score = score;
+            this.nodes = nodes;
+            this.millis = millis;
+            this.bestMove = bestMove;
+            this.line = line;
+        }
+
+        public long nodesPerSecond() {
+            return nodes * 1000 / Math.max(1, millis);
+        }
+    }
+
+    private final SearchEngine engine;
+    private final ExecutorService thread;
+    private final AtomicReference<Result> latest = new AtomicReference<Result>();
+    private final long[] line = new long[MAX_LINE];
+
+    // The position being analyzed and the flag that stops its search, changed only by start() and stop()
+    private GameState analyzing;
+    private AtomicBoolean stopFlag = new AtomicBoolean(true);
+
+    // Constructor; pass the table to share with the computer player, so analysis also ponders for it
+    public Analyzer(Evaluator evaluator, TranspositionTable table) {
+        engine = new SearchEngine(evaluator, table);
+        engine.setLimits(0, 0, 0);
+        engine.listener = this;
+        thread = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Analyzer");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    public void setTablebase(EndgameTablebase tablebase) {
+        thread.execute(() -> engine.tablebase = tablebase);
+    }
+
+    // Start analyzing a position, stopping any earlier analysis. Does nothing if it's already being analyzed
+    public synchronized void start(final GameState state) {
+        if (state == analyzing && !stopFlag.get())
+            return;
+        stop();
+        latest.set(null);
+        analyzing = state;
+        final AtomicBoolean flag = new AtomicBoolean(false);
+        stopFlag = flag;
+        thread.execute(() -> {
+            // Skip searches that were stopped before they got their turn
+            if (flag.get())
+                return;
+            engine.sharedStop = flag;
+            engine.search(state.toPosition());
+        });
+    }
+
+    // Stop analyzing, the last result is kept
+    public synchronized void stop() {
+        stopFlag.set(true);
+    }
+
+    // Stop for good and end the thread
+    public synchronized void shutdown() {
+        stop();
+        thread.shutdown();
+    }
+
+    // The deepest finished analysis of the current position, null if there isn't one yet
+    public Result latest() {
+        return latest.get();
+    }
+
+    // Called on the analyzer thread each time a depth is finished
+    @Override
+    public void depthFinished(SearchEngine searched) {
+        AtomicBoolean flag = searched.sharedStop;
+        if (flag == null || flag.get())
+            return;
+        int length = searched.principalVariation(line);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0)
+                sb.append(' ');
+            sb.append(MoveCode.toString(line[i]));
+        }
+        GameState state;
+        synchronized (this) {
+            // Don't publish a result for a position that was left while this depth finished
+            if (flag != stopFlag)
+                return;
+            state = analyzing;
+        }
+        latest.set(new Result(state, searched.depthReached, searched.bestScore, searched.nodes,
+                searched.elapsedMillis, searched.bestMove, sb.toString()));
+    }
+}
@@ -0,0 +1,387 @@
+/*
+    A compact checkers position stored as bitboards: one int mask each for black pieces,
+    white pieces and kings. Only the 32 playable tiles are stored, so every square fits in one bit.
+
+    Squares are numbered left to right, top to bottom, starting at black's back row:
+        square = row * 4 + column / 2
+    This matches standard checkers notation (which counts from 1 instead of 0).
+
+    Move generation works on whole masks at once by shifting them diagonally, so
+    it never walks the board or allocates anything. Moves are written into a long[]
+    supplied by the caller (see MoveCode). This class has no dependency on Swing, so it can
+    be used on its own for analysis and AI.
+
+    A Zobrist hash of the position is kept up to date by makeStep() and makeMove(). Code that
+    changes the masks directly must call rehash() afterwards.
+
+    Moves can be taken back with doMove() and undoMove(), so a search can walk the whole tree
+    in one position instead of copying it for every move.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class BitboardPosition {
+    // Directions, same order as Direction2D.directionsAll
+    final static int NW = 0;
+    final static int NE = 1;
+    final static int SE = 2;
+    final static int SW = 3;
+
+    // Masks of squares that can take a diagonal step without leaving the board.
+    // Even rows have their tiles offset to the right, so the shift amount depends on the row.
+    final static int EVEN_NW = 0x0F0F0F00; // >>> 4
+    final static int ODD_NW = 0xE0E0E0E0;  // >>> 5
+    final static int EVEN_NE = 0x07070700; // >>> 3
+    final static int ODD_NE = 0xF0F0F0F0;  // >>> 4
+    final static int EVEN_SE = 0x07070707; // << 5
+    final static int ODD_SE = 0x00F0F0F0;  // << 4
+    final static int EVEN_SW = 0x0F0F0F0F; // << 4
+    final static int ODD_SW = 0x00E0E0E0;  // << 3
+
+    // Rows where men are crowned
+    final static int BLACK_CROWN_ROW = 0xF0000000;
+    final static int WHITE_CROWN_ROW = 0x0000000F;
+
+    // Starting setup: black on the top three rows, white on the bottom three
+    final static int BLACK_START = 0x00000FFF;
+    final static int WHITE_START = 0xFFF00000;
+
+    // NEIGHBORS[dir][square] is the square one diagonal step away, or -1 if it's off the board
+    final static int[][] NEIGHBORS = new int[4][32];
+
+    static {
+        for (int dir = 0; dir < 4; dir++) {
+            for (int sq = 0; sq < 32; sq++) {
+                int stepped = step(1 << sq, dir);
+                NEIGHBORS[dir][sq] = stepped == 0 ? -1 : Integer.numberOfTrailingZeros(stepped);
+            }
+        }
+    }
+
+    // Most moves doMove() can have waiting to be undone
+    final static int MAX_UNDO = 256;
+
+    int black;
+    int white;
+    int kings;
+    boolean blacksTurn = true;
+    long hash;
+
+    // Captured kings and hash before each move made with doMove(), created the first time they're needed
+    private int[] undoKings;
+    private long[] undoHashes;
+    private int undoCount = 0;
+
+    // Constructor; creates the standard starting position
+    public BitboardPosition() {
+        black = BLACK_START;
+        white = WHITE_START;
+        kings = 0;
+        rehash();
+    }
+
+    // Constructor with every mask specified
+    public BitboardPosition(int black, int white, int kings, boolean blacksTurn) {
+        this.black = black;
+        this.white = white;
+        this.kings = kings;
+        this.blacksTurn = blacksTurn;
+        rehash();
+    }
+
+    // Copy another position into this one (no allocation). Moves made before can no longer be undone
+    public void set(BitboardPosition other) {
+        black = other.black;
+        white = other.white;
+        kings = other.kings;
+        blacksTurn = other.blacksTurn;
+        hash = other.hash;
+        undoCount = 0;
+    }
+
+    // Set every mask, with their hash already worked out (no allocation, see GameState)
+    public void set(int black, int white, int kings, boolean blacksTurn, long hash) {
+        this.black = black;
+        this.white = white;
+        this.kings = kings;
+        this.blacksTurn = blacksTurn;
+        this.hash = hash;
+        undoCount = 0;
+    }
+
+    // Recompute the Zobrist hash from scratch (see Zobrist)
+    public void rehash() {
+        hash = Zobrist.hash(black, white, kings, blacksTurn);
+    }
+
+    // Shift every square in the mask one step in a direction, dropping squares that leave the board
+    public static int step(int mask, int dir) {
+        switch (dir) {
+            case NW:
+                return ((mask & EVEN_NW) >>> 4) | ((mask & ODD_NW) >>> 5);
+            case NE:
+                return ((mask & EVEN_NE) >>> 3) | ((mask & ODD_NE) >>> 4);
+            case SE:
+                return ((mask & EVEN_SE) << 5) | ((mask & ODD_SE) << 4);
+            default:
+                return ((mask & EVEN_SW) << 4) | ((mask & ODD_SW) << 3);
+        }
+    }
+
+    // Opposite direction (NW <-> SE, NE <-> SW)
+    public static int opposite(int dir) {
+        return dir ^ 2;
+    }
+
+    // Conversions between grid space (column, row) and square numbers
+    public static int square(int column, int row) {
+        if (column < 0 || column > 7 || row < 0 || row > 7 || (column + row) % 2 == 0)
+            return -1;
+        return row * 4 + column / 2;
+    }
+
+    public static int row(int square) {
+        return square >> 2;
+    }
+
+    public static int column(int square) {
+        return (square & 3) * 2 + 1 - (row(square) & 1);
+    }
+
+    public int occupied() {
+        return black | white;
+    }
+
+    public int empty() {
+        return ~(black | white);
+    }
+
+    // Pieces belonging to the player whose turn it is
+    public int own() {
+        return blacksTurn ? black : white;
+    }
+
+    public int opponent() {
+        return blacksTurn ? white : black;
+    }
+
+    public boolean isBlack(int square) {
+        return (black & (1 << square)) != 0;
+    }
+
+    public boolean isWhite(int square) {
+        return (white & (1 << square)) != 0;
+    }
+
+    public boolean isKing(int square) {
+        return (kings & (1 << square)) != 0;
+    }
+
+    // Subset of a color's pieces that are allowed to move in a direction.
+    // Black men move down (SE, SW), white men move up (NW, NE), kings move any direction.
+    private int allowed(int pieces, boolean forBlack, int dir) {
+        boolean down = dir == SE || dir == SW;
+        if (down == forBlack)
+            return pieces;
+        return pieces & kings;
+    }
+
+    // Mask of the pieces of the side to move that are able to capture
+    public int jumpers() {
+        int opp = opponent();
+        int empty = empty();
+        int found = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            int dest = step(step(allowed(own(), blacksTurn, dir), dir) & opp, dir) & empty;
+            // Walk the landing squares back to the pieces that jump there
+            found |= step(step(dest, opposite(dir)), opposite(dir));
+        }
+        return found;
+    }
+
+    // Mask of the pieces of the side to move that have a non-capturing move
+    public int movers() {
+        int empty = empty();
+        int found = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            found |= step(step(allowed(own(), blacksTurn, dir), dir) & empty, opposite(dir));
+        }
+        return found;
+    }
+
+    /*
+    Write every legal move for the side to move into out, return how many were written.
+    If any capture is possible only captures are generated (capture rule).
+    Captures are single jumps, the piece may be able to continue jumping afterwards (see generateJumpsFrom()).
+    Use MoveGenerator to get multi-jumps as complete moves instead.
+     */
+    public int generateMoves(long[] out) {
+        int count = addJumps(own(), blacksTurn, out, 0);
+        if (count == 0)
+            count = addSteps(own(), blacksTurn, out, 0);
+        return count;
+    }
+
+    // Same as generateMoves(), but only for the piece on one square
+    public int generateMovesFrom(int square, long[] out) {
+        int bit = 1 << square;
+        boolean forBlack = (black & bit) != 0;
+        if (!forBlack && (white & bit) == 0)
+            return 0;
+        int count = addJumps(bit, forBlack, out, 0);
+        if (count == 0)
+            count = addSteps(bit, forBlack, out, 0);
+        return count;
+    }
+
+    // Only the captures available to the piece on one square (used to continue a multi-jump)
+    public int generateJumpsFrom(int square, long[] out) {
+        int bit = 1 << square;
+        boolean forBlack = (black & bit) != 0;
+        if (!forBlack && (white & bit) == 0)
+            return 0;
+        return addJumps(bit, forBlack, out, 0);
+    }
+
+    private int addJumps(int pieces, boolean forBlack, long[] out, int count) {
+        int opp = forBlack ? white : black;
+        int empty = empty();
+        for (int dir = 0; dir < 4; dir++) {
+            int land = step(step(allowed(pieces, forBlack, dir), dir) & opp, dir) & empty;
+            int back = opposite(dir);
+            while (land != 0) {
+                int to = Integer.numberOfTrailingZeros(land);
+                land &= land - 1;
+                int over = NEIGHBORS[back][to];
+                int from = NEIGHBORS[back][over];
+                out[count++] = MoveCode.encode(from, to, 1 << over, crowns(from, to, forBlack));
+            }
+        }
+        return count;
+    }
+
+    private int addSteps(int pieces, boolean forBlack, long[] out, int count) {
+        int empty = empty();
+        for (int dir = 0; dir < 4; dir++) {
+            int land = step(allowed(pieces, forBlack, dir), dir) & empty;
+            int back = opposite(dir);
+            while (land != 0) {
+                int to = Integer.numberOfTrailingZeros(land);
+                land &= land - 1;
+                int from = NEIGHBORS[back][to];
+                out[count++] = MoveCode.encode(from, to, 0, crowns(from, to, forBlack));
+            }
+        }
+        return count;
+    }
+
+    // A man is crowned when it reaches the far row
+    private boolean crowns(int from, int to, boolean forBlack) {
+        if ((kings & (1 << from)) != 0)
+            return false;
+        return ((forBlack ? BLACK_CROWN_ROW : WHITE_CROWN_ROW) & (1 << to)) != 0;
+    }
+
+    /*
+    Apply a move to the board without passing the turn.
+    Used while a piece is part way through a multi-jump.
+    Works for single jumps and for whole chains from MoveGenerator.
+     */
+    public void makeStep(long move) {
+        int fromBit = 1 << MoveCode.from(move);
+        int toBit = 1 << MoveCode.to(move);
+        int captured = MoveCode.captured(move);
+        boolean moverBlack = (black & fromBit) != 0;
+        boolean wasKing = (kings & fromBit) != 0;
+        // Update the hash for the moving piece and everything it captures before the masks change
+        hash ^= Zobrist.PIECES[Zobrist.type(moverBlack, wasKing)][MoveCode.from(move)];
+        hash ^= Zobrist.PIECES[Zobrist.type(moverBlack, wasKing || MoveCode.crowns(move))][MoveCode.to(move)];
+        if (captured != 0) {
+            hash ^= Zobrist.hashMask(Zobrist.PIECES[Zobrist.type(!moverBlack, false)], captured & ~kings);
+            hash ^= Zobrist.hashMask(Zobrist.PIECES[Zobrist.type(!moverBlack, true)], captured & kings);
+        }
+        // Clear then set, rather than toggling, since a king's chain may end where it started
+        if (moverBlack) {
+            black = (black & ~fromBit) | toBit;
+            white &= ~captured;
+        }
+        else {
+            white = (white & ~fromBit) | toBit;
+            black &= ~captured;
+        }
+        kings &= ~captured;
+        if (wasKing)
+            kings = (kings & ~fromBit) | toBit;
+        if (MoveCode.crowns(move))
+            kings |= toBit;
+    }
+
+    // Apply a move and pass the turn to the other player
+    public void makeMove(long move) {
+        makeStep(move);
+        passTurn();
+    }
+
+    /*
+    Apply a move like makeMove(), and remember what it captured so undoMove() can take it back.
+    The move code already holds everything else, so only the captured kings and the hash are kept.
+    Throws IllegalStateException past MAX_UNDO moves.
+     */
+    public void doMove(long move) {
+        if (undoKings == null) {
+            undoKings = new int[MAX_UNDO];
+            undoHashes = new long[MAX_UNDO];
+        }
+        if (undoCount == MAX_UNDO)
+            throw new IllegalStateException("Too many moves to undo");
+        undoKings[undoCount] = kings & MoveCode.captured(move);
+        undoHashes[undoCount++] = hash;
+        makeMove(move);
+    }
+
+    // Take back the last move made with doMove(), which must be the move passed in
+    public void undoMove(long move) {
+        int capturedKings = undoKings[--undoCount];
+        hash = undoHashes[undoCount];
+        blacksTurn = !blacksTurn;
+        int fromBit = 1 << MoveCode.from(move);
+        int toBit = 1 << MoveCode.to(move);
+        int captured = MoveCode.captured(move);
+        boolean moverBlack = (black & toBit) != 0;
+        boolean wasKing = (kings & toBit) != 0 && !MoveCode.crowns(move);
+        // Clear then set, in case the move ended where it started
+        if (moverBlack) {
+            black = (black & ~toBit) | fromBit;
+            white |= captured;
+        }
+        else {
+            white = (white & ~toBit) | fromBit;
+            black |= captured;
+        }
+        kings &= ~toBit;
+        if (wasKing)
+            kings |= fromBit;
+        kings |= capturedKings;
+    }
+
+    // Number of moves made with doMove() that can still be undone
+    public int undoCount() {
+        return undoCount;
+    }
+
+    // Give the turn to the other player (used to finish a move applied with makeStep())
+    public void passTurn() {
+        blacksTurn = !blacksTurn;
+        hash ^= Zobrist.WHITE_TO_MOVE;
+    }
+
+    public int blackCount() {
+        return Integer.bitCount(black);
+    }
+
+    public int whiteCount() {
+        return Integer.bitCount(white);
+    }
+}
@@ -6,6 +6,8 @@
     @author (Cameron Labelle)
     @version (April 2024)
  */
+package checkers;
+
 public class Direction2D {
     // Direction vectors relevant to checkers
     final static Vector2DInt NW = new Vector2DInt(-1, -1);
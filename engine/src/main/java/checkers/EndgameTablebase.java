@@ -0,0 +1,401 @@
+/*
+    Perfect play for every position with only a few pieces left (an endgame tablebase).
+
+    Positions are grouped into slices by how many black men, black kings, white men and white
+    kings they have. Every position in a slice gets a dense index (see index()): the men and
+    kings of each type are a combination of squares, numbered with the combinatorial number
+    system, and the side to move is the last bit. Each slice is one file holding one byte per index:
+        0          : draw (or not a real position)
+        1 to 127   : the side to move wins in that many plies
+        -1 to -128 : the side to move loses in (-value - 1) plies
+
+    Slices are generated with retrograde analysis, working backwards from finished games:
+    pass p finds every position that is won or lost in exactly p plies, using only results from
+    earlier passes (and from smaller slices, which are finished first). When a pass finds nothing
+    new and no longer result is possible, everything left is a draw.
+    Each pass is split over every core. The array is saved every few passes, so an interrupted
+    generation picks up from its last save, and finished slices are skipped entirely.
+
+    Finished slices are read through MappedByteBuffers, so probing doesn't use the heap.
+
+    Generate with: java checkers.EndgameTablebase <directory> <max pieces>
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.IntStream;
+
+public class EndgameTablebase {
+    final static int DRAW = 0;
+    // Returned by probe() for positions not covered by the tablebase
+    final static int UNKNOWN = Integer.MIN_VALUE;
+    // Longest result that fits in a byte
+    final static int MAX_DISTANCE = 126;
+    // Save a slice in progress every this many passes
+    final static int SAVE_INTERVAL = 8;
+
+    // Binomial coefficients, CHOOSE[n][k]
+    final static long[][] CHOOSE = new long[33][33];
+
+    static {
+        for (int n = 0; n <= 32; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + (k <= n - 1 ? CHOOSE[n - 1][k] : 0);
+            }
+        }
+    }
+
+    final File directory;
+    final int maxPieces;
+    // Loaded slices, indexed by signature() so lookups don't allocate
+    private final ByteBuffer[] slices = new ByteBuffer[1 << 16];
+
+    // Constructor; pass the directory the slice files are kept in and the most pieces to cover
+    public EndgameTablebase(File directory, int maxPieces) {
+        this.directory = directory;
+        this.maxPieces = maxPieces;
+    }
+
+    // Map every slice file that exists, returns how many were found
+    public int load() throws IOException {
+        int found = 0;
+        for (int[] s : slicesInOrder(maxPieces)) {
+            File f = sliceFile(s[0], s[1], s[2], s[3]);
+            if (f.exists()) {
+                slices[signature(s[0], s[1], s[2], s[3])] = map(f);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static MappedByteBuffer map(File f) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(f, "r")) {
+            return file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+        }
+    }
+
+    // Slice key, 4 bits per piece type
+    public static int signature(int bm, int bk, int wm, int wk) {
+        return bm | (bk << 4) | (wm << 8) | (wk << 12);
+    }
+
+    public File sliceFile(int bm, int bk, int wm, int wk) {
+        return new File(directory, "tb_" + bm + bk + wm + wk + ".bin");
+    }
+
+    /*
+    Every slice with 2 to maxPieces pieces (at least one per side) in the order they must be generated:
+    fewer pieces first (captures), then fewer men (crowning turns a man into a king).
+    Each entry is {black men, black kings, white men, white kings}.
+     */
+    public static int[][] slicesInOrder(int maxPieces) {
+        java.util.ArrayList<int[]> list = new java.util.ArrayList<int[]>();
+        for (int n = 2; n <= maxPieces; n++) {
+            for (int men = 0; men <= n; men++) {
+                for (int bm = 0; bm <= men; bm++) {
+                    int wm = men - bm;
+                    for (int bk = 0; bk <= n - men; bk++) {
+                        int wk = n - men - bk;
+                        if (bm + bk > 0 && wm + wk > 0 && bm + bk <= 12 && wm + wk <= 12)
+                            list.add(new int[] {bm, bk, wm, wk});
+                    }
+                }
+            }
+        }
+        return list.toArray(new int[0][]);
+    }
+
+    // Number of indexes in a slice (both sides to move)
+    public static long sliceSize(int bm, int bk, int wm, int wk) {
+        return 2 * CHOOSE[32][bm] * CHOOSE[32 - bm][bk] * CHOOSE[32 - bm - bk][wm] * CHOOSE[32 - bm - bk - wm][wk];
+    }
+
+    // Index of a position within its slice
+    public static int index(BitboardPosition pos) {
+        int bmMask = pos.black & ~pos.kings;
+        int bkMask = pos.black & pos.kings;
+        int wmMask = pos.white & ~pos.kings;
+        int wkMask = pos.white & pos.kings;
+        int bm = Integer.bitCount(bmMask);
+        int bk = Integer.bitCount(bkMask);
+        int wm = Integer.bitCount(wmMask);
+        int avail = -1;
+        long r = rank(bmMask, avail);
+        avail &= ~bmMask;
+        r = r * CHOOSE[32 - bm][bk] + rank(bkMask, avail);
+        avail &= ~bkMask;
+        r = r * CHOOSE[32 - bm - bk][wm] + rank(wmMask, avail);
+        avail &= ~wmMask;
+        r = r * CHOOSE[32 - bm - bk - wm][Integer.bitCount(wkMask)] + rank(wkMask, avail);
+        return (int) (r * 2 + (pos.blacksTurn ? 0 : 1));
+    }
+
+    /*
+    Rebuild the position for an index (the reverse of index()).
+    Returns false if the index isn't a real position (a man sitting on its crowning row).
+     */
+    public static boolean decode(int index, int bm, int bk, int wm, int wk, BitboardPosition out) {
+        boolean blacksTurn = (index & 1) == 0;
+        long r = index >>> 1;
+        long n4 = CHOOSE[32 - bm - bk - wm][wk];
+        long n3 = CHOOSE[32 - bm - bk][wm];
+        long n2 = CHOOSE[32 - bm][bk];
+        long r4 = r % n4;
+        r /= n4;
+        long r3 = r % n3;
+        r /= n3;
+        long r2 = r % n2;
+        long r1 = r / n2;
+        int avail = -1;
+        int bmMask = unrank(r1, bm, avail);
+        avail &= ~bmMask;
+        int bkMask = unrank(r2, bk, avail);
+        avail &= ~bkMask;
+        int wmMask = unrank(r3, wm, avail);
+        avail &= ~wmMask;
+        int wkMask = unrank(r4, wk, avail);
+        if ((bmMask & BitboardPosition.BLACK_CROWN_ROW) != 0 || (wmMask & BitboardPosition.WHITE_CROWN_ROW) != 0)
+            return false;
+        out.black = bmMask | bkMask;
+        out.white = wmMask | wkMask;
+        out.kings = bkMask | wkMask;
+        out.blacksTurn = blacksTurn;
+        out.rehash();
+        return true;
+    }
+
+    // Combinatorial number of a set of squares, counting only the squares still available
+    private static long rank(int set, int avail) {
+        long r = 0;
+        int i = 1;
+        while (set != 0) {
+            int sq = Integer.numberOfTrailingZeros(set);
+            set &= set - 1;
+            int c = Integer.bitCount(avail & ((1 << sq) - 1));
+            r += CHOOSE[c][i++];
+        }
+        return r;
+    }
+
+    // Set of k available squares with the given combinatorial number (reverse of rank())
+    private static int unrank(long r, int k, int avail) {
+        int set = 0;
+        int c = Integer.bitCount(avail);
+        for (int i = k; i > 0; i--) {
+            c--;
+            while (CHOOSE[c][i] > r)
+                c--;
+            r -= CHOOSE[c][i];
+            set |= nthSquare(avail, c);
+        }
+        return set;
+    }
+
+    // Bit of the nth (from 0) set square of a mask
+    private static int nthSquare(int mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+        return mask & -mask;
+    }
+
+    // Byte encoding helpers
+    public static byte win(int plies) {
+        return (byte) plies;
+    }
+
+    public static byte loss(int plies) {
+        return (byte) (-plies - 1);
+    }
+
+    public static boolean isWin(int value) {
+        return value > 0;
+    }
+
+    public static boolean isLoss(int value) {
+        return value < 0;
+    }
+
+    // Plies until the game ends with best play, for a win or loss
+    public static int distance(int value) {
+        return value > 0 ? value : -value - 1;
+    }
+
+    /*
+    Look up a position. Returns UNKNOWN if its slice isn't loaded, otherwise DRAW or an encoded
+    win or loss for the side to move (see isWin(), isLoss() and distance()).
+     */
+    public int probe(BitboardPosition pos) {
+        int bk = Integer.bitCount(pos.black & pos.kings);
+        int bm = Integer.bitCount(pos.black) - bk;
+        int wk = Integer.bitCount(pos.white & pos.kings);
+        int wm = Integer.bitCount(pos.white) - wk;
+        if (bm + bk + wm + wk > maxPieces || bm + bk == 0 || wm + wk == 0)
+            return UNKNOWN;
+        ByteBuffer slice = slices[signature(bm, bk, wm, wk)];
+        if (slice == null)
+            return UNKNOWN;
+        return slice.get(index(pos));
+    }
+
+    // Generate every slice that doesn't have a file yet, then load them all
+    public void generate() throws IOException {
+        directory.mkdirs();
+        for (int[] s : slicesInOrder(maxPieces)) {
+            File f = sliceFile(s[0], s[1], s[2], s[3]);
+            if (!f.exists()) {
+                long start = System.currentTimeMillis();
+                generateSlice(s[0], s[1], s[2], s[3], f);
+                System.out.println(f.getName() + ": " + sliceSize(s[0], s[1], s[2], s[3]) + " positions in "
+                        + (System.currentTimeMillis() - start) + " ms");
+            }
+            slices[signature(s[0], s[1], s[2], s[3])] = map(f);
+        }
+    }
+
+    private void generateSlice(final int bm, final int bk, final int wm, final int wk, File target) throws IOException {
+        long size = sliceSize(bm, bk, wm, wk);
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Slice too large to index: " + target.getName());
+        final byte[] values = new byte[(int) size];
+        final int self = signature(bm, bk, wm, wk);
+        File partial = new File(directory, target.getName() + ".partial");
+        int pass = 0;
+        // Continue from the last save if a previous run was interrupted
+        if (partial.exists()) {
+            try (RandomAccessFile file = new RandomAccessFile(partial, "r")) {
+                pass = file.readInt();
+                file.readFully(values);
+            }
+        }
+        // Longest result in the slices this one leads into, nothing here can be resolved later than that
+        int longestExternal = 0;
+        for (ByteBuffer b : slices) {
+            if (b != null)
+                longestExternal = Math.max(longestExternal, longestIn(b));
+        }
+
+        final int chunks = Math.max(1, (int) Math.min(size / 4096, 1024));
+        for (; pass <= MAX_DISTANCE; pass++) {
+            final int p = pass;
+            final int chunkSize = (int) ((size + chunks - 1) / chunks);
+            long found = IntStream.range(0, chunks).parallel().mapToLong(chunk -> {
+                MoveGenerator generator = new MoveGenerator();
+                BitboardPosition pos = new BitboardPosition();
+                BitboardPosition child = new BitboardPosition();
+                long[] moves = new long[MoveCode.MAX_MOVES];
+                long count = 0;
+                int end = (int) Math.min(values.length, (long) (chunk + 1) * chunkSize);
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    if (values[i] != DRAW || !decode(i, bm, bk, wm, wk, pos))
+                        continue;
+                    byte v = resolve(pos, child, generator, moves, values, self, p);
+                    if (v != DRAW) {
+                        values[i] = v;
+                        count++;
+                    }
+                }
+                return count;
+            }).sum();
+            if (found == 0 && pass > longestExternal + 1)
+                break;
+            if (pass % SAVE_INTERVAL == SAVE_INTERVAL - 1)
+                savePartial(partial, pass + 1, values);
+        }
+
+        File temp = new File(directory, target.getName() + ".tmp");
+        Files.write(temp.toPath(), values);
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        partial.delete();
+    }
+
+    /*
+    Decide if a position is won or lost in exactly pass plies, using only results shorter than that.
+    Returns DRAW if it can't be decided in this pass.
+     */
+    private byte resolve(BitboardPosition pos, BitboardPosition child, MoveGenerator generator,
+                         long[] moves, byte[] values, int self, int pass) {
+        int count = generator.generate(pos, moves);
+        if (count == 0)
+            return pass == 0 ? loss(0) : DRAW;
+        if (pass == 0)
+            return DRAW;
+        boolean allLost = true;
+        int longest = 0;
+        for (int i = 0; i < count; i++) {
+            child.set(pos);
+            child.makeMove(moves[i]);
+            int v = childValue(child, values, self);
+            // Only results already known before this pass count
+            if (v != DRAW && distance(v) >= pass)
+                v = DRAW;
+            // The opponent loses after this move, so this position is a win
+            if (isLoss(v) && distance(v) == pass - 1)
+                return win(pass);
+            if (!isWin(v))
+                allLost = false;
+            else
+                longest = Math.max(longest, distance(v));
+        }
+        if (allLost && longest == pass - 1)
+            return loss(pass);
+        return DRAW;
+    }
+
+    // Value of a position one move later, from either this slice or one that is already finished
+    private int childValue(BitboardPosition child, byte[] values, int self) {
+        int bk = Integer.bitCount(child.black & child.kings);
+        int bm = Integer.bitCount(child.black) - bk;
+        int wk = Integer.bitCount(child.white & child.kings);
+        int wm = Integer.bitCount(child.white) - wk;
+        // The player to move has nothing left
+        if ((child.blacksTurn ? bm + bk : wm + wk) == 0)
+            return loss(0);
+        int sig = signature(bm, bk, wm, wk);
+        if (sig == self)
+            return values[index(child)];
+        return slices[sig].get(index(child));
+    }
+
+    private static int longestIn(ByteBuffer b) {
+        int longest = 0;
+        for (int i = 0; i < b.limit(); i++) {
+            int v = b.get(i);
+            if (v != DRAW)
+                longest = Math.max(longest, distance(v));
+        }
+        return longest;
+    }
+
+    private static void savePartial(File partial, int nextPass, byte[] values) throws IOException {
+        File temp = new File(partial.getPath() + ".tmp");
+        try (RandomAccessFile file = new RandomAccessFile(temp, "rw")) {
+            file.setLength(0);
+            file.writeInt(nextPass);
+            file.write(values);
+        }
+        Files.move(temp.toPath(), partial.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Generate a tablebase from the command line
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args.length > 0 ? args[0] : "tablebase");
+        int pieces = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        EndgameTablebase tb = new EndgameTablebase(dir, pieces);
+        long start = System.currentTimeMillis();
+        tb.generate();
+        System.out.println("Done in " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+    Scores a position for the AI. Scores are in hundredths of a man, from the point of view of
+    the player whose turn it is (positive is good for the side to move).
+
+    The weights are instance data so that different evaluation settings can be compared
+    against each other.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class Evaluator {
+    // Back rows that men guard against enemy kings
+    final static int BLACK_BACK_ROW = 0x0000000F;
+    final static int WHITE_BACK_ROW = 0xF0000000;
+    // The 8 squares in the middle of the board
+    final static int CENTER = 0x00666600;
+
+    int manValue = 100;
+    int kingValue = 130;
+    int advanceBonus = 2;   // Per row a man has moved towards being crowned
+    int backRowBonus = 8;   // Per man still sitting on its own back row
+    int centerBonus = 4;    // Per piece on one of the center squares
+
+    // Constructor with default weights
+    public Evaluator() {}
+
+    // Constructor with custom material weights
+    public Evaluator(int manValue, int kingValue) {
+        this.manValue = manValue;
+        this.kingValue = kingValue;
+    }
+
+    /*
+    Read weights written as "man,king,advance,backRow,center", for example "100,130,2,8,4".
+    Weights left off the end keep their default. "nnue:<file>" loads a network instead (see NnueEvaluator).
+    Throws IllegalArgumentException if it can't be read.
+     */
+    public static Evaluator parse(String weights) {
+        if (weights.startsWith("nnue:")) {
+            try {
+                return NnueEvaluator.load(weights.substring(5));
+            }
+            catch (java.io.IOException ex) {
+                throw new IllegalArgumentException("Can't load network: " + ex.getMessage());
+            }
+        }
+        Evaluator e = new Evaluator();
+        String[] parts = weights.split(",");
+        if (parts.length > 5)
+            throw new IllegalArgumentException("Too many weights: " + weights);
+        try {
+            int[] values = {e.manValue, e.kingValue, e.advanceBonus, e.backRowBonus, e.centerBonus};
+            for (int i = 0; i < parts.length; i++) {
+                if (!parts[i].trim().isEmpty())
+                    values[i] = Integer.parseInt(parts[i].trim());
+            }
+            e.manValue = values[0];
+            e.kingValue = values[1];
+            e.advanceBonus = values[2];
+            e.backRowBonus = values[3];
+            e.centerBonus = values[4];
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Bad weights: " + weights);
+        }
+        return e;
+    }
+
+    // The weights in the format read by parse()
+    public String toString() {
+        return manValue + "," + kingValue + "," + advanceBonus + "," + backRowBonus + "," + centerBonus;
+    }
+
+    // The evaluator for one search thread. These weights never change, so this one can be shared
+    public Evaluator forThread() {
+        return this;
+    }
+
+    public int evaluate(BitboardPosition pos) {
+        int score = evaluateBlack(pos);
+        return pos.blacksTurn ? score : -score;
+    }
+
+    // Score from black's point of view
+    public int evaluateBlack(BitboardPosition pos) {
+        int blackMen = pos.black & ~pos.kings;
+        int whiteMen = pos.white & ~pos.kings;
+        int score = manValue * (Integer.bitCount(blackMen) - Integer.bitCount(whiteMen));
+        score += kingValue * (Integer.bitCount(pos.black & pos.kings) - Integer.bitCount(pos.white & pos.kings));
+        score += backRowBonus * (Integer.bitCount(blackMen & BLACK_BACK_ROW) - Integer.bitCount(whiteMen & WHITE_BACK_ROW));
+        score += centerBonus * (Integer.bitCount(pos.black & CENTER) - Integer.bitCount(pos.white & CENTER));
+        score += advanceBonus * (advancement(blackMen, true) - advancement(whiteMen, false));
+        return score;
+    }
+
+    // Sum of how many rows each man has moved forward
+    private int advancement(int men, boolean black) {
+        int total = 0;
+        while (men != 0) {
+            int row = BitboardPosition.row(Integer.numberOfTrailingZeros(men));
+            men &= men - 1;
+            total += black ? row : 7 - row;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+    A collection of games stored in a compact binary form, with an index of every position
+    they reach, so questions like "which games went through this position" are answered with a
+    binary search instead of reading every game. Archives are created with GameArchiveBuilder.
+
+    Both files are memory-mapped (see MappedFile), so opening an archive is instant and only the
+    parts that are used get read from disk.
+
+    Game file (big endian):
+        header : int magic, int version, long game count, long offset of the game index
+        game   : byte result (0 unknown, 1 black won, 2 white won, 3 draw, +0x80 if it has a start)
+                 [int black, int white, int kings, byte black to move]   only if it has a start
+                 short move count, then one byte per move
+        index  : long offset of each game
+    A move is stored as its place in the list of legal moves MoveGenerator makes for the position
+    (at most MoveCode.MAX_MOVES, so it fits in a byte). The positions are therefore exactly the
+    ones the Board's rules produce, but the version must change if MoveGenerator's move order does.
+
+    Position file (the game file's name + ".pos"):
+        header : int magic, int version, long record count
+        record : long position hash (see Zobrist), int game number
+    sorted by hash, then game. A game is listed once per position even if it repeats it.
+
+    Usage: java checkers.GameArchive <archive> [fen]    lists the games through a position
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+public class GameArchive {
+    final static int MAGIC = 0x434B4741; // "CKGA"
+    final static int POSITIONS_MAGIC = 0x434B5049; // "CKPI"
+    final static int VERSION = 1;
+    final static int HEADER_BYTES = 24;
+    final static int POSITIONS_HEADER_BYTES = 16;
+    final static int POSITION_BYTES = 12;
+    final static int HAS_START = 0x80;
+    final static String[] RESULTS = {PdnGame.UNKNOWN, PdnGame.BLACK_WINS, PdnGame.WHITE_WINS, PdnGame.DRAW};
+
+    private final MappedFile games;
+    private final MappedFile positions;
+    private final long gameCount;
+    private final long indexOffset;
+    private final long positionCount;
+
+    // Scratch space for read()
+    private final BitboardPosition position = new BitboardPosition();
+    private final MoveGenerator generator = new MoveGenerator();
+    private final long[] legal = new long[MoveCode.MAX_MOVES];
+
+    // Constructor; maps the archive and its position file, throws IOException if they aren't an archive
+    public GameArchive(File file) throws IOException {
+        games = new MappedFile(file);
+        if (games.length() < HEADER_BYTES || games.getInt(0) != MAGIC || games.getInt(4) != VERSION)
+            throw new IOException("Not a game archive: " + file);
+        gameCount = games.getLong(8);
+        indexOffset = games.getLong(16);
+        if (indexOffset + gameCount * 8 > games.length())
+            throw new IOException("Game archive is truncated: " + file);
+
+        File positionFile = positionFile(file);
+        positions = new MappedFile(positionFile);
+        if (positions.length() < POSITIONS_HEADER_BYTES || positions.getInt(0) != POSITIONS_MAGIC
+                || positions.getInt(4) != VERSION)
+            throw new IOException("Not a position index: " + positionFile);
+        positionCount = positions.getLong(8);
+        if (POSITIONS_HEADER_BYTES + positionCount * POSITION_BYTES > positions.length())
+            throw new IOException("Position index is truncated: " + positionFile);
+    }
+
+    // The position index that goes with an archive file
+    static File positionFile(File archive) {
+        return new File(archive.getPath() + ".pos");
+    }
+
+    // Number of games
+    public int size() {
+        return (int) gameCount;
+    }
+
+    /*
+    Read a game into the given PdnGame (which is cleared first; tags aren't stored in the archive).
+    Uses scratch space in the archive, so only one thread should read at a time.
+     */
+    public synchronized void read(int game, PdnGame into) {
+        if (game < 0 || game >= gameCount)
+            throw new IndexOutOfBoundsException("Game " + game + " of " + gameCount);
+        into.clear();
+        long at = games.getLong(indexOffset + game * 8L);
+        int flags = games.get(at++) & 0xFF;
+        into.result = RESULTS[flags & 3];
+        if ((flags & HAS_START) != 0) {
+            int black = games.getInt(at);
+            int white = games.getInt(at + 4);
+            int kings = games.getInt(at + 8);
+            boolean blacksTurn = games.get(at + 12) != 0;
+            into.start = new GameState(black, white, kings, blacksTurn, -1);
+            at += 13;
+        }
+        int moves = games.getShort(at) & 0xFFFF;
+        at += 2;
+        position.set(into.start.toPosition());
+        for (int i = 0; i < moves; i++) {
+            generator.generate(position, legal);
+            long move = legal[games.get(at + i) & 0xFF];
+            position.makeMove(move);
+            into.addMove(move);
+        }
+    }
+
+    private long hashAt(long record) {
+        return positions.getLong(POSITIONS_HEADER_BYTES + record * POSITION_BYTES);
+    }
+
+    // Binary search for the first record of a position
+    private long find(long hash) {
+        long low = 0;
+        long high = positionCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (hashAt(mid) < hash)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /*
+    Copy the numbers of the games that reached a position (by its hash, see GameState.hash())
+    into out, in order, and return how many games there are in total, which can be more than
+    fit in out. Safe to call from any number of threads.
+     */
+    public int gamesThrough(long hash, int[] out) {
+        int count = 0;
+        for (long r = find(hash); r < positionCount && hashAt(r) == hash; r++) {
+            if (count < out.length)
+                out[count] = positions.getInt(POSITIONS_HEADER_BYTES + r * POSITION_BYTES + 8);
+            count++;
+        }
+        return count;
+    }
+
+    // Convenience version of gamesThrough() that returns every game
+    public int[] gamesThrough(GameState state) {
+        int count = gamesThrough(state.hash(), new int[0]);
+        int[] found = new int[count];
+        gamesThrough(state.hash(), found);
+        return found;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java checkers.GameArchive <archive> [fen]");
+            return;
+        }
+        GameArchive archive = new GameArchive(new File(args[0]));
+        GameState state = args.length > 1 ? Notation.parseFen(args[1]) : new GameState();
+        long start = System.nanoTime();
+        int[] found = archive.gamesThrough(state);
+        long micros = (System.nanoTime() - start) / 1000;
+        System.out.println(archive.size() + " games, " + found.length + " through " + Notation.toFen(state)
+                + " (" + micros + " us)");
+        PdnWriter writer = new PdnWriter(new OutputStreamWriter(System.out));
+        PdnGame game = new PdnGame();
+        for (int i = 0; i < found.length && i < 5; i++) {
+            archive.read(found[i], game);
+            game.setTag("Game", String.valueOf(found[i]));
+            writer.write(game);
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,329 @@
+/*
+    Builds a GameArchive (and its position index) from games, usually read from PDN files.
+
+    Games are written out as they are added, so any number can be streamed through. The position
+    index is sorted in pieces that fit in memory, each written to a temporary file, and the pieces
+    are merged at the end, so tens of millions of games need no more memory than one piece.
+
+    Games with an illegal move are skipped. Only the first maxPlies positions of each game are
+    indexed (0 means every position); later positions are almost always unique to one game.
+
+    Usage: java checkers.GameArchiveBuilder <archive> <games.pdn>... [-plies n]
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+public class GameArchiveBuilder implements Closeable {
+    // Positions sorted in memory at once (12 bytes each)
+    final static int CHUNK = 1 << 22;
+
+    int maxPlies = 0;
+    long gamesAdded = 0;
+    long gamesRejected = 0;
+
+    private final File file;
+    private final File temp;
+    private final Output games;
+    private final Output offsets;
+    private final File offsetFile;
+
+    // Positions not yet sorted, and the sorted pieces waiting to be merged
+    private final long[] hashes = new long[CHUNK];
+    private final int[] gameNumbers = new int[CHUNK];
+    private int pending = 0;
+    private final ArrayList<File> runs = new ArrayList<File>();
+
+    private final BitboardPosition position = new BitboardPosition();
+    private final MoveGenerator generator = new MoveGenerator();
+    private final long[] legal = new long[MoveCode.MAX_MOVES];
+
+    // A FileChannel written through a buffer, keeping track of how much was written
+    private static class Output {
+        final FileChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        long written = 0;
+
+        Output(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        // Make room for n more bytes in the buffer
+        ByteBuffer room(int n) throws IOException {
+            if (buffer.remaining() < n)
+                flush();
+            written += n;
+            return buffer;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+
+        void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+
+    // Constructor; starts a new archive, which is only put in place by close()
+    public GameArchiveBuilder(File file) throws IOException {
+        this.file = file;
+        temp = new File(file.getPath() + ".tmp");
+        offsetFile = new File(file.getPath() + ".offsets.tmp");
+        games = new Output(temp);
+        offsets = new Output(offsetFile);
+        // The counts are filled in by close()
+        games.room(GameArchive.HEADER_BYTES).putInt(GameArchive.MAGIC).putInt(GameArchive.VERSION).putLong(0).putLong(0);
+    }
+
+    // Add every game from a PDN reader, returns how many were added
+    public int addGames(PdnReader in) throws IOException {
+        int added = 0;
+        PdnGame game = new PdnGame();
+        while (in.next(game)) {
+            if (add(game))
+                added++;
+        }
+        return added;
+    }
+
+    // Add one game, returns false (and adds nothing) if it has an illegal move or is too long
+    public boolean add(PdnGame game) throws IOException {
+        if (!game.isValid() || game.moveCount > 0xFFFF || game.start.continuingSquare() >= 0) {
+            gamesRejected++;
+            return false;
+        }
+        int number = (int) gamesAdded;
+        offsets.room(8).putLong(games.written);
+
+        boolean hasStart = !game.start.equals(PdnGame.STANDARD_START);
+        int flags = hasStart ? GameArchive.HAS_START : 0;
+        for (int i = 0; i < GameArchive.RESULTS.length; i++) {
+            if (GameArchive.RESULTS[i].equals(game.result))
+                flags |= i;
+        }
+        games.room(1).put((byte) flags);
+        position.set(game.start.toPosition());
+        if (hasStart) {
+            games.room(13).putInt(position.black).putInt(position.white).putInt(position.kings)
+                    .put((byte) (position.blacksTurn ? 1 : 0));
+        }
+        games.room(2).putShort((short) game.moveCount);
+        addPosition(position.hash, number);
+        for (int i = 0; i < game.moveCount; i++) {
+            int count = generator.generate(position, legal);
+            int index = 0;
+            while (index < count && legal[index] != game.moves[i])
+                index++;
+            if (index == count)
+                throw new IllegalArgumentException("Not a full legal move: " + MoveCode.toString(game.moves[i]));
+            games.room(1).put((byte) index);
+            position.makeMove(game.moves[i]);
+            if (maxPlies == 0 || i < maxPlies)
+                addPosition(position.hash, number);
+        }
+        gamesAdded++;
+        return true;
+    }
+
+    private void addPosition(long hash, int game) throws IOException {
+        if (pending == CHUNK)
+            writeRun();
+        hashes[pending] = hash;
+        gameNumbers[pending] = game;
+        pending++;
+    }
+
+    // Sort the pending positions and write them to a temporary file
+    private void writeRun() throws IOException {
+        File run = new File(file.getPath() + ".run" + runs.size() + ".tmp");
+        runs.add(run);
+        Output out = new Output(run);
+        writeSorted(out);
+        out.close();
+    }
+
+    // Sort the pending positions and write them without repeats
+    private void writeSorted(Output out) throws IOException {
+        sort(hashes, gameNumbers, 0, pending - 1);
+        for (int i = 0; i < pending; i++) {
+            if (i > 0 && hashes[i] == hashes[i - 1] && gameNumbers[i] == gameNumbers[i - 1])
+                continue;
+            out.room(GameArchive.POSITION_BYTES).putLong(hashes[i]).putInt(gameNumbers[i]);
+        }
+        pending = 0;
+    }
+
+    // Finish both files and put them in place of any old archive
+    @Override
+    public void close() throws IOException {
+        long indexOffset = games.written;
+        offsets.close();
+        games.flush();
+        try (FileChannel in = FileChannel.open(offsetFile.toPath(), StandardOpenOption.READ)) {
+            long copied = 0;
+            while (copied < in.size())
+                copied += in.transferTo(copied, in.size() - copied, games.channel);
+        }
+        games.channel.write(ByteBuffer.allocate(16).putLong(0, gamesAdded).putLong(8, indexOffset), 8);
+        games.close();
+        offsetFile.delete();
+
+        File positionFile = GameArchive.positionFile(file);
+        File positionTemp = new File(positionFile.getPath() + ".tmp");
+        Output out = new Output(positionTemp);
+        out.room(GameArchive.POSITIONS_HEADER_BYTES).putInt(GameArchive.POSITIONS_MAGIC).putInt(GameArchive.VERSION).putLong(0);
+        if (runs.isEmpty())
+            writeSorted(out);
+        else {
+            writeRun();
+            merge(out);
+        }
+        out.flush();
+        long records = (out.written - GameArchive.POSITIONS_HEADER_BYTES) / GameArchive.POSITION_BYTES;
+        out.channel.write(ByteBuffer.allocate(8).putLong(0, records), 8);
+        out.close();
+
+        java.nio.file.Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        java.nio.file.Files.move(positionTemp.toPath(), positionFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Merge the sorted temporary files into one, dropping repeats, then delete them
+    private void merge(Output out) throws IOException {
+        int n = runs.size();
+        DataInputStream[] in = new DataInputStream[n];
+        long[] hash = new long[n];
+        int[] game = new int[n];
+        boolean[] done = new boolean[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                in[i] = new DataInputStream(new BufferedInputStream(new FileInputStream(runs.get(i)), 64 * 1024));
+                done[i] = !readRecord(in[i], hash, game, i);
+            }
+            long lastHash = 0;
+            int lastGame = -1;
+            while (true) {
+                // Few runs are ever merged at once, so a plain search for the smallest is enough
+                int min = -1;
+                for (int i = 0; i < n; i++) {
+                    if (!done[i] && (min < 0 || hash[i] < hash[min] || (hash[i] == hash[min] && game[i] < game[min])))
+                        min = i;
+                }
+                if (min < 0)
+                    break;
+                if (hash[min] != lastHash || game[min] != lastGame) {
+                    out.room(GameArchive.POSITION_BYTES).putLong(hash[min]).putInt(game[min]);
+                    lastHash = hash[min];
+                    lastGame = game[min];
+                }
+                done[min] = !readRecord(in[min], hash, game, min);
+            }
+        }
+        finally {
+            for (int i = 0; i < n; i++) {
+                if (in[i] != null)
+                    in[i].close();
+                runs.get(i).delete();
+            }
+            runs.clear();
+        }
+    }
+
+    private static boolean readRecord(DataInputStream in, long[] hash, int[] game, int i) throws IOException {
+        try {
+            hash[i] = in.readLong();
+            game[i] = in.readInt();
+            return true;
+        }
+        catch (EOFException e) {
+            return false;
+        }
+    }
+
+    // Quicksort by hash then game number, keeping the two arrays in step
+    static void sort(long[] keys, int[] values, int low, int high) {
+        while (high - low > 16) {
+            long pivotKey = keys[(low + high) >>> 1];
+            int pivotValue = values[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivotKey || (keys[i] == pivotKey && values[i] < pivotValue))
+                    i++;
+                while (keys[j] > pivotKey || (keys[j] == pivotKey && values[j] > pivotValue))
+                    j--;
+                if (i <= j) {
+                    long k = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = k;
+                    int v = values[i];
+                    values[i] = values[j];
+                    values[j] = v;
+                    i++;
+                    j--;
+                }
+            }
+            // Sort the smaller side first so the stack stays shallow
+            if (j - low < high - i) {
+                sort(keys, values, low, j);
+                low = i;
+            }
+            else {
+                sort(keys, values, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            long k = keys[i];
+            int v = values[i];
+            int j = i - 1;
+            while (j >= low && (keys[j] > k || (keys[j] == k && values[j] > v))) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            values[j + 1] = v;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java checkers.GameArchiveBuilder <archive> <games.pdn>... [-plies n]");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try (GameArchiveBuilder builder = new GameArchiveBuilder(new File(args[0]))) {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("-plies")) {
+                    builder.maxPlies = Integer.parseInt(args[++i]);
+                    continue;
+                }
+                try (PdnReader in = PdnReader.open(new File(args[i]))) {
+                    builder.addGames(in);
+                }
+            }
+            System.out.println("Added " + builder.gamesAdded + " games (" + builder.gamesRejected + " rejected) in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+}
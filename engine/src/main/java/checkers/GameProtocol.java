@@ -0,0 +1,122 @@
+/*
+    The messages GameServer and its clients (NetworkPlayer, GameServerLoad) send each other.
+
+    Every message is one type byte followed by a payload whose size depends only on the type,
+    so there are no length fields. A move is 6 bytes: the square it starts on, the square it ends on
+    and the mask of captured squares; the receiver looks it up among the legal moves (which also
+    tells it whether the piece is crowned), so a move that isn't legal simply isn't found.
+
+        Client to server                     Server to client
+        JOIN      wait for an opponent       START    byte color (1 black, 0 white), int game number
+        MOVE      6 byte move                MOVED    6 byte move, sent to both players
+        RESIGN                               ILLEGAL  the last MOVE was refused
+                                             END      byte result (see GameState, ONGOING for a draw), byte reason
+
+    A connection plays one game at a time and sends JOIN again for the next one.
+
+    Spectators send WATCH instead, and get the game as a SNAPSHOT followed by a DELTA for each move
+    (see SpectatorBroadcast). A spectator that falls behind gets a new SNAPSHOT instead of the
+    deltas it missed, so the ply number in a DELTA always follows on from the last message.
+
+        WATCH     int game number            SNAPSHOT int game number, short ply, int black, int white, int kings, byte black to move
+                                             DELTA    short ply, byte from, byte to (+128 if crowned), int captured
+                                             END      also sent to spectators, reason UNKNOWN_GAME if there's no such game
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.nio.ByteBuffer;
+
+public class GameProtocol {
+    final static int DEFAULT_PORT = 4747;
+
+    final static byte JOIN = 1;
+    final static byte MOVE = 2;
+    final static byte RESIGN = 3;
+    final static byte WATCH = 4;
+    final static byte START = 10;
+    final static byte MOVED = 11;
+    final static byte ILLEGAL = 12;
+    final static byte END = 13;
+    final static byte SNAPSHOT = 14;
+    final static byte DELTA = 15;
+
+    // Why a game ended
+    final static byte END_RESULT = 0;      // Somebody has no moves left
+    final static byte END_RESIGNED = 1;
+    final static byte END_LEFT = 2;        // A player disconnected
+    final static byte END_MOVE_LIMIT = 3;  // Too long, a draw
+    final static byte END_UNKNOWN_GAME = 4; // Nothing to watch
+
+    final static int MOVE_BYTES = 6;
+    final static int SNAPSHOT_BYTES = 19;
+    final static int DELTA_BYTES = 8;
+    final static int CROWN_BIT = 0x80;
+    // Longest message, type byte included
+    final static int MAX_MESSAGE = 1 + SNAPSHOT_BYTES;
+
+    // Payload size of a message type, -1 if it isn't one
+    static int payloadSize(byte type) {
+        switch (type) {
+            case JOIN:
+            case RESIGN:
+            case ILLEGAL:
+                return 0;
+            case MOVE:
+            case MOVED:
+                return MOVE_BYTES;
+            case START:
+                return 5;
+            case WATCH:
+                return 4;
+            case SNAPSHOT:
+                return SNAPSHOT_BYTES;
+            case DELTA:
+                return DELTA_BYTES;
+            case END:
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+    static void putMove(ByteBuffer buf, byte type, long move) {
+        buf.put(type);
+        buf.put((byte) MoveCode.from(move));
+        buf.put((byte) MoveCode.to(move));
+        buf.putInt(MoveCode.captured(move));
+    }
+
+    /*
+    Read a move payload and find it among the full moves of a state (written into legal).
+    Returns MoveCode.NONE if it isn't one of them.
+     */
+    static long readMove(ByteBuffer buf, GameState state, long[] legal) {
+        int from = buf.get();
+        int to = buf.get();
+        int captured = buf.getInt();
+        int count = state.fullMoves(legal);
+        for (int i = 0; i < count; i++) {
+            long move = legal[i];
+            if (MoveCode.from(move) == from && MoveCode.to(move) == to && MoveCode.captured(move) == captured)
+                return move;
+        }
+        return MoveCode.NONE;
+    }
+
+    // Write a game as a SNAPSHOT message
+    static void putSnapshot(ByteBuffer buf, int game, int ply, GameState state) {
+        buf.put(SNAPSHOT).putInt(game).putShort((short) ply);
+        buf.putInt(state.black).putInt(state.white).putInt(state.kings).put((byte) (state.blacksTurn() ? 1 : 0));
+    }
+
+    // Write a move as a DELTA message: the squares the move changes, which is all a spectator needs
+    static void putDelta(ByteBuffer buf, int ply, long move) {
+        buf.put(DELTA).putShort((short) ply);
+        buf.put((byte) MoveCode.from(move));
+        buf.put((byte) (MoveCode.to(move) | (MoveCode.crowns(move) ? CROWN_BIT : 0)));
+        buf.putInt(MoveCode.captured(move));
+    }
+}
@@ -0,0 +1,500 @@
+/*
+    Hosts networked checkers games for any number of pairs of players (see GameProtocol).
+
+    Everything is non-blocking NIO: each server thread runs one Selector that watches all of its
+    connections, so a few threads can host thousands of games. New connections are accepted on the
+    first thread and dealt out to the threads in turn. Players are paired on the thread they belong
+    to, so a game and both its connections are only ever touched by one thread, and nothing needs locking.
+
+    The server keeps the real game: a move is only passed on if it's one of the legal moves of
+    the game's GameState, the same rules the Board plays by.
+
+    Anyone can WATCH a game in progress by its number. The spectator's connection is handed to the
+    thread that owns the game and gets the moves through the game's SpectatorBroadcast.
+
+    Usage: java checkers.GameServer [port] [threads]     or  java checkers.CheckersGame --server [port] [threads]
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameServer {
+    // A game this long is a draw
+    final static int MAX_PLIES = 300;
+    // Bytes a connection may fall behind by before it's dropped, plenty for a client that's reading
+    final static int WRITE_BUFFER = 512;
+    final static int READ_BUFFER = 64;
+
+    private final ServerSocketChannel server;
+    private final Loop[] loops;
+    private volatile boolean running = true;
+    private int nextLoop = 0;
+    // Games in progress by number, so a spectator on any thread can find one
+    private final ConcurrentHashMap<Integer, Game> games = new ConcurrentHashMap<Integer, Game>();
+
+    // Counters, read by anyone
+    final AtomicLong connections = new AtomicLong();
+    final AtomicLong gamesStarted = new AtomicLong();
+    final AtomicLong gamesFinished = new AtomicLong();
+    final AtomicLong moves = new AtomicLong();
+    final AtomicLong illegalMoves = new AtomicLong();
+    final AtomicLong spectators = new AtomicLong();
+
+    // One player's connection
+    private static class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER);
+        final ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER);
+        Game game;
+        boolean black;
+        // Set while the connection is a spectator
+        SpectatorBroadcast watching;
+        SpectatorBroadcast.Viewer viewer;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    private static class Game {
+        final int number;
+        final Loop loop;
+        final Connection black;
+        final Connection white;
+        GameState state = new GameState();
+        int plies = 0;
+        // Made when the first spectator arrives
+        SpectatorBroadcast viewers;
+
+        Game(int number, Loop loop, Connection black, Connection white) {
+            this.number = number;
+            this.loop = loop;
+            this.black = black;
+            this.white = white;
+        }
+    }
+
+    // A spectator on its way to the thread that owns the game it wants to watch
+    private static class Watcher {
+        final SocketChannel channel;
+        final int game;
+
+        Watcher(SocketChannel channel, int game) {
+            this.channel = channel;
+            this.game = game;
+        }
+    }
+
+    // Constructor; a port of 0 picks any free one (see port())
+    public GameServer(int port, int threads) throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 4096);
+        server.configureBlocking(false);
+        loops = new Loop[Math.max(1, threads)];
+        for (int i = 0; i < loops.length; i++)
+            loops[i] = new Loop(i);
+        server.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    // Start the server threads, returns straight away
+    public void start() {
+        for (Loop loop : loops) {
+            Thread t = new Thread(loop, "GameServer-" + loop.index);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    // Stop serving and close every connection
+    public void close() {
+        running = false;
+        for (Loop loop : loops)
+            loop.selector.wakeup();
+        try {
+            server.close();
+        }
+        catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    public int activeGames() {
+        return (int) (gamesStarted.get() - gamesFinished.get());
+    }
+
+    // One server thread and the connections it looks after
+    private class Loop implements Runnable {
+        final int index;
+        final Selector selector;
+        // Accepted connections handed over by the first thread
+        final ConcurrentLinkedQueue<SocketChannel> incoming = new ConcurrentLinkedQueue<SocketChannel>();
+        // Spectators handed over by the other threads
+        final ConcurrentLinkedQueue<Watcher> watchers = new ConcurrentLinkedQueue<Watcher>();
+        // A player waiting for an opponent
+        Connection waiting;
+        final long[] legal = new long[MoveCode.MAX_MOVES];
+
+        Loop(int index) throws IOException {
+            this.index = index;
+            selector = Selector.open();
+        }
+
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = incoming.poll()) != null)
+                        register(channel);
+                    Watcher w;
+                    while ((w = watchers.poll()) != null) {
+                        Connection c = register(w.channel);
+                        if (c != null)
+                            watch(c, w.game);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (!key.isValid())
+                            continue;
+                        if (key.isAcceptable())
+                            accept();
+                        else {
+                            Connection c = (Connection) key.attachment();
+                            if (key.isReadable())
+                                read(c);
+                            if (key.isValid() && key.isWritable()) {
+                                if (c.watching != null)
+                                    c.watching.writable(c.viewer);
+                                else
+                                    flush(c);
+                            }
+                        }
+                    }
+                }
+            }
+            catch (IOException e) {
+                System.out.println("Game server thread stopped: " + e.getMessage());
+            }
+            finally {
+                for (SelectionKey key : selector.keys()) {
+                    try {
+                        key.channel().close();
+                    }
+                    catch (IOException e) {
+                        // Closing anyway
+                    }
+                }
+                try {
+                    selector.close();
+                }
+                catch (IOException e) {
+                    // Closing anyway
+                }
+            }
+        }
+
+        // Take every waiting connection and deal them out to the threads
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                connections.incrementAndGet();
+                Loop loop = loops[nextLoop++ % loops.length];
+                if (loop == this)
+                    register(channel);
+                else {
+                    loop.incoming.add(channel);
+                    loop.selector.wakeup();
+                }
+            }
+        }
+
+        private Connection register(SocketChannel channel) {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                Connection c = new Connection(channel, key);
+                key.attach(c);
+                return c;
+            }
+            catch (IOException e) {
+                // Gone before it could be registered
+                connections.decrementAndGet();
+                try {
+                    channel.close();
+                }
+                catch (IOException e2) {
+                    // Closing anyway
+                }
+                return null;
+            }
+        }
+
+        // Read what has arrived and handle every complete message in it
+        private void read(Connection c) {
+            int n;
+            try {
+                n = c.channel.read(c.in);
+            }
+            catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                disconnect(c);
+                return;
+            }
+            ByteBuffer in = c.in;
+            in.flip();
+            while (in.hasRemaining()) {
+                byte type = in.get(in.position());
+                int size = GameProtocol.payloadSize(type);
+                if (size < 0) {
+                    disconnect(c);
+                    return;
+                }
+                if (in.remaining() < 1 + size)
+                    break;
+                in.get();
+                handle(c, type, in);
+                if (!c.key.isValid())
+                    return;
+            }
+            in.compact();
+        }
+
+        private void handle(Connection c, byte type, ByteBuffer in) {
+            Game game = c.game;
+            switch (type) {
+                case GameProtocol.JOIN:
+                    if (game == null && waiting != c) {
+                        stopWatching(c);
+                        join(c);
+                    }
+                    break;
+                case GameProtocol.WATCH:
+                    int number = in.getInt();
+                    if (game == null && waiting != c)
+                        watch(c, number);
+                    break;
+                case GameProtocol.MOVE:
+                    if (game == null || game.state.blacksTurn() != c.black) {
+                        in.position(in.position() + GameProtocol.MOVE_BYTES);
+                        refuse(c);
+                        break;
+                    }
+                    long move = GameProtocol.readMove(in, game.state, legal);
+                    if (move == MoveCode.NONE) {
+                        refuse(c);
+                        break;
+                    }
+                    // readMove() only returns one of the legal moves
+                    game.state = game.state.applyLegal(move);
+                    game.plies++;
+                    moves.incrementAndGet();
+                    sendMove(game.black, move);
+                    sendMove(game.white, move);
+                    if (game.viewers != null)
+                        game.viewers.publish(move, game.state);
+                    if (game.state.isGameOver())
+                        end(game, game.state.result(), GameProtocol.END_RESULT, null);
+                    else if (game.plies >= MAX_PLIES)
+                        end(game, GameState.ONGOING, GameProtocol.END_MOVE_LIMIT, null);
+                    break;
+                case GameProtocol.RESIGN:
+                    if (game != null)
+                        end(game, c.black ? GameState.WHITE_WINS : GameState.BLACK_WINS, GameProtocol.END_RESIGNED, null);
+                    break;
+                default:
+                    // Only the server sends the other messages
+                    disconnect(c);
+            }
+        }
+
+        // Pair a player with the one waiting, or have them wait. Whoever waited plays black
+        private void join(Connection c) {
+            if (waiting == null || !waiting.key.isValid()) {
+                waiting = c;
+                return;
+            }
+            Game game = new Game((int) gamesStarted.incrementAndGet(), this, waiting, c);
+            waiting = null;
+            games.put(game.number, game);
+            game.black.game = game;
+            game.black.black = true;
+            game.white.game = game;
+            game.white.black = false;
+            sendStart(game.black, game);
+            sendStart(game.white, game);
+        }
+
+        // Finish a game and tell the players, skipping one that has gone
+        private void end(Game game, int result, byte reason, Connection gone) {
+            gamesFinished.incrementAndGet();
+            games.remove(game.number);
+            if (game.viewers != null)
+                game.viewers.end(result, reason);
+            game.black.game = null;
+            game.white.game = null;
+            if (game.black != gone)
+                sendEnd(game.black, result, reason);
+            if (game.white != gone)
+                sendEnd(game.white, result, reason);
+        }
+
+        /*
+        Start sending a game to a spectator. A game on another thread gets the connection handed
+        over to that thread, which calls this again once it has registered it.
+         */
+        private void watch(Connection c, int number) {
+            stopWatching(c);
+            Game game = games.get(number);
+            if (game == null) {
+                sendEnd(c, GameState.ONGOING, GameProtocol.END_UNKNOWN_GAME);
+                return;
+            }
+            if (game.loop != this) {
+                // The connection is still counted, it's only moving to another selector
+                c.key.cancel();
+                game.loop.watchers.add(new Watcher(c.channel, number));
+                game.loop.selector.wakeup();
+                return;
+            }
+            if (game.viewers == null)
+                game.viewers = new SpectatorBroadcast(game.number, game.state, game.plies);
+            c.watching = game.viewers;
+            c.viewer = new SpectatorBroadcast.Viewer(c.channel, c.key) {
+                @Override
+                void closed() {
+                    // The broadcast gave up on a spectator that stopped reading
+                    connections.decrementAndGet();
+                    spectators.decrementAndGet();
+                }
+            };
+            spectators.incrementAndGet();
+            c.watching.add(c.viewer);
+        }
+
+        private void stopWatching(Connection c) {
+            if (c.watching == null)
+                return;
+            c.watching.remove(c.viewer);
+            c.watching = null;
+            c.viewer = null;
+            spectators.decrementAndGet();
+        }
+
+        private void sendEnd(Connection c, int result, byte reason) {
+            if (reserve(c, 3)) {
+                c.out.put(GameProtocol.END).put((byte) result).put(reason);
+                flush(c);
+            }
+        }
+
+        private void refuse(Connection c) {
+            illegalMoves.incrementAndGet();
+            if (reserve(c, 1)) {
+                c.out.put(GameProtocol.ILLEGAL);
+                flush(c);
+            }
+        }
+
+        private void sendMove(Connection c, long move) {
+            if (reserve(c, 1 + GameProtocol.MOVE_BYTES)) {
+                GameProtocol.putMove(c.out, GameProtocol.MOVED, move);
+                flush(c);
+            }
+        }
+
+        private void sendStart(Connection c, Game game) {
+            if (reserve(c, 6)) {
+                c.out.put(GameProtocol.START).put((byte) (c.black ? 1 : 0)).putInt(game.number);
+                flush(c);
+            }
+        }
+
+        // Make sure a message fits, dropping a connection that has stopped reading
+        private boolean reserve(Connection c, int bytes) {
+            if (!c.key.isValid())
+                return false;
+            if (c.out.remaining() >= bytes)
+                return true;
+            disconnect(c);
+            return false;
+        }
+
+        // Write as much as the socket takes, and ask to hear when it takes more if anything is left
+        private void flush(Connection c) {
+            ByteBuffer out = c.out;
+            out.flip();
+            try {
+                c.channel.write(out);
+            }
+            catch (IOException e) {
+                out.clear();
+                disconnect(c);
+                return;
+            }
+            out.compact();
+            int interest = out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (c.key.interestOps() != interest)
+                c.key.interestOps(interest);
+        }
+
+        // Close a connection, its opponent wins
+        private void disconnect(Connection c) {
+            if (!c.key.isValid())
+                return;
+            c.key.cancel();
+            try {
+                c.channel.close();
+            }
+            catch (IOException e) {
+                // Closing anyway
+            }
+            connections.decrementAndGet();
+            stopWatching(c);
+            if (waiting == c)
+                waiting = null;
+            Game game = c.game;
+            if (game != null)
+                end(game, c.black ? GameState.WHITE_WINS : GameState.BLACK_WINS, GameProtocol.END_LEFT, c);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : GameProtocol.DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = new GameServer(port, threads);
+        server.start();
+        System.out.println("Hosting games on port " + server.port() + " with " + threads + " threads");
+        long lastMoves = 0;
+        while (true) {
+            Thread.sleep(10000);
+            long total = server.moves.get();
+            System.out.println(server.connections.get() + " connections (" + server.spectators.get() + " watching), " + server.activeGames() + " games in progress, "
+                    + server.gamesFinished.get() + " finished, " + (total - lastMoves) / 10 + " moves/s");
+            lastMoves = total;
+        }
+    }
+}
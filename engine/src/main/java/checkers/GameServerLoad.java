@@ -0,0 +1,219 @@
+/*
+    Load test for GameServer: connects lots of simulated players that play random legal moves as
+    fast as the server lets them, and measures how long each move takes to be confirmed (from
+    sending MOVE to getting its MOVED back).
+
+    With no host it starts a server of its own on the loopback address, so it can be run anywhere.
+    The players all share one Selector on one thread, like the server does.
+    Prints one line of JSON with the move rate and latency percentiles in microseconds.
+
+    Usage: java checkers.GameServerLoad [players] [games] [server threads] [host:port]
+           (defaults 2000 players, 5000 games, one server thread per processor)
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+public class GameServerLoad {
+    int players = 2000;
+    int games = 5000;
+
+    private final Random random = new Random(1);
+    private final long[] legal = new long[MoveCode.MAX_MOVES];
+    private int gamesFinished = 0;
+    private int joined = 0;
+    private int closed = 0;
+    private long moves = 0;
+    private long illegal = 0;
+    // Move latencies in nanoseconds, grows as needed
+    private long[] latencies = new long[1 << 16];
+    private int latencyCount = 0;
+
+    // One simulated player
+    private static class Player {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(256);
+        final ByteBuffer out = ByteBuffer.allocate(64);
+        GameState state;
+        boolean black;
+        long sentAt;
+
+        Player(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    // Play until the games are finished, returns the time it took in nanoseconds
+    long run(InetSocketAddress address) throws IOException {
+        Selector selector = Selector.open();
+        for (int i = 0; i < players; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.connect(address);
+            channel.register(selector, SelectionKey.OP_CONNECT, new Player(channel));
+        }
+        long start = System.nanoTime();
+        while (closed < players) {
+            selector.select(1000);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Player p = (Player) key.attachment();
+                try {
+                    if (key.isConnectable()) {
+                        p.channel.finishConnect();
+                        key.interestOps(SelectionKey.OP_READ);
+                        join(p);
+                    }
+                    else if (key.isReadable())
+                        read(p, key);
+                }
+                catch (IOException e) {
+                    key.cancel();
+                    p.channel.close();
+                    closed++;
+                }
+            }
+        }
+        selector.close();
+        return System.nanoTime() - start;
+    }
+
+    private void join(Player p) throws IOException {
+        if (joined >= 2 * games) {
+            p.channel.close();
+            closed++;
+            return;
+        }
+        joined++;
+        p.out.clear();
+        p.out.put(GameProtocol.JOIN);
+        send(p);
+    }
+
+    private void read(Player p, SelectionKey key) throws IOException {
+        if (p.channel.read(p.in) < 0)
+            throw new IOException("server closed the connection");
+        ByteBuffer in = p.in;
+        in.flip();
+        while (in.hasRemaining() && p.channel.isOpen()) {
+            byte type = in.get(in.position());
+            int size = GameProtocol.payloadSize(type);
+            if (size < 0)
+                throw new IOException("unknown message " + type);
+            if (in.remaining() < 1 + size)
+                break;
+            in.get();
+            switch (type) {
+                case GameProtocol.START:
+                    p.black = in.get() == 1;
+                    in.getInt();
+                    p.state = new GameState();
+                    if (p.black)
+                        play(p);
+                    break;
+                case GameProtocol.MOVED:
+                    boolean mine = p.state.blacksTurn() == p.black;
+                    long move = GameProtocol.readMove(in, p.state, legal);
+                    if (move == MoveCode.NONE)
+                        throw new IOException("server sent an illegal move");
+                    p.state = p.state.apply(move);
+                    if (mine)
+                        addLatency(System.nanoTime() - p.sentAt);
+                    else if (!p.state.isGameOver())
+                        play(p);
+                    break;
+                case GameProtocol.ILLEGAL:
+                    illegal++;
+                    break;
+                case GameProtocol.END:
+                    in.get();
+                    in.get();
+                    // Both players get END, count the game once
+                    if (p.black)
+                        gamesFinished++;
+                    join(p);
+                    break;
+                default:
+                    throw new IOException("unexpected message " + type);
+            }
+        }
+        in.compact();
+    }
+
+    // Send a random legal move
+    private void play(Player p) throws IOException {
+        int count = p.state.fullMoves(legal);
+        long move = legal[random.nextInt(count)];
+        p.out.clear();
+        GameProtocol.putMove(p.out, GameProtocol.MOVE, move);
+        p.sentAt = System.nanoTime();
+        moves++;
+        send(p);
+    }
+
+    // Messages are a few bytes, so the socket always takes them whole
+    private void send(Player p) throws IOException {
+        p.out.flip();
+        while (p.out.hasRemaining())
+            p.channel.write(p.out);
+    }
+
+    private void addLatency(long nanos) {
+        if (latencyCount == latencies.length)
+            latencies = Arrays.copyOf(latencies, latencyCount * 2);
+        latencies[latencyCount++] = nanos;
+    }
+
+    // Latency at a percentile, in microseconds
+    long percentile(double p) {
+        if (latencyCount == 0)
+            return 0;
+        int i = (int) Math.min(latencyCount - 1, Math.ceil(p / 100 * latencyCount) - 1);
+        return latencies[Math.max(0, i)] / 1000;
+    }
+
+    public static void main(String[] args) throws IOException {
+        GameServerLoad load = new GameServerLoad();
+        if (args.length > 0)
+            load.players = Integer.parseInt(args[0]);
+        if (args.length > 1)
+            load.games = Integer.parseInt(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = null;
+        InetSocketAddress address;
+        if (args.length > 3) {
+            String[] hostPort = args[3].split(":");
+            address = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+        }
+        else {
+            server = new GameServer(0, threads);
+            server.start();
+            address = new InetSocketAddress("127.0.0.1", server.port());
+        }
+
+        long nanos = load.run(address);
+        Arrays.sort(load.latencies, 0, load.latencyCount);
+        double seconds = nanos / 1e9;
+        System.out.println(String.format(java.util.Locale.ROOT,
+                "{\"players\":%d,\"server_threads\":%d,\"games\":%d,\"moves\":%d,\"illegal\":%d,\"seconds\":%.2f,\"moves_per_second\":%.0f,"
+                        + "\"p50_us\":%d,\"p90_us\":%d,\"p99_us\":%d,\"p999_us\":%d,\"max_us\":%d}",
+                load.players, threads, load.gamesFinished, load.moves, load.illegal, seconds, load.moves / seconds,
+                load.percentile(50), load.percentile(90), load.percentile(99), load.percentile(99.9), load.percentile(100)));
+        if (server != null)
+            server.close();
+    }
+}
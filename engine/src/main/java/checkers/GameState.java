@@ -0,0 +1,259 @@
+/*
+    The rules of checkers with no user interface attached. A GameState is immutable:
+    apply() returns a new state and leaves this one untouched, so states can be shared freely
+    between threads, stored in histories, or thrown away by simulations.
+
+    A capture can be applied one jump at a time (legalMoves()). If the capturing piece can jump again
+    the same player keeps the turn and the only legal moves are that piece's jumps (see continuingSquare()).
+    A multi-jump can also be applied as one complete move (fullMoves()), which always passes the turn.
+
+    No Swing or AWT classes are used here, so games can be played on a headless machine.
+
+    Move generation works in scratch space kept per thread (see Scratch), so once a thread has used
+    a GameState, listing moves into a caller's array and applying moves allocate nothing but the new state.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class GameState {
+    // Possible results of a game
+    final static int ONGOING = 0;
+    final static int BLACK_WINS = 1;
+    final static int WHITE_WINS = 2;
+
+    final int black;
+    final int white;
+    final int kings;
+    final boolean blacksTurn;
+    // Square of a piece that is part way through a multi-jump, or -1 if none
+    final int continuing;
+    final int result;
+    // Zobrist hash of the pieces and side to move (see Zobrist)
+    final long hash;
+
+    // A bitboard and move lists to work in, one set per thread since states are shared between threads
+    private static class Scratch {
+        final BitboardPosition position = new BitboardPosition();
+        // findResult() runs while position may be in use by apply()
+        final BitboardPosition probe = new BitboardPosition();
+        final MoveGenerator generator = new MoveGenerator();
+        final long[] moves = new long[MoveCode.MAX_MOVES];
+    }
+
+    private final static ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    // Constructor; the standard starting position with black to move
+    public GameState() {
+        this(BitboardPosition.BLACK_START, BitboardPosition.WHITE_START, 0, true, -1);
+    }
+
+    // Constructor used by apply(), takes the hash kept up to date by the bitboard position
+    private GameState(BitboardPosition pos, int continuing) {
+        this.black = pos.black;
+        this.white = pos.white;
+        this.kings = pos.kings;
+        this.blacksTurn = pos.blacksTurn;
+        this.continuing = continuing;
+        this.hash = pos.hash;
+        this.result = findResult();
+    }
+
+    // Constructor with every mask specified, used to set up custom positions
+    public GameState(int black, int white, int kings, boolean blacksTurn, int continuing) {
+        this.black = black;
+        this.white = white;
+        this.kings = kings;
+        this.blacksTurn = blacksTurn;
+        this.continuing = continuing;
+        this.hash = Zobrist.hash(black, white, kings, blacksTurn);
+        this.result = findResult();
+    }
+
+    // Create a state from a bitboard position (no capture in progress)
+    public static GameState of(BitboardPosition pos) {
+        return new GameState(pos.black, pos.white, pos.kings, pos.blacksTurn, -1);
+    }
+
+    // Return a new bitboard copy of this state, which can be changed without affecting the state
+    public BitboardPosition toPosition() {
+        return new BitboardPosition(black, white, kings, blacksTurn);
+    }
+
+    // Copy this state into a scratch bitboard
+    private BitboardPosition copyInto(BitboardPosition pos) {
+        pos.set(black, white, kings, blacksTurn, hash);
+        return pos;
+    }
+
+    // A player with no pieces or no legal moves on their turn has lost
+    private int findResult() {
+        int own = blacksTurn ? black : white;
+        if (own != 0) {
+            if (continuing >= 0)
+                return ONGOING;
+            BitboardPosition pos = copyInto(SCRATCH.get().probe);
+            if (pos.jumpers() != 0 || pos.movers() != 0)
+                return ONGOING;
+        }
+        return blacksTurn ? WHITE_WINS : BLACK_WINS;
+    }
+
+    /*
+    Write every legal move into out and return how many there are.
+    Works in the thread's scratch bitboard, so it allocates nothing after the thread's first call.
+     */
+    public int legalMoves(long[] out) {
+        if (result != ONGOING)
+            return 0;
+        BitboardPosition pos = copyInto(SCRATCH.get().position);
+        if (continuing >= 0)
+            return pos.generateJumpsFrom(continuing, out);
+        return pos.generateMoves(out);
+    }
+
+    // Convenience version of legalMoves() that returns an array of exactly the right size
+    public long[] legalMoves() {
+        long[] buffer = new long[MoveCode.MAX_MOVES];
+        int count = legalMoves(buffer);
+        long[] moves = new long[count];
+        System.arraycopy(buffer, 0, moves, 0, count);
+        return moves;
+    }
+
+    /*
+    Write every complete move into out and return how many there are.
+    Multi-jumps are listed as single moves from where the piece starts to where its chain ends.
+    Like legalMoves(long[]) this uses the thread's scratch space and allocates nothing after the first call.
+     */
+    public int fullMoves(long[] out) {
+        if (result != ONGOING)
+            return 0;
+        Scratch scratch = SCRATCH.get();
+        BitboardPosition pos = copyInto(scratch.position);
+        if (continuing >= 0)
+            return scratch.generator.generateChainsFrom(pos, continuing, out);
+        return scratch.generator.generate(pos, out);
+    }
+
+    // Convenience version of fullMoves() that returns an array of exactly the right size
+    public long[] fullMoves() {
+        long[] buffer = new long[MoveCode.MAX_MOVES];
+        int count = fullMoves(buffer);
+        long[] moves = new long[count];
+        System.arraycopy(buffer, 0, moves, 0, count);
+        return moves;
+    }
+
+    // Look up the legal move between two squares, returns MoveCode.NONE if there isn't one
+    public long findMove(int from, int to) {
+        long[] moves = SCRATCH.get().moves;
+        int count = legalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (MoveCode.from(moves[i]) == from && MoveCode.to(moves[i]) == to)
+                return moves[i];
+        }
+        return MoveCode.NONE;
+    }
+
+    /*
+    Return true if the move is a legal single move (see legalMoves()) or complete move (see fullMoves()).
+    Only one list is generated: a move capturing more than one piece can only be a complete move,
+    and any other complete move is also a single move.
+     */
+    public boolean isLegal(long move) {
+        long[] moves = SCRATCH.get().moves;
+        int count = isStep(move) ? legalMoves(moves) : fullMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move)
+                return true;
+        }
+        return false;
+    }
+
+    // A single move or jump, as opposed to a multi-jump
+    private static boolean isStep(long move) {
+        return Integer.bitCount(MoveCode.captured(move)) <= 1;
+    }
+
+    /*
+    Return the state after a move. The turn only passes once the moving piece has
+    no more jumps to make. Throws IllegalArgumentException if the move is not legal.
+     */
+    public GameState apply(long move) {
+        if (!isLegal(move))
+            throw new IllegalArgumentException("Illegal move: " + MoveCode.toString(move));
+        return applyLegal(move);
+    }
+
+    /*
+    The same as apply() without checking the move, for callers that already know it is legal
+    because it came from legalMoves(), fullMoves() or a search of this state.
+    An illegal move gives a state that can't happen in a game.
+     */
+    public GameState applyLegal(long move) {
+        BitboardPosition pos = copyInto(SCRATCH.get().position);
+        pos.makeStep(move);
+        int to = MoveCode.to(move);
+        // A single jump keeps the turn if the piece can jump again (a whole chain already ends where it can't)
+        if (isStep(move) && MoveCode.isCapture(move) && (pos.jumpers() & (1 << to)) != 0)
+            return new GameState(pos, to);
+        pos.passTurn();
+        return new GameState(pos, -1);
+    }
+
+    public boolean isGameOver() {
+        return result != ONGOING;
+    }
+
+    // One of ONGOING, BLACK_WINS, WHITE_WINS
+    public int result() {
+        return result;
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    public boolean blacksTurn() {
+        return blacksTurn;
+    }
+
+    // Square of the piece that must keep jumping, or -1 if a new move can be started
+    public int continuingSquare() {
+        return continuing;
+    }
+
+    public int blackCount() {
+        return Integer.bitCount(black);
+    }
+
+    public int whiteCount() {
+        return Integer.bitCount(white);
+    }
+
+    public boolean isBlack(int square) {
+        return (black & (1 << square)) != 0;
+    }
+
+    public boolean isWhite(int square) {
+        return (white & (1 << square)) != 0;
+    }
+
+    public boolean isKing(int square) {
+        return (kings & (1 << square)) != 0;
+    }
+
+    public boolean equals(Object o) {
+        if (!(o instanceof GameState))
+            return false;
+        GameState other = (GameState) o;
+        return black == other.black && white == other.white && kings == other.kings
+                && blacksTurn == other.blacksTurn && continuing == other.continuing;
+    }
+
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32)) + continuing * 7;
+    }
+}
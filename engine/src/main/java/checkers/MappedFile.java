@@ -0,0 +1,60 @@
+/*
+    A read-only file mapped into memory, which can be larger than the 2 GB one MappedByteBuffer
+    can hold. The file is mapped in segments of 1 GB that overlap a little, so any number read
+    from a position (up to a long) is always inside one segment.
+
+    Used by GameArchive, whose game and position files can grow past 2 GB.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedFile {
+    final static int SEGMENT_BITS = 30;
+    final static long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    final static int OVERLAP = 8;
+
+    private final MappedByteBuffer[] segments;
+    private final long length;
+
+    // Constructor; maps the whole file
+    public MappedFile(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            length = raf.length();
+            FileChannel channel = raf.getChannel();
+            segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                long size = Math.min(SEGMENT_SIZE + OVERLAP, length - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            }
+        }
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public byte get(long at) {
+        return segments[(int) (at >>> SEGMENT_BITS)].get((int) (at & (SEGMENT_SIZE - 1)));
+    }
+
+    public short getShort(long at) {
+        return segments[(int) (at >>> SEGMENT_BITS)].getShort((int) (at & (SEGMENT_SIZE - 1)));
+    }
+
+    public int getInt(long at) {
+        return segments[(int) (at >>> SEGMENT_BITS)].getInt((int) (at & (SEGMENT_SIZE - 1)));
+    }
+
+    public long getLong(long at) {
+        return segments[(int) (at >>> SEGMENT_BITS)].getLong((int) (at & (SEGMENT_SIZE - 1)));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+    The moves of every piece on the Board, kept up to date as the game goes on instead of being
+    worked out again from scratch after every move.
+
+    For each square it keeps two masks of where the piece standing there could step and jump to.
+    A piece's moves only depend on the squares up to two diagonal steps away, so after a move only
+    pieces within that distance of a square that changed (the start, the end and anything captured)
+    are looked at again. Questions like "must this piece capture?" or "can it move to that square?"
+    are then answered with a single mask test.
+
+    The masks hold the moves for both colors, so they stay valid when the turn passes.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class MoveCache {
+    // NEAR[square] holds every square whose piece's moves can change when this square does
+    final static int[] NEAR = new int[32];
+
+    static {
+        for (int sq = 0; sq < 32; sq++) {
+            for (int dir = 0; dir < 4; dir++) {
+                int one = BitboardPosition.NEIGHBORS[dir][sq];
+                if (one < 0)
+                    continue;
+                NEAR[sq] |= 1 << one;
+                int two = BitboardPosition.NEIGHBORS[dir][one];
+                if (two >= 0)
+                    NEAR[sq] |= 1 << two;
+            }
+        }
+    }
+
+    // Where the piece on each square could step or jump to, ignoring whose turn it is
+    private final int[] steps = new int[32];
+    private final int[] jumps = new int[32];
+    // Squares of pieces with at least one jump
+    private int jumpers = 0;
+
+    // The position the masks were worked out for
+    private int black;
+    private int white;
+    private int kings;
+    private boolean empty = true;
+
+    // Pieces looked at by the last update(), for checking how much work it saved
+    int lastUpdated = 0;
+
+    // Bring the masks up to date with a new state, only looking at pieces near what changed
+    public void update(GameState state) {
+        int changed = (black ^ state.black) | (white ^ state.white) | (kings ^ state.kings);
+        black = state.black;
+        white = state.white;
+        kings = state.kings;
+        int occupied = black | white;
+        int affected = empty ? -1 : changed;
+        if (!empty) {
+            int c = changed;
+            while (c != 0) {
+                affected |= NEAR[Integer.numberOfTrailingZeros(c)];
+                c &= c - 1;
+            }
+        }
+        empty = false;
+        lastUpdated = Integer.bitCount(affected & occupied);
+        while (affected != 0) {
+            int sq = Integer.numberOfTrailingZeros(affected);
+            affected &= affected - 1;
+            if ((occupied & (1 << sq)) == 0) {
+                steps[sq] = 0;
+                jumps[sq] = 0;
+            }
+            else
+                findMoves(sq);
+            if (jumps[sq] != 0)
+                jumpers |= 1 << sq;
+            else
+                jumpers &= ~(1 << sq);
+        }
+    }
+
+    // Work out the moves of the piece on one square
+    private void findMoves(int sq) {
+        int bit = 1 << sq;
+        boolean isBlack = (black & bit) != 0;
+        int enemies = isBlack ? white : black;
+        int occupied = black | white;
+        int stepTo = 0;
+        int jumpTo = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            // Men only move forward: black down the board, white up it
+            if ((kings & bit) == 0 && isBlack != (dir == BitboardPosition.SE || dir == BitboardPosition.SW))
+                continue;
+            int one = BitboardPosition.NEIGHBORS[dir][sq];
+            if (one < 0)
+                continue;
+            if ((occupied & (1 << one)) == 0) {
+                stepTo |= 1 << one;
+                continue;
+            }
+            int two = BitboardPosition.NEIGHBORS[dir][one];
+            if ((enemies & (1 << one)) != 0 && two >= 0 && (occupied & (1 << two)) == 0)
+                jumpTo |= 1 << two;
+        }
+        steps[sq] = stepTo;
+        jumps[sq] = jumpTo;
+    }
+
+    // Squares of the side to move's pieces that have to capture, 0 if capturing isn't forced
+    public int mustCapture(GameState state) {
+        if (state.isGameOver())
+            return 0;
+        if (state.continuingSquare() >= 0)
+            return 1 << state.continuingSquare();
+        return jumpers & (state.blacksTurn() ? black : white);
+    }
+
+    // Squares the piece on a square may legally move to in this state (update() must have been called)
+    public int targets(GameState state, int square) {
+        int bit = 1 << square;
+        if ((bit & (state.blacksTurn() ? black : white)) == 0 || state.isGameOver())
+            return 0;
+        int capturing = mustCapture(state);
+        if (capturing == 0)
+            return steps[square];
+        return (capturing & bit) != 0 ? jumps[square] : 0;
+    }
+
+    // Every square a capture can land on for the side to move
+    public int captureTargets(GameState state) {
+        int targets = 0;
+        int capturing = mustCapture(state);
+        while (capturing != 0) {
+            targets |= jumps[Integer.numberOfTrailingZeros(capturing)];
+            capturing &= capturing - 1;
+        }
+        return targets;
+    }
+
+    // Number of legal single steps or jumps for the side to move
+    public int count(GameState state) {
+        int count = 0;
+        int own = state.blacksTurn() ? black : white;
+        while (own != 0) {
+            count += Integer.bitCount(targets(state, Integer.numberOfTrailingZeros(own)));
+            own &= own - 1;
+        }
+        return count;
+    }
+}
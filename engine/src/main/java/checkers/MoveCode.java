@@ -0,0 +1,61 @@
+/*
+    A "static" class for packing checkers moves into a single long.
+    Moves are passed around as primitives so that move generation never has to allocate.
+
+    Layout of a move code:
+        bits 0-4   : square the piece starts on (0 - 31)
+        bits 5-9   : square the piece ends on (0 - 31)
+        bit  10    : set if the piece is crowned by this move
+        bits 32-63 : bitmask of every square captured by this move
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class MoveCode {
+    // Largest number of moves a single position can produce (with room to spare)
+    final static int MAX_MOVES = 128;
+    // Used to mark "no move" in places where a move code is expected
+    final static long NONE = -1L;
+
+    final static int SQUARE_MASK = 0x1F;
+    final static int TO_SHIFT = 5;
+    final static long CROWN_FLAG = 1L << 10;
+    final static int CAPTURE_SHIFT = 32;
+
+    public static long encode(int from, int to, int captured, boolean crowns) {
+        long code = from | (to << TO_SHIFT) | ((long) captured << CAPTURE_SHIFT);
+        if (crowns)
+            code |= CROWN_FLAG;
+        return code;
+    }
+
+    public static int from(long move) {
+        return (int) move & SQUARE_MASK;
+    }
+
+    public static int to(long move) {
+        return (int) (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    // Bitmask of the squares holding pieces that this move removes from the board
+    public static int captured(long move) {
+        return (int) (move >>> CAPTURE_SHIFT);
+    }
+
+    public static boolean isCapture(long move) {
+        return captured(move) != 0;
+    }
+
+    public static boolean crowns(long move) {
+        return (move & CROWN_FLAG) != 0;
+    }
+
+    // Standard checkers notation, squares numbered 1 - 32 (ex. "11-15" or "22x15")
+    public static String toString(long move) {
+        if (move == NONE)
+            return "--";
+        return (from(move) + 1) + (isCapture(move) ? "x" : "-") + (to(move) + 1);
+    }
+}
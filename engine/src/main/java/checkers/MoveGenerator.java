@@ -0,0 +1,99 @@
+/*
+    Generates complete moves for a position, where a multi-jump is a single compound move.
+    Every capture path is followed depth-first to the end in one pass, including paths that
+    branch, so the result lists each distinct chain (start, end and captured pieces) once.
+
+    A man that is crowned part way through a chain keeps jumping as a king, the same as a
+    piece does on the Board.
+
+    The generator keeps its scratch state in fields and reuses it between calls, so it does
+    not allocate. Because of that one instance must not be shared between threads.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class MoveGenerator {
+    // Scratch state for the chain currently being followed
+    private long[] out;
+    private int count;
+    private int firstOfPiece; // Index in out of the first chain found for the current piece
+    private int origin;
+    private boolean originKing;
+    private boolean forBlack;
+    private int opponents;
+    private int occupied;
+
+    /*
+    Write every legal move for the side to move into out and return how many were written.
+    If any capture is possible only complete capture chains are generated (capture rule).
+     */
+    public int generate(BitboardPosition pos, long[] out) {
+        int jumpers = pos.jumpers();
+        if (jumpers == 0)
+            return pos.generateMoves(out);
+        this.out = out;
+        count = 0;
+        forBlack = pos.blacksTurn;
+        opponents = pos.opponent();
+        while (jumpers != 0) {
+            int sq = Integer.numberOfTrailingZeros(jumpers);
+            jumpers &= jumpers - 1;
+            addChains(pos, sq);
+        }
+        this.out = null;
+        return count;
+    }
+
+    // Complete capture chains for the piece on one square only
+    public int generateChainsFrom(BitboardPosition pos, int square, long[] out) {
+        this.out = out;
+        count = 0;
+        forBlack = pos.isBlack(square);
+        opponents = forBlack ? pos.white : pos.black;
+        addChains(pos, square);
+        this.out = null;
+        return count;
+    }
+
+    private void addChains(BitboardPosition pos, int square) {
+        origin = square;
+        originKing = pos.isKing(square);
+        firstOfPiece = count;
+        // The jumping piece leaves its square, so a chain is allowed to pass back through it
+        occupied = pos.occupied() & ~(1 << square);
+        follow(square, 0, originKing);
+    }
+
+    // Depth-first search of every jump available from a square, emitting the chain when it ends
+    private void follow(int square, int captured, boolean king) {
+        boolean extended = false;
+        for (int dir = 0; dir < 4; dir++) {
+            // Men only jump forward
+            if (!king && (dir == BitboardPosition.SE || dir == BitboardPosition.SW) != forBlack)
+                continue;
+            int over = BitboardPosition.NEIGHBORS[dir][square];
+            if (over < 0 || (opponents & ~captured & (1 << over)) == 0)
+                continue;
+            int land = BitboardPosition.NEIGHBORS[dir][over];
+            // Captured pieces stay on the board until the chain is over, so they can't be landed on
+            if (land < 0 || (occupied & (1 << land)) != 0)
+                continue;
+            int crownRow = forBlack ? BitboardPosition.BLACK_CROWN_ROW : BitboardPosition.WHITE_CROWN_ROW;
+            follow(land, captured | (1 << over), king || (crownRow & (1 << land)) != 0);
+            extended = true;
+        }
+        if (!extended && captured != 0)
+            emit(MoveCode.encode(origin, square, captured, king && !originKing));
+    }
+
+    // Add a finished chain, skipping it if another path already produced the same move
+    private void emit(long move) {
+        for (int i = firstOfPiece; i < count; i++) {
+            if (out[i] == move)
+                return;
+        }
+        out[count++] = move;
+    }
+}
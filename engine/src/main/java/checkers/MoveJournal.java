@@ -0,0 +1,311 @@
+/*
+    A journal of the game on the board, so the game survives the program being closed or crashing.
+
+    Every move the board makes is appended to a file as a record of a few bytes, and every
+    SNAPSHOT_EVERY moves the whole position is written too. Undo, redo, loading a game and starting a
+    network game also write a snapshot, since the board jumps to a position no move leads to. Reset
+    starts the file again from nothing with a NEW_GAME snapshot, so the file only ever holds one game.
+
+        SNAPSHOT / NEW_GAME  int black, int white, int kings, byte black to move, byte continuing square (-1 if none)
+        MOVE                 short from, to and crown bits of the MoveCode, int captured
+
+    Each record is a type byte, the payload and a CRC32 of both, so a record cut off by a crash is
+    noticed and left out. On startup recover() finds the latest snapshot and replays the moves after it,
+    which can then be undone on the board.
+
+    Appending only encodes the record and queues it, so the event dispatch thread never waits on the
+    disk. A writer thread takes everything queued, writes it with one FileChannel.write() and makes it
+    durable with one force(), so moves made while a force is running are committed together (group commit).
+
+    Usage (benchmark): java checkers.MoveJournal [file] [moves]
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+public class MoveJournal implements Runnable {
+    final static byte SNAPSHOT = 1;
+    final static byte MOVE = 2;
+    final static byte NEW_GAME = 3;
+
+    final static int SNAPSHOT_BYTES = 14;
+    final static int MOVE_BYTES = 6;
+    final static int CRC_BYTES = 4;
+    // A snapshot is written after this many moves, so there are never more than this many to replay
+    final static int SNAPSHOT_EVERY = 32;
+    // Largest batch the writer puts together before writing it
+    final static int BATCH_BYTES = 64 * 1024;
+
+    final File file;
+    private final FileChannel channel;
+    private final ConcurrentLinkedQueue<ByteBuffer> queue = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+    private final Thread writer;
+    private volatile boolean closing = false;
+    // Used by the thread that appends only
+    private int movesSinceSnapshot = 0;
+
+    // What recover() found, the board is rebuilt from these
+    GameState start = new GameState();
+    long[] moves = new long[SNAPSHOT_EVERY];
+    int moveCount = 0;
+    // Records in the file that were cut off or damaged and left out
+    boolean damaged = false;
+
+    // Counters, written by the writer thread
+    volatile long records = 0;
+    volatile long batches = 0;
+
+    /*
+    Open a journal, recovering the game in it (see start and moves) and carrying on after it.
+    Starts the writer thread.
+     */
+    public MoveJournal(File file) throws IOException {
+        this.file = file;
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null)
+            dir.mkdirs();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long valid = recover();
+        // Anything after the last good record is a write that didn't finish, new records go in its place
+        if (valid < channel.size())
+            channel.truncate(valid);
+        channel.position(valid);
+        // Nothing to carry on from, the board starts with a new game
+        if (valid == 0)
+            newGame(start);
+        writer = new Thread(this, "Journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /*
+    Read the file, keeping the latest snapshot and the moves after it. Stops at the first record that is
+    cut off, fails its checksum or isn't a legal move. Returns the length of the good part of the file.
+     */
+    private long recover() throws IOException {
+        ByteBuffer in = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+        while (in.hasRemaining() && channel.read(in, in.position()) > 0);
+        in.flip();
+        CRC32 crc = new CRC32();
+        GameState state = null;
+        while (in.hasRemaining()) {
+            int at = in.position();
+            byte type = in.get(at);
+            int size = payloadSize(type);
+            if (size < 0 || in.remaining() < 1 + size + CRC_BYTES)
+                break;
+            crc.reset();
+            in.limit(at + 1 + size);
+            crc.update(in);
+            in.limit(in.capacity());
+            if ((int) crc.getValue() != in.getInt())
+                break;
+            in.position(at + 1);
+            if (type == MOVE) {
+                if (state == null)
+                    break;
+                int low = in.getShort() & 0xffff;
+                long move = low | ((long) in.getInt() << MoveCode.CAPTURE_SHIFT);
+                if (!state.isLegal(move))
+                    break;
+                state = state.apply(move);
+                if (moveCount == moves.length)
+                    moves = Arrays.copyOf(moves, moveCount * 2);
+                moves[moveCount++] = move;
+            }
+            else {
+                int black = in.getInt();
+                int white = in.getInt();
+                int kings = in.getInt();
+                boolean blacksTurn = in.get() == 1;
+                int continuing = in.get();
+                state = new GameState(black, white, kings, blacksTurn, continuing);
+                start = state;
+                moveCount = 0;
+            }
+            in.position(at + 1 + size + CRC_BYTES);
+        }
+        damaged = in.hasRemaining();
+        return in.position();
+    }
+
+    private static int payloadSize(byte type) {
+        switch (type) {
+            case SNAPSHOT:
+            case NEW_GAME:
+                return SNAPSHOT_BYTES;
+            case MOVE:
+                return MOVE_BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    // The board made a move, it leads to the state given. Writes a snapshot too every SNAPSHOT_EVERY moves
+    public void moved(long move, GameState after) {
+        ByteBuffer record = ByteBuffer.allocate(1 + MOVE_BYTES + CRC_BYTES);
+        record.put(MOVE).putShort((short) move).putInt(MoveCode.captured(move));
+        append(record);
+        if (++movesSinceSnapshot >= SNAPSHOT_EVERY)
+            jumped(after);
+    }
+
+    // The board jumped to a state (undo, redo, loading a game), start from it
+    public void jumped(GameState state) {
+        append(snapshot(SNAPSHOT, state));
+    }
+
+    // Reset: forget the old game, the file starts again with this one
+    public void newGame(GameState state) {
+        append(snapshot(NEW_GAME, state));
+    }
+
+    private ByteBuffer snapshot(byte type, GameState state) {
+        movesSinceSnapshot = 0;
+        ByteBuffer record = ByteBuffer.allocate(1 + SNAPSHOT_BYTES + CRC_BYTES);
+        record.put(type).putInt(state.black).putInt(state.white).putInt(state.kings);
+        record.put((byte) (state.blacksTurn() ? 1 : 0)).put((byte) state.continuingSquare());
+        return record;
+    }
+
+    // Add the checksum and hand the record to the writer thread
+    private void append(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+        queue.add(record);
+        LockSupport.unpark(writer);
+    }
+
+    // The writer thread: write whatever has been queued as one batch, then force it to the disk
+    public void run() {
+        try {
+            while (true) {
+                ByteBuffer record = queue.poll();
+                if (record == null) {
+                    if (closing)
+                        break;
+                    LockSupport.park(this);
+                    continue;
+                }
+                batch.clear();
+                long count = 0;
+                do {
+                    if (record.get(0) == NEW_GAME) {
+                        // Whatever came before belongs to the old game
+                        batch.clear();
+                        channel.truncate(0);
+                        channel.position(0);
+                    }
+                    else if (batch.remaining() < record.remaining())
+                        write();
+                    batch.put(record);
+                    count++;
+                } while ((record = queue.poll()) != null);
+                write();
+                channel.force(false);
+                records += count;
+                batches++;
+            }
+        }
+        catch (IOException e) {
+            System.out.println("Journal stopped, the game won't be recovered: " + e.getMessage());
+            queue.clear();
+        }
+        finally {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                // Closing anyway
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        batch.flip();
+        while (batch.hasRemaining())
+            channel.write(batch);
+        batch.clear();
+    }
+
+    // Write whatever is still queued and close the file, waits for the writer thread
+    public void close() {
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+    Benchmark: append random games' moves as fast as possible from one thread, like a very fast player,
+    then recover the file and check it gives back the position the last game ended in.
+    Prints one line of JSON with the time appending takes and how many moves each force() committed.
+     */
+    public static void main(String[] args) throws IOException {
+        File file = new File(args.length > 0 ? args[0] : "journal-benchmark.bin");
+        int total = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        file.delete();
+        MoveJournal journal = new MoveJournal(file);
+        Random random = new Random(1);
+        long[] legal = new long[MoveCode.MAX_MOVES];
+        long[] appendNanos = new long[total];
+        GameState state = new GameState();
+        int plies = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            if (state.isGameOver() || plies >= GameServer.MAX_PLIES) {
+                state = new GameState();
+                plies = 0;
+                journal.newGame(state);
+            }
+            int count = state.legalMoves(legal);
+            long move = legal[random.nextInt(count)];
+            state = state.apply(move);
+            plies++;
+            long t = System.nanoTime();
+            journal.moved(move, state);
+            appendNanos[i] = System.nanoTime() - t;
+        }
+        journal.close();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long records = journal.records;
+        long batches = journal.batches;
+
+        long t = System.nanoTime();
+        MoveJournal recovered = new MoveJournal(file);
+        GameState replayed = recovered.start;
+        for (int i = 0; i < recovered.moveCount; i++)
+            replayed = replayed.apply(recovered.moves[i]);
+        double recoverMillis = (System.nanoTime() - t) / 1e6;
+        recovered.close();
+
+        Arrays.sort(appendNanos);
+        System.out.println(String.format(Locale.ROOT,
+                "{\"moves\":%d,\"records\":%d,\"batches\":%d,\"records_per_force\":%.1f,\"seconds\":%.2f,"
+                        + "\"append_p50_ns\":%d,\"append_p99_ns\":%d,\"append_max_ns\":%d,\"file_bytes\":%d,"
+                        + "\"recover_ms\":%.2f,\"replayed_moves\":%d,\"recovered\":%b}",
+                total, records, batches, (double) records / Math.max(1, batches), seconds,
+                appendNanos[total / 2], appendNanos[(int) (total * 0.99)], appendNanos[total - 1], file.length(),
+                recoverMillis, recovered.moveCount, replayed.equals(state) && !recovered.damaged));
+    }
+}
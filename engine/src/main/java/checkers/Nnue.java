@@ -0,0 +1,134 @@
+/*
+    A small neural network that scores checkers positions, in the style of the "efficiently updatable"
+    networks (NNUE) chess engines use. NnueEvaluator plugs it into the search, and NnueTrainer makes
+    the weights.
+
+    The inputs are 128 yes/no features: for each of the 32 squares, is there an own man, own king,
+    opponent man or opponent king on it. The first layer turns the pieces into HIDDEN numbers (the
+    accumulator), and since a move only changes a few pieces, the accumulator can be kept up to date
+    by adding and subtracting a few weight columns instead of being worked out again (see
+    NnueAccumulator). There are two accumulators, one seen from black's side of the board and one
+    from white's, so whoever is to move, "own" and "opponent" are already sorted out.
+
+    The output layer clips both accumulators to 0..QA, the side to move's first, and multiplies them by
+    one weight each. Everything is whole numbers (quantized): first layer weights are the real weights
+    times QA and output weights are times QB, so the output divided by QA * QB is the network's
+    real output. That is a win/loss logit, which is multiplied by EVAL_SCALE to get hundredths of a man.
+
+    Weight files are little endian:
+        "CKNN"  int version  int hidden  short[128 * hidden] first layer (feature by feature)
+        short[hidden] first layer bias  short[2 * hidden] output weights  int output bias
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class Nnue {
+    final static int MAGIC = 0x4E4E4B43; // "CKNN" little endian
+    final static int VERSION = 1;
+    final static int FEATURES = 128;
+    final static int DEFAULT_HIDDEN = 64;
+    // Quantization scales: clipped accumulator values go from 0 to QA, output weights are times QB
+    final static int QA = 127;
+    final static int QB = 64;
+    // Output weights must fit in a byte, so a clipped value times a weight fits in a short
+    final static int MAX_OUTPUT_WEIGHT = 127;
+    // Hundredths of a man for an output of 1
+    final static int EVAL_SCALE = 150;
+
+    // Feature kinds, from one side's point of view
+    final static int OWN_MAN = 0;
+    final static int OWN_KING = 1;
+    final static int OTHER_MAN = 2;
+    final static int OTHER_KING = 3;
+
+    final int hidden;
+    // First layer, the HIDDEN weights of feature f start at f * hidden
+    final short[] inputWeights;
+    final short[] inputBias;
+    // Output layer, the side to move's accumulator first
+    final short[] outputWeights;
+    final int outputBias;
+    final NnueKernel kernel;
+
+    public Nnue(int hidden, short[] inputWeights, short[] inputBias, short[] outputWeights, int outputBias) {
+        this.hidden = hidden;
+        this.inputWeights = inputWeights;
+        this.inputBias = inputBias;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+        kernel = NnueKernel.load();
+    }
+
+    /*
+    Feature number of a piece seen from one side. The white side sees the board turned around,
+    so both sides see their own pieces moving up the same way.
+     */
+    static int feature(boolean forBlack, int square, boolean blackPiece, boolean king) {
+        boolean own = blackPiece == forBlack;
+        int kind = own ? (king ? OWN_KING : OWN_MAN) : (king ? OTHER_KING : OTHER_MAN);
+        return kind * 32 + (forBlack ? square : 31 - square);
+    }
+
+    // Score for the side to move in hundredths of a man, from the two accumulators
+    public int evaluate(short[] own, short[] other) {
+        long sum = kernel.output(own, other, outputWeights) + (long) outputBias;
+        return (int) (sum * EVAL_SCALE / (QA * QB));
+    }
+
+    // Read a weight file, throws IOException if it can't be read or isn't one
+    public static Nnue load(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException(file + " is too big to be a network");
+            buf = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                // keep reading
+            }
+        }
+        buf.flip();
+        if (buf.remaining() < 12 || buf.getInt() != MAGIC)
+            throw new IOException(file + " is not a network file");
+        int version = buf.getInt();
+        if (version != VERSION)
+            throw new IOException(file + " has unknown version " + version);
+        int hidden = buf.getInt();
+        if (hidden <= 0 || buf.remaining() != (FEATURES * hidden + 3 * hidden) * 2 + 4)
+            throw new IOException(file + " is the wrong size");
+        short[] inputWeights = new short[FEATURES * hidden];
+        short[] inputBias = new short[hidden];
+        short[] outputWeights = new short[2 * hidden];
+        buf.asShortBuffer().get(inputWeights).get(inputBias).get(outputWeights);
+        buf.position(buf.position() + (inputWeights.length + inputBias.length + outputWeights.length) * 2);
+        // The vector kernel multiplies in shorts, a bigger weight would overflow and score differently
+        for (short w : outputWeights) {
+            if (w < -MAX_OUTPUT_WEIGHT || w > MAX_OUTPUT_WEIGHT)
+                throw new IOException(file + " has an output weight of " + w + ", more than " + MAX_OUTPUT_WEIGHT);
+        }
+        return new Nnue(hidden, inputWeights, inputBias, outputWeights, buf.getInt());
+    }
+
+    public void save(Path file) throws IOException {
+        int size = 16 + (inputWeights.length + inputBias.length + outputWeights.length) * 2;
+        ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(hidden);
+        buf.asShortBuffer().put(inputWeights).put(inputBias).put(outputWeights);
+        buf.position(buf.position() + (inputWeights.length + inputBias.length + outputWeights.length) * 2);
+        buf.putInt(outputBias);
+        buf.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining())
+                channel.write(buf);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+    The first layer of an Nnue network for one position, seen from both sides, kept up to date as
+    the position changes.
+
+    update() compares the new position with the last one and only adds or subtracts the weights of
+    pieces that appeared or disappeared: a step changes two features, a capture one more per piece
+    taken, and crowning swaps a man for a king. The searches evaluate positions one after another
+    that are only a few moves apart, so this is usually a handful of changes instead of the 16 to 24
+    pieces a full refresh adds up. When too much has changed it refreshes instead.
+
+    Holds scratch arrays, so every search thread needs its own.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class NnueAccumulator {
+    // Past this many changed pieces, adding everything up again is about as quick
+    final static int MAX_CHANGES = 12;
+
+    final Nnue net;
+    final short[] black;
+    final short[] white;
+
+    // The position the accumulators are for
+    private int blackMen, blackKings, whiteMen, whiteKings;
+    private boolean valid = false;
+
+    // How many updates were done each way, for benchmarks
+    long refreshes;
+    long incremental;
+
+    public NnueAccumulator(Nnue net) {
+        this.net = net;
+        black = new short[net.hidden];
+        white = new short[net.hidden];
+    }
+
+    // Score for the side to move in the position, in hundredths of a man
+    public int evaluate(BitboardPosition pos) {
+        update(pos);
+        return pos.blacksTurn ? net.evaluate(black, white) : net.evaluate(white, black);
+    }
+
+    // Bring the accumulators up to date with a position
+    public void update(BitboardPosition pos) {
+        int newBlackMen = pos.black & ~pos.kings;
+        int newBlackKings = pos.black & pos.kings;
+        int newWhiteMen = pos.white & ~pos.kings;
+        int newWhiteKings = pos.white & pos.kings;
+        if (valid) {
+            int changes = Integer.bitCount(blackMen ^ newBlackMen) + Integer.bitCount(blackKings ^ newBlackKings)
+                    + Integer.bitCount(whiteMen ^ newWhiteMen) + Integer.bitCount(whiteKings ^ newWhiteKings);
+            if (changes == 0)
+                return;
+            if (changes <= MAX_CHANGES) {
+                change(blackMen, newBlackMen, true, false);
+                change(blackKings, newBlackKings, true, true);
+                change(whiteMen, newWhiteMen, false, false);
+                change(whiteKings, newWhiteKings, false, true);
+                remember(newBlackMen, newBlackKings, newWhiteMen, newWhiteKings);
+                incremental++;
+                return;
+            }
+        }
+        refresh(newBlackMen, newBlackKings, newWhiteMen, newWhiteKings);
+    }
+
+    // Work both accumulators out from nothing, whatever they were for before
+    public void refresh(BitboardPosition pos) {
+        refresh(pos.black & ~pos.kings, pos.black & pos.kings, pos.white & ~pos.kings, pos.white & pos.kings);
+    }
+
+    private void refresh(int newBlackMen, int newBlackKings, int newWhiteMen, int newWhiteKings) {
+        System.arraycopy(net.inputBias, 0, black, 0, black.length);
+        System.arraycopy(net.inputBias, 0, white, 0, white.length);
+        change(0, newBlackMen, true, false);
+        change(0, newBlackKings, true, true);
+        change(0, newWhiteMen, false, false);
+        change(0, newWhiteKings, false, true);
+        remember(newBlackMen, newBlackKings, newWhiteMen, newWhiteKings);
+        valid = true;
+        refreshes++;
+    }
+
+    // Subtract the pieces of one kind that left a square and add the ones that arrived
+    private void change(int before, int after, boolean blackPieces, boolean kings) {
+        NnueKernel kernel = net.kernel;
+        int hidden = net.hidden;
+        int removed = before & ~after;
+        while (removed != 0) {
+            int sq = Integer.numberOfTrailingZeros(removed);
+            removed &= removed - 1;
+            kernel.subtract(black, net.inputWeights, Nnue.feature(true, sq, blackPieces, kings) * hidden);
+            kernel.subtract(white, net.inputWeights, Nnue.feature(false, sq, blackPieces, kings) * hidden);
+        }
+        int added = after & ~before;
+        while (added != 0) {
+            int sq = Integer.numberOfTrailingZeros(added);
+            added &= added - 1;
+            kernel.add(black, net.inputWeights, Nnue.feature(true, sq, blackPieces, kings) * hidden);
+            kernel.add(white, net.inputWeights, Nnue.feature(false, sq, blackPieces, kings) * hidden);
+        }
+    }
+
+    private void remember(int newBlackMen, int newBlackKings, int newWhiteMen, int newWhiteKings) {
+        blackMen = newBlackMen;
+        blackKings = newBlackKings;
+        whiteMen = newWhiteMen;
+        whiteKings = newWhiteKings;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+    An Evaluator that scores positions with an Nnue network instead of the hand-set weights.
+    Scores are in the same units (hundredths of a man, for the side to move), so it can be used
+    anywhere an Evaluator can: SearchEngine, ParallelSearch, MctsSearch or Tournament ("nnue:<file>").
+
+    Each search thread gets its own copy from forThread(), since the accumulator is updated in place.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class NnueEvaluator extends Evaluator {
+    final Nnue net;
+    final NnueAccumulator accumulator;
+    // Where the weights came from, for toString()
+    final String source;
+
+    public NnueEvaluator(Nnue net, String source) {
+        this.net = net;
+        this.source = source;
+        accumulator = new NnueAccumulator(net);
+    }
+
+    // Load the network in a weight file (see Nnue)
+    public static NnueEvaluator load(String file) throws IOException {
+        return new NnueEvaluator(Nnue.load(Path.of(file)), file);
+    }
+
+    @Override
+    public Evaluator forThread() {
+        return new NnueEvaluator(net, source);
+    }
+
+    @Override
+    public int evaluate(BitboardPosition pos) {
+        return accumulator.evaluate(pos);
+    }
+
+    @Override
+    public int evaluateBlack(BitboardPosition pos) {
+        int score = accumulator.evaluate(pos);
+        return pos.blacksTurn ? score : -score;
+    }
+
+    @Override
+    public String toString() {
+        return "nnue:" + source;
+    }
+}
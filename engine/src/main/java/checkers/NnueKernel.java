@@ -0,0 +1,73 @@
+/*
+    The number crunching of the Nnue network, kept behind an interface so it can run on the CPU's
+    vector (SIMD) instructions where Java supports them and as plain loops everywhere else.
+
+    The vector version (engine/src/simd/java) uses jdk.incubator.vector, which is only there
+    when Java is started with --add-modules jdk.incubator.vector, so it lives in its own source
+    directory, is compiled by a compiler run of its own (see engine/pom.xml) and is loaded by name.
+    If it can't be loaded the Scalar kernel is used, which gives exactly the same results.
+
+        java --add-modules jdk.incubator.vector -jar ui/target/swingcheckers-ui-1.0.jar
+
+    Set -Dcheckers.simd=false to use the Scalar kernel even when the vector one is available.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public interface NnueKernel {
+    // acc[i] += weights[offset + i] for every i in acc
+    void add(short[] acc, short[] weights, int offset);
+
+    // acc[i] -= weights[offset + i] for every i in acc
+    void subtract(short[] acc, short[] weights, int offset);
+
+    /*
+    The output layer: each accumulator value is clipped to 0..Nnue.QA (clipped ReLU), multiplied by
+    its weight and summed, own first and then other, so weights holds own.length + other.length values.
+     */
+    int output(short[] own, short[] other, short[] weights);
+
+    // Name shown in benchmarks
+    String name();
+
+    // Plain Java loops, works everywhere
+    class Scalar implements NnueKernel {
+        public void add(short[] acc, short[] weights, int offset) {
+            for (int i = 0; i < acc.length; i++)
+                acc[i] += weights[offset + i];
+        }
+
+        public void subtract(short[] acc, short[] weights, int offset) {
+            for (int i = 0; i < acc.length; i++)
+                acc[i] -= weights[offset + i];
+        }
+
+        public int output(short[] own, short[] other, short[] weights) {
+            int sum = 0;
+            for (int i = 0; i < own.length; i++)
+                sum += Math.min(Math.max(own[i], 0), Nnue.QA) * weights[i];
+            for (int i = 0; i < other.length; i++)
+                sum += Math.min(Math.max(other[i], 0), Nnue.QA) * weights[own.length + i];
+            return sum;
+        }
+
+        public String name() {
+            return "scalar";
+        }
+    }
+
+    // The vector kernel if it can be loaded, otherwise the scalar one
+    static NnueKernel load() {
+        if (Boolean.parseBoolean(System.getProperty("checkers.simd", "true"))) {
+            try {
+                return (NnueKernel) Class.forName("checkers.NnueVectorKernel").getDeclaredConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException | LinkageError e) {
+                // Not compiled, or the incubator module wasn't added when Java started
+            }
+        }
+        return new Scalar();
+    }
+}
@@ -0,0 +1,383 @@
+/*
+    Makes the weight file for an Nnue network from self-play.
+
+    First it plays games of the engine against itself (SearchEngine at a fixed depth, with a teacher
+    evaluator) from the 3 move openings, with a few random moves mixed in so the games don't repeat.
+    Every quiet position (no capture to make) is kept along with the search's score for it and how
+    the game ended. Then it fits a network to those positions: the network's output, through a
+    sigmoid, should match a mix of the search's win chance and the real result (see LAMBDA).
+    Training is in floating point with Adam and mini-batches, and the weights are rounded to whole
+    numbers (see Nnue) when they're saved.
+
+    To improve a network, train again with it as the teacher: --teacher nnue:<file>
+
+    Usage: java checkers.NnueTrainer <weights file> [options]
+        --games <n>       self-play games (default 1000)
+        --depth <n>       search depth for self-play moves (default 4)
+        --teacher <w>     evaluator for self-play (see Evaluator.parse()), default is the default weights
+        --epochs <n>      passes over the positions (default 30)
+        --hidden <n>      accumulator size (default 64)
+        --seed <n>        random seed (default 1)
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class NnueTrainer {
+    // How much of the target is the search's opinion, the rest is the game's result
+    final static double LAMBDA = 0.5;
+    // Chance of a random move instead of the searched one during self-play
+    final static double RANDOM_MOVE_CHANCE = 0.05;
+    // A game this long is a draw
+    final static int MAX_PLIES = 200;
+    final static int BATCH = 256;
+    final static double LEARNING_RATE = 0.002;
+    // Part of the positions kept back to check the network on positions it wasn't trained on
+    final static double VALIDATION = 0.05;
+
+    int games = 1000;
+    int depth = 4;
+    Evaluator teacher = new Evaluator();
+    int epochs = 30;
+    int hidden = Nnue.DEFAULT_HIDDEN;
+    long seed = 1;
+
+    // The positions, as parallel arrays that grow as games are added
+    int[] black = new int[1024];
+    int[] white = new int[1024];
+    int[] kings = new int[1024];
+    boolean[] blacksTurn = new boolean[1024];
+    float[] target = new float[1024];
+    int count = 0;
+
+    // The network being trained, in floating point
+    float[] inputWeights;
+    float[] inputBias;
+    float[] outputWeights;
+    float outputBias;
+
+    // Play the self-play games, on every processor
+    void generate() throws InterruptedException {
+        ArrayList<GameState> openings = Tournament.defaultOpenings(3);
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.currentTimeMillis();
+        for (int g = 0; g < games; g++) {
+            final int game = g;
+            pool.execute(() -> playGame(openings.get(game % openings.size()), new Random(seed * 1000003 + game)));
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        System.out.println("Played " + games + " games in " + (System.currentTimeMillis() - start) / 1000 + "s, "
+                + count + " positions");
+    }
+
+    // One self-play game, its positions are added when it's over
+    private void playGame(GameState state, Random random) {
+        SearchEngine engine = new SearchEngine(teacher, new TranspositionTable(4));
+        engine.setLimits(depth, 0, 0);
+        ArrayList<GameState> positions = new ArrayList<GameState>();
+        ArrayList<Integer> scores = new ArrayList<Integer>();
+        HashMap<Long, Integer> seen = new HashMap<Long, Integer>();
+        int plies = 0;
+        boolean draw = false;
+        while (!state.isGameOver()) {
+            Integer repeats = seen.merge(state.hash(), 1, Integer::sum);
+            if (plies >= MAX_PLIES || repeats >= 3) {
+                draw = true;
+                break;
+            }
+            long move = engine.search(state.toPosition());
+            BitboardPosition pos = state.toPosition();
+            if (pos.jumpers() == 0) {
+                positions.add(state);
+                scores.add(engine.bestScore);
+            }
+            if (random.nextDouble() < RANDOM_MOVE_CHANCE) {
+                long[] legal = state.fullMoves();
+                move = legal[random.nextInt(legal.length)];
+            }
+            state = state.apply(move);
+            plies++;
+        }
+        double blackResult = draw ? 0.5 : state.result() == GameState.BLACK_WINS ? 1 : 0;
+        synchronized (this) {
+            for (int i = 0; i < positions.size(); i++) {
+                GameState s = positions.get(i);
+                double result = s.blacksTurn() ? blackResult : 1 - blackResult;
+                double score = Math.max(-2000, Math.min(2000, scores.get(i)));
+                add(s, (float) (LAMBDA * sigmoid(score / Nnue.EVAL_SCALE) + (1 - LAMBDA) * result));
+            }
+        }
+    }
+
+    private void add(GameState s, float value) {
+        if (count == black.length) {
+            black = java.util.Arrays.copyOf(black, count * 2);
+            white = java.util.Arrays.copyOf(white, count * 2);
+            kings = java.util.Arrays.copyOf(kings, count * 2);
+            blacksTurn = java.util.Arrays.copyOf(blacksTurn, count * 2);
+            target = java.util.Arrays.copyOf(target, count * 2);
+        }
+        black[count] = s.black;
+        white[count] = s.white;
+        kings[count] = s.kings;
+        blacksTurn[count] = s.blacksTurn();
+        target[count] = value;
+        count++;
+    }
+
+    static double sigmoid(double x) {
+        return 1 / (1 + Math.exp(-x));
+    }
+
+    // Feature numbers of a position's pieces seen from one side, returns how many
+    private int features(int i, boolean forBlack, int[] out) {
+        int n = 0;
+        int pieces = black[i] | white[i];
+        while (pieces != 0) {
+            int sq = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            out[n++] = Nnue.feature(forBlack, sq, (black[i] & (1 << sq)) != 0, (kings[i] & (1 << sq)) != 0);
+        }
+        return n;
+    }
+
+    // Fit the network to the positions
+    void train() {
+        Random random = new Random(seed);
+        inputWeights = new float[Nnue.FEATURES * hidden];
+        inputBias = new float[hidden];
+        outputWeights = new float[2 * hidden];
+        for (int i = 0; i < inputWeights.length; i++)
+            inputWeights[i] = (float) (random.nextGaussian() * 0.1);
+        for (int i = 0; i < hidden; i++)
+            inputBias[i] = 0.5f;
+        for (int i = 0; i < outputWeights.length; i++)
+            outputWeights[i] = (float) (random.nextGaussian() * 0.1);
+
+        // Shuffle, then keep the end for validation
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++)
+            order[i] = i;
+        shuffle(order, count, random);
+        int trainCount = count - (int) (count * VALIDATION);
+
+        Adam adam = new Adam(inputWeights.length + inputBias.length + outputWeights.length + 1);
+        float[] gradient = new float[adam.size];
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            shuffle(order, trainCount, random);
+            double loss = 0;
+            for (int b = 0; b < trainCount; b += BATCH) {
+                java.util.Arrays.fill(gradient, 0);
+                int end = Math.min(trainCount, b + BATCH);
+                for (int k = b; k < end; k++)
+                    loss += backward(order[k], gradient, 1.0f / (end - b));
+                adam.step(gradient);
+            }
+            System.out.printf(java.util.Locale.ROOT, "Epoch %d: training loss %.5f, validation loss %.5f%n",
+                    epoch, loss / trainCount, validationLoss(order, trainCount));
+        }
+    }
+
+    private void shuffle(int[] order, int n, Random random) {
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+    }
+
+    // Scratch space for one position
+    private final int[] ownFeatures = new int[32];
+    private final int[] otherFeatures = new int[32];
+    private int ownCount;
+    private int otherCount;
+    private float[] own;
+    private float[] other;
+
+    // Network output (a logit) for position i, leaves the clipped accumulators in own and other
+    private double forward(int i) {
+        if (own == null || own.length != hidden) {
+            own = new float[hidden];
+            other = new float[hidden];
+        }
+        ownCount = features(i, blacksTurn[i], ownFeatures);
+        otherCount = features(i, !blacksTurn[i], otherFeatures);
+        double y = outputBias;
+        for (int h = 0; h < hidden; h++) {
+            float a = inputBias[h];
+            float c = inputBias[h];
+            for (int f = 0; f < ownCount; f++)
+                a += inputWeights[ownFeatures[f] * hidden + h];
+            for (int f = 0; f < otherCount; f++)
+                c += inputWeights[otherFeatures[f] * hidden + h];
+            own[h] = Math.min(Math.max(a, 0), 1);
+            other[h] = Math.min(Math.max(c, 0), 1);
+            y += own[h] * outputWeights[h] + other[h] * outputWeights[hidden + h];
+        }
+        return y;
+    }
+
+    // Add position i's share of the loss gradient to gradient, returns its loss
+    private double backward(int i, float[] gradient, float share) {
+        double p = sigmoid(forward(i));
+        double error = p - target[i];
+        float dy = (float) (2 * error * p * (1 - p)) * share;
+        int biasStart = inputWeights.length;
+        int outputStart = biasStart + hidden;
+        gradient[gradient.length - 1] += dy;
+        for (int h = 0; h < hidden; h++) {
+            gradient[outputStart + h] += dy * own[h];
+            gradient[outputStart + hidden + h] += dy * other[h];
+            // The clipped ReLU passes a gradient only where it isn't clipped
+            float dOwn = own[h] > 0 && own[h] < 1 ? dy * outputWeights[h] : 0;
+            float dOther = other[h] > 0 && other[h] < 1 ? dy * outputWeights[hidden + h] : 0;
+            gradient[biasStart + h] += dOwn + dOther;
+            // The features were left in the scratch arrays by forward()
+            if (dOwn != 0) {
+                for (int f = 0; f < ownCount; f++)
+                    gradient[ownFeatures[f] * hidden + h] += dOwn;
+            }
+            if (dOther != 0) {
+                for (int f = 0; f < otherCount; f++)
+                    gradient[otherFeatures[f] * hidden + h] += dOther;
+            }
+        }
+        return error * error;
+    }
+
+    private double validationLoss(int[] order, int trainCount) {
+        double loss = 0;
+        for (int k = trainCount; k < count; k++) {
+            double error = sigmoid(forward(order[k])) - target[order[k]];
+            loss += error * error;
+        }
+        return loss / Math.max(1, count - trainCount);
+    }
+
+    // Adam optimizer over all the weights, laid out as input weights, input bias, output weights, output bias
+    private class Adam {
+        final int size;
+        final float[] m;
+        final float[] v;
+        int steps = 0;
+
+        Adam(int size) {
+            this.size = size;
+            m = new float[size];
+            v = new float[size];
+        }
+
+        void step(float[] gradient) {
+            steps++;
+            double correction1 = 1 - Math.pow(0.9, steps);
+            double correction2 = 1 - Math.pow(0.999, steps);
+            for (int k = 0; k < size; k++) {
+                float g = gradient[k];
+                m[k] = 0.9f * m[k] + 0.1f * g;
+                v[k] = 0.999f * v[k] + 0.001f * g * g;
+                float change = (float) (LEARNING_RATE * (m[k] / correction1) / (Math.sqrt(v[k] / correction2) + 1e-8));
+                set(k, get(k) - change);
+            }
+        }
+
+        float get(int k) {
+            if (k < inputWeights.length)
+                return inputWeights[k];
+            k -= inputWeights.length;
+            if (k < hidden)
+                return inputBias[k];
+            k -= hidden;
+            if (k < outputWeights.length)
+                return outputWeights[k];
+            return outputBias;
+        }
+
+        // Weights are kept where they can be rounded to whole numbers without overflowing
+        void set(int k, float value) {
+            if (k < inputWeights.length) {
+                inputWeights[k] = Math.max(-4, Math.min(4, value));
+                return;
+            }
+            k -= inputWeights.length;
+            if (k < hidden) {
+                inputBias[k] = Math.max(-4, Math.min(4, value));
+                return;
+            }
+            k -= hidden;
+            float limit = (float) Nnue.MAX_OUTPUT_WEIGHT / Nnue.QB;
+            if (k < outputWeights.length) {
+                outputWeights[k] = Math.max(-limit, Math.min(limit, value));
+                return;
+            }
+            outputBias = value;
+        }
+    }
+
+    // Round the trained weights to the whole numbers Nnue uses
+    Nnue quantize() {
+        short[] qInput = new short[inputWeights.length];
+        for (int i = 0; i < qInput.length; i++)
+            qInput[i] = (short) Math.round(inputWeights[i] * Nnue.QA);
+        short[] qBias = new short[hidden];
+        for (int i = 0; i < hidden; i++)
+            qBias[i] = (short) Math.round(inputBias[i] * Nnue.QA);
+        short[] qOutput = new short[outputWeights.length];
+        for (int i = 0; i < qOutput.length; i++)
+            qOutput[i] = (short) Math.max(-Nnue.MAX_OUTPUT_WEIGHT, Math.min(Nnue.MAX_OUTPUT_WEIGHT, Math.round(outputWeights[i] * Nnue.QB)));
+        return new Nnue(hidden, qInput, qBias, qOutput, Math.round(outputBias * Nnue.QA * Nnue.QB));
+    }
+
+    // How far the rounded network's scores are from the floating point ones, on average, in hundredths of a man
+    double quantizationError(Nnue net) {
+        NnueAccumulator accumulator = new NnueAccumulator(net);
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            int exact = (int) (forward(i) * Nnue.EVAL_SCALE);
+            int rounded = accumulator.evaluate(new BitboardPosition(black[i], white[i], kings[i], blacksTurn[i]));
+            total += Math.abs(exact - rounded);
+        }
+        return total / Math.max(1, count);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java checkers.NnueTrainer <weights file> [--games n] [--depth n] [--teacher w] [--epochs n] [--hidden n] [--seed n]");
+            return;
+        }
+        NnueTrainer t = new NnueTrainer();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--games": t.games = Integer.parseInt(value); break;
+                case "--depth": t.depth = Integer.parseInt(value); break;
+                case "--teacher": t.teacher = Evaluator.parse(value); break;
+                case "--epochs": t.epochs = Integer.parseInt(value); break;
+                case "--hidden": t.hidden = Integer.parseInt(value); break;
+                case "--seed": t.seed = Long.parseLong(value); break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        t.generate();
+        t.train();
+        Nnue net = t.quantize();
+        System.out.printf(java.util.Locale.ROOT, "Rounding changes scores by %.2f hundredths of a man on average (%s kernel)%n",
+                t.quantizationError(net), net.kernel.name());
+        net.save(Path.of(args[0]));
+        System.out.println("Saved " + args[0]);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+    A "static" class for reading moves written in standard checkers notation.
+    Squares are numbered 1 - 32, a move is written "11-15", a capture "22x15",
+    and a multi-jump either by its ends "15x24" or with every landing square "15x24x31".
+
+    Moves are always read against a position, and the result is a complete move (see MoveGenerator),
+    so anything returned here is known to be legal.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class Notation {
+    /*
+    Read one move for the position. Returns MoveCode.NONE if the text isn't a legal move.
+    When only the ends of a multi-jump are given and more than one chain fits, the first is used.
+     */
+    public static long parse(GameState state, String text) {
+        int[] squares = squares(text);
+        if (squares == null || squares.length < 2)
+            return MoveCode.NONE;
+        long[] legal = state.fullMoves();
+        return match(legal, legal.length, squares, squares.length);
+    }
+
+    /*
+    Find the legal move (from a list of full moves) that matches the squares (0 - 31) written in a move.
+    With only two squares a single jump between them is preferred, then the first move between them,
+    with more every landing square has to match. Returns MoveCode.NONE if none does. Doesn't allocate.
+     */
+    public static long match(long[] legal, int count, int[] squares, int length) {
+        if (length < 2)
+            return MoveCode.NONE;
+        int from = squares[0];
+        int to = squares[length - 1];
+        // The pieces jumped over, worked out from each pair of landing squares
+        int captured = 0;
+        for (int i = 1; i < length; i++) {
+            int jumped = jumped(squares[i - 1], squares[i]);
+            if (jumped < 0) {
+                if (length > 2)
+                    return MoveCode.NONE;
+                captured = 0;
+                break;
+            }
+            captured |= 1 << jumped;
+        }
+        /*
+        Two squares a jump apart could be a single jump, or a longer chain written by its ends
+        that happens to come back next to where it started. The single jump is meant if it's legal.
+         */
+        long byEnds = MoveCode.NONE;
+        for (int i = 0; i < count; i++) {
+            long move = legal[i];
+            if (MoveCode.from(move) != from || MoveCode.to(move) != to)
+                continue;
+            if (MoveCode.captured(move) == captured)
+                return move;
+            if (length == 2 && byEnds == MoveCode.NONE)
+                byEnds = move;
+        }
+        return byEnds;
+    }
+
+    // The square between two squares a jump apart, or -1 if they aren't
+    public static int jumped(int from, int to) {
+        for (int dir = 0; dir < 4; dir++) {
+            int middle = BitboardPosition.NEIGHBORS[dir][from];
+            if (middle >= 0 && BitboardPosition.NEIGHBORS[dir][middle] == to)
+                return middle;
+        }
+        return -1;
+    }
+
+    /*
+    Write a move in standard notation for the position with the given legal (full) moves.
+    A multi-jump is written by its ends, unless another chain has the same ends,
+    then every landing square is written so the move can be read back exactly.
+     */
+    public static String write(long move, int occupied, long[] legal, int count) {
+        if (!MoveCode.isCapture(move))
+            return MoveCode.toString(move);
+        boolean ambiguous = false;
+        for (int i = 0; i < count; i++) {
+            if (legal[i] != move && MoveCode.from(legal[i]) == MoveCode.from(move)
+                    && MoveCode.to(legal[i]) == MoveCode.to(move))
+                ambiguous = true;
+        }
+        if (!ambiguous)
+            return MoveCode.toString(move);
+        int[] path = new int[MoveCode.MAX_MOVES];
+        int length = path(MoveCode.from(move), MoveCode.to(move), MoveCode.captured(move),
+                occupied & ~(1 << MoveCode.from(move)), path, 0);
+        if (length == 0)
+            return MoveCode.toString(move);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0)
+                sb.append('x');
+            sb.append(path[i] + 1);
+        }
+        return sb.toString();
+    }
+
+    // Find the landing squares of a chain that captures exactly the given pieces, returns its length or 0
+    private static int path(int at, int to, int remaining, int occupied, int[] path, int length) {
+        path[length++] = at;
+        if (remaining == 0)
+            return at == to ? length : 0;
+        for (int dir = 0; dir < 4; dir++) {
+            int middle = BitboardPosition.NEIGHBORS[dir][at];
+            if (middle < 0 || (remaining & (1 << middle)) == 0)
+                continue;
+            int landing = BitboardPosition.NEIGHBORS[dir][middle];
+            if (landing < 0 || (occupied & (1 << landing)) != 0)
+                continue;
+            int found = path(landing, to, remaining & ~(1 << middle), occupied, path, length);
+            if (found > 0)
+                return found;
+        }
+        return 0;
+    }
+
+    // Read a whole line of moves from the start position, throws IllegalArgumentException on a bad move
+    public static GameState play(String line) {
+        GameState state = new GameState();
+        for (String token : line.trim().split("\\s+")) {
+            if (token.isEmpty())
+                continue;
+            long move = parse(state, token);
+            if (move == MoveCode.NONE)
+                throw new IllegalArgumentException("Illegal move: " + token);
+            state = state.apply(move);
+        }
+        return state;
+    }
+
+    /*
+    Read a position in PDN FEN format, for example "B:W21,22,23,K32:B1,2,K10".
+    The first letter is the side to move, then each color's squares, with K marking kings.
+    Ranges such as "1-12" are allowed. Throws IllegalArgumentException if it can't be read.
+     */
+    public static GameState parseFen(String fen) {
+        String[] parts = fen.trim().replace("\"", "").split(":");
+        if (parts.length != 3 || !(parts[0].equals("B") || parts[0].equals("W")))
+            throw new IllegalArgumentException("Bad FEN: " + fen);
+        int black = 0;
+        int white = 0;
+        int kings = 0;
+        for (int i = 1; i < 3; i++) {
+            char color = parts[i].charAt(0);
+            for (String item : parts[i].substring(1).split(",")) {
+                item = item.trim();
+                if (item.isEmpty())
+                    continue;
+                boolean king = item.startsWith("K");
+                if (king)
+                    item = item.substring(1);
+                String[] range = item.split("-");
+                int first = Integer.parseInt(range[0]);
+                int last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+                for (int sq = first; sq <= last; sq++) {
+                    if (sq < 1 || sq > 32)
+                        throw new IllegalArgumentException("Bad square in FEN: " + fen);
+                    if (color == 'B')
+                        black |= 1 << (sq - 1);
+                    else if (color == 'W')
+                        white |= 1 << (sq - 1);
+                    else
+                        throw new IllegalArgumentException("Bad color in FEN: " + fen);
+                    if (king)
+                        kings |= 1 << (sq - 1);
+                }
+            }
+        }
+        return new GameState(black, white, kings, parts[0].equals("B"), -1);
+    }
+
+    // Write a position in PDN FEN format (see parseFen())
+    public static String toFen(GameState state) {
+        return (state.blacksTurn() ? "B" : "W") + ":W" + fenSquares(state.white, state.kings)
+                + ":B" + fenSquares(state.black, state.kings);
+    }
+
+    private static String fenSquares(int pieces, int kings) {
+        StringBuilder sb = new StringBuilder();
+        for (int sq = 0; sq < 32; sq++) {
+            if ((pieces & (1 << sq)) == 0)
+                continue;
+            if (sb.length() > 0)
+                sb.append(',');
+            if ((kings & (1 << sq)) != 0)
+                sb.append('K');
+            sb.append(sq + 1);
+        }
+        return sb.toString();
+    }
+
+    // Square numbers (converted to 0 - 31) in a move, or null if it isn't written like a move
+    public static int[] squares(String text) {
+        String[] parts = text.split("[-x]");
+        int[] squares = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i].isEmpty())
+                return null;
+            for (int c = 0; c < parts[i].length(); c++) {
+                if (!Character.isDigit(parts[i].charAt(c)))
+                    return null;
+            }
+            squares[i] = Integer.parseInt(parts[i]) - 1;
+            if (squares[i] < 0 || squares[i] > 31)
+                return null;
+        }
+        return squares;
+    }
+
+    // Return true if a token looks like a move rather than a move number or result
+    public static boolean isMove(String token) {
+        return squares(token) != null && token.length() > 2 && (token.indexOf('-') > 0 || token.indexOf('x') > 0);
+    }
+}
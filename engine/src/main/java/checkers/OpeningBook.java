@@ -0,0 +1,118 @@
+/*
+    An opening book: moves that were played (and how well they did) in known positions,
+    so the computer can answer the first moves of a game without searching.
+
+    The book is a binary file of fixed size records sorted by position hash (see Zobrist),
+    read through a memory-mapped buffer and searched with binary search.
+    Files are created with OpeningBookBuilder.
+
+    File layout (big endian):
+        header : int magic, int version, long record count
+        record : long position hash, long move (see MoveCode), int games, int score
+    Score is 2 points per win and 1 per draw for the player making the move.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+public class OpeningBook {
+    final static int MAGIC = 0x434B424B; // "CKBK"
+    final static int VERSION = 1;
+    final static int HEADER_BYTES = 16;
+    final static int RECORD_BYTES = 24;
+
+    private final MappedByteBuffer buffer;
+    private final int records;
+
+    // Constructor; maps the book file, throws IOException if it isn't a book
+    public OpeningBook(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() > Integer.MAX_VALUE)
+                throw new IOException("Opening book is too large: " + file);
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("Not an opening book: " + file);
+        records = (int) buffer.getLong(8);
+        if ((long) records * RECORD_BYTES + HEADER_BYTES > buffer.limit())
+            throw new IOException("Opening book is truncated: " + file);
+    }
+
+    public int size() {
+        return records;
+    }
+
+    private long keyAt(int record) {
+        return buffer.getLong(HEADER_BYTES + record * RECORD_BYTES);
+    }
+
+    // Binary search for the first record of a position, returns -1 if it isn't in the book
+    private int find(long key) {
+        int low = 0;
+        int high = records;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low < records && keyAt(low) == key ? low : -1;
+    }
+
+    /*
+    Copy every book move for a position into the arrays and return how many there are.
+    The arrays should be at least MoveCode.MAX_MOVES long.
+     */
+    public int lookup(long key, long[] moves, int[] games, int[] scores) {
+        int first = find(key);
+        if (first < 0)
+            return 0;
+        int count = 0;
+        for (int r = first; r < records && keyAt(r) == key && count < moves.length; r++) {
+            int at = HEADER_BYTES + r * RECORD_BYTES;
+            moves[count] = buffer.getLong(at + 8);
+            games[count] = buffer.getInt(at + 16);
+            scores[count] = buffer.getInt(at + 20);
+            count++;
+        }
+        return count;
+    }
+
+    /*
+    Choose a book move for the position, at random but weighted towards moves that scored well.
+    Moves that aren't legal here (a hash collision) are skipped. Returns MoveCode.NONE if out of book.
+     */
+    public long pickMove(GameState state, Random random) {
+        long[] moves = new long[MoveCode.MAX_MOVES];
+        int[] games = new int[MoveCode.MAX_MOVES];
+        int[] scores = new int[MoveCode.MAX_MOVES];
+        int count = lookup(state.hash(), moves, games, scores);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            if (!state.isLegal(moves[i]))
+                scores[i] = -1;
+            else
+                total += scores[i] + 1;
+        }
+        if (total == 0)
+            return MoveCode.NONE;
+        long pick = (long) (random.nextDouble() * total);
+        for (int i = 0; i < count; i++) {
+            if (scores[i] < 0)
+                continue;
+            pick -= scores[i] + 1;
+            if (pick < 0)
+                return moves[i];
+        }
+        return MoveCode.NONE;
+    }
+}
@@ -0,0 +1,362 @@
+/*
+    Builds an OpeningBook file from game records.
+
+    Games are read one line at a time, so any number can be streamed through. A game record
+    is its moves in standard notation (see Notation), optionally with move numbers, ending
+    with the result: "1-0" black won, "0-1" white won, "1/2-1/2" draw, "*" unknown.
+    Lines starting with # are ignored. For example:
+        1. 11-15 23-19 2. 8-11 22-17 3. 4-8 17-13 1/2-1/2
+    A file ending in .pdn is read as PDN instead (see PdnReader), which is much faster for
+    large collections.
+
+    Only the first maxPlies plies of each game are kept, and only the (position, move) pairs
+    seen in at least minGames games are written.
+
+    Like GameArchiveBuilder, the (position, move) pairs are sorted in pieces that fit in memory, each
+    piece is counted up and written to a temporary file, and the pieces are merged at the end.
+    So memory stays the same however many games are read.
+
+    Usage: java checkers.OpeningBookBuilder <games file> <book file> [max plies] [min games]
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+
+public class OpeningBookBuilder {
+    // Moves sorted in memory at once (20 bytes each)
+    final static int CHUNK = 1 << 21;
+
+    int maxPlies = 30;
+    int minGames = 1;
+    int gamesRead = 0;
+    int gamesRejected = 0;
+
+    // Moves played not yet sorted (position hash, move, points scored), and the sorted pieces waiting to be merged
+    private final long[] hashes = new long[CHUNK];
+    private final long[] moves = new long[CHUNK];
+    private final int[] points = new int[CHUNK];
+    private int pending = 0;
+    private final ArrayList<File> runs = new ArrayList<File>();
+
+    // Read every game from a reader, returns how many were added
+    public int addGames(BufferedReader in) throws IOException {
+        int added = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            if (addGame(line))
+                added++;
+        }
+        return added;
+    }
+
+    // Read every game from a PDN file, returns how many were added
+    public int addGames(PdnReader in) throws IOException {
+        int added = 0;
+        PdnGame game = new PdnGame();
+        while (in.next(game)) {
+            if (addGame(game))
+                added++;
+        }
+        return added;
+    }
+
+    // Add one game read from PDN, returns false (and adds nothing) if it has an illegal move
+    public boolean addGame(PdnGame game) throws IOException {
+        gamesRead++;
+        // Only games from the usual start are openings
+        if (!game.isValid() || !game.start.equals(PdnGame.STANDARD_START)) {
+            gamesRejected++;
+            return false;
+        }
+        int blackPoints = -1;
+        if (game.result.equals(PdnGame.BLACK_WINS))
+            blackPoints = 2;
+        else if (game.result.equals(PdnGame.WHITE_WINS))
+            blackPoints = 0;
+        else if (game.result.equals(PdnGame.DRAW))
+            blackPoints = 1;
+        ArrayList<long[]> played = new ArrayList<long[]>();
+        GameState state = game.start;
+        for (int i = 0; i < game.moveCount && i < maxPlies; i++) {
+            played.add(new long[] {state.hash(), game.moves[i], state.blacksTurn() ? 1 : 0});
+            state = state.apply(game.moves[i]);
+        }
+        addPlayed(played, blackPoints);
+        return true;
+    }
+
+    // Add one game record, returns false (and adds nothing) if it has an illegal move
+    public boolean addGame(String record) throws IOException {
+        gamesRead++;
+        String[] tokens = record.trim().split("\\s+");
+        // Points for black and for white, from the result at the end of the line
+        int blackPoints = -1;
+        String last = tokens[tokens.length - 1];
+        if (last.equals("1-0") || last.equals("2-0"))
+            blackPoints = 2;
+        else if (last.equals("0-1") || last.equals("0-2"))
+            blackPoints = 0;
+        else if (last.equals("1/2-1/2") || last.equals("1-1"))
+            blackPoints = 1;
+
+        // Check the whole game first so a bad record adds nothing
+        ArrayList<long[]> played = new ArrayList<long[]>();
+        GameState state = new GameState();
+        for (String token : tokens) {
+            if (played.size() >= maxPlies || !Notation.isMove(token))
+                continue;
+            long move = Notation.parse(state, token);
+            if (move == MoveCode.NONE) {
+                gamesRejected++;
+                return false;
+            }
+            played.add(new long[] {state.hash(), move, state.blacksTurn() ? 1 : 0});
+            state = state.apply(move);
+        }
+        addPlayed(played, blackPoints);
+        return true;
+    }
+
+    // Count each (hash, move, black to move) that was played, and the points it scored
+    private void addPlayed(ArrayList<long[]> played, int blackPoints) throws IOException {
+        for (long[] p : played) {
+            if (pending == CHUNK)
+                writeRun();
+            hashes[pending] = p[0];
+            moves[pending] = p[1];
+            points[pending] = blackPoints < 0 ? 0 : p[2] == 1 ? blackPoints : 2 - blackPoints;
+            pending++;
+        }
+    }
+
+    // Sort the pending moves and write their counts to a temporary file
+    private void writeRun() throws IOException {
+        File run = File.createTempFile("opening-book", ".run");
+        run.deleteOnExit();
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), 64 * 1024))) {
+            writeSorted(out, 1);
+        }
+    }
+
+    // Sort the pending moves and write one record for each (hash, move) played at least least times
+    private int writeSorted(DataOutputStream out, int least) throws IOException {
+        sort(hashes, moves, points, 0, pending - 1);
+        int records = 0;
+        int i = 0;
+        while (i < pending) {
+            int games = 0;
+            int score = 0;
+            int j = i;
+            while (j < pending && hashes[j] == hashes[i] && moves[j] == moves[i]) {
+                games++;
+                score += points[j];
+                j++;
+            }
+            if (games >= least) {
+                writeRecord(out, hashes[i], moves[i], games, score);
+                records++;
+            }
+            i = j;
+        }
+        pending = 0;
+        return records;
+    }
+
+    private static void writeRecord(DataOutputStream out, long hash, long move, int games, int score) throws IOException {
+        out.writeLong(hash);
+        out.writeLong(move);
+        out.writeInt(games);
+        out.writeInt(score);
+    }
+
+    // Write the book, sorted by hash (then move) so it can be binary searched. Returns the record count
+    public int write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        int records;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 64 * 1024))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeLong(0);
+            if (runs.isEmpty())
+                records = writeSorted(out, minGames);
+            else {
+                writeRun();
+                records = merge(out);
+            }
+        }
+        // Fill in the record count now that it's known
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) {
+            raf.seek(8);
+            raf.writeLong(records);
+        }
+        java.nio.file.Files.move(temp.toPath(), file.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        return records;
+    }
+
+    // Merge the sorted temporary files, adding up the counts of each (hash, move), then delete them
+    private int merge(DataOutputStream out) throws IOException {
+        int n = runs.size();
+        DataInputStream[] in = new DataInputStream[n];
+        long[] hash = new long[n];
+        long[] move = new long[n];
+        int[] games = new int[n];
+        int[] score = new int[n];
+        boolean[] done = new boolean[n];
+        int records = 0;
+        try {
+            for (int i = 0; i < n; i++) {
+                in[i] = new DataInputStream(new BufferedInputStream(new FileInputStream(runs.get(i)), 64 * 1024));
+                done[i] = !readRecord(in[i], hash, move, games, score, i);
+            }
+            // The (hash, move) being added up, and its totals so far
+            long lastHash = 0;
+            long lastMove = 0;
+            int totalGames = 0;
+            int totalScore = 0;
+            while (true) {
+                // Few runs are ever merged at once, so a plain search for the smallest is enough
+                int min = -1;
+                for (int i = 0; i < n; i++) {
+                    if (!done[i] && (min < 0 || compare(hash[i], move[i], hash[min], move[min]) < 0))
+                        min = i;
+                }
+                if (min >= 0 && totalGames > 0 && hash[min] == lastHash && move[min] == lastMove) {
+                    totalGames += games[min];
+                    totalScore += score[min];
+                }
+                else {
+                    if (totalGames > 0 && totalGames >= minGames) {
+                        writeRecord(out, lastHash, lastMove, totalGames, totalScore);
+                        records++;
+                    }
+                    if (min < 0)
+                        break;
+                    lastHash = hash[min];
+                    lastMove = move[min];
+                    totalGames = games[min];
+                    totalScore = score[min];
+                }
+                done[min] = !readRecord(in[min], hash, move, games, score, min);
+            }
+        }
+        finally {
+            for (int i = 0; i < n; i++) {
+                if (in[i] != null)
+                    in[i].close();
+                runs.get(i).delete();
+            }
+            runs.clear();
+        }
+        return records;
+    }
+
+    private static boolean readRecord(DataInputStream in, long[] hash, long[] move, int[] games, int[] score, int i) throws IOException {
+        try {
+            hash[i] = in.readLong();
+            move[i] = in.readLong();
+            games[i] = in.readInt();
+            score[i] = in.readInt();
+            return true;
+        }
+        catch (EOFException e) {
+            return false;
+        }
+    }
+
+    // Order by hash then move, the order records are in the book
+    private static int compare(long hash1, long move1, long hash2, long move2) {
+        if (hash1 != hash2)
+            return Long.compare(hash1, hash2);
+        return Long.compare(move1, move2);
+    }
+
+    // Quicksort by hash then move, keeping the three arrays in step
+    static void sort(long[] keys, long[] moves, int[] points, int low, int high) {
+        while (high - low > 16) {
+            long pivotKey = keys[(low + high) >>> 1];
+            long pivotMove = moves[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(keys[i], moves[i], pivotKey, pivotMove) < 0)
+                    i++;
+                while (compare(keys[j], moves[j], pivotKey, pivotMove) > 0)
+                    j--;
+                if (i <= j) {
+                    swap(keys, moves, points, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            // Sort the smaller side first so the stack stays shallow
+            if (j - low < high - i) {
+                sort(keys, moves, points, low, j);
+                low = i;
+            }
+            else {
+                sort(keys, moves, points, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(keys[j - 1], moves[j - 1], keys[j], moves[j]) > 0; j--)
+                swap(keys, moves, points, j - 1, j);
+        }
+    }
+
+    private static void swap(long[] keys, long[] moves, int[] points, int i, int j) {
+        long k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        long m = moves[i];
+        moves[i] = moves[j];
+        moves[j] = m;
+        int p = points[i];
+        points[i] = points[j];
+        points[j] = p;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java checkers.OpeningBookBuilder <games file> <book file> [max plies] [min games]");
+            return;
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        if (args.length > 2)
+            builder.maxPlies = Integer.parseInt(args[2]);
+        if (args.length > 3)
+            builder.minGames = Integer.parseInt(args[3]);
+        if (args[0].toLowerCase().endsWith(".pdn")) {
+            try (PdnReader in = PdnReader.open(new File(args[0]))) {
+                builder.addGames(in);
+            }
+        }
+        else {
+            try (BufferedReader in = new BufferedReader(new FileReader(args[0]))) {
+                builder.addGames(in);
+            }
+        }
+        int records = builder.write(new File(args[1]));
+        System.out.println("Read " + builder.gamesRead + " games (" + builder.gamesRejected + " rejected), wrote "
+                + records + " book moves");
+    }
+}
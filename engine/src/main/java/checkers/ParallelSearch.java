@@ -0,0 +1,185 @@
+/*
+    Searches one position with several threads at once using "Lazy SMP".
+    Every thread runs its own SearchEngine on the same root, and they all share one
+    TranspositionTable. Threads help each other through the table: a result one thread stores
+    is a cutoff or a good first move for the others. Helper threads start their iterative
+    deepening at different depths so they spread out over the tree instead of repeating
+    the main thread's work. The table's age is moved on once per search here, not by every thread.
+
+    The threads run in a ForkJoinPool. Each search has a flag of its own that stops all of its threads,
+    it is set when the main thread finishes or when stop() is called. A new flag for every search means
+    a stop meant for one search can't be undone by the next one starting.
+
+    Run main() to measure how well the search scales with the number of threads.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ParallelSearch {
+    final int threads;
+    final TranspositionTable table;
+    final SearchEngine[] engines;
+    // The flag of the search running now (or the last one)
+    private volatile AtomicBoolean abort = new AtomicBoolean();
+    private final ForkJoinPool pool;
+
+    // Results of the most recent search
+    long bestMove = MoveCode.NONE;
+    int bestScore;
+    int depthReached;
+    long elapsedMillis;
+
+    // Constructor; pass the number of threads and the table they share
+    public ParallelSearch(Evaluator evaluator, int threads, TranspositionTable table) {
+        this.threads = Math.max(1, threads);
+        this.table = table;
+        pool = new ForkJoinPool(this.threads);
+        engines = new SearchEngine[this.threads];
+        for (int i = 0; i < this.threads; i++) {
+            engines[i] = new SearchEngine(evaluator, table);
+            engines[i].agesTable = false;
+            // Helpers start 1 or 2 plies deeper than the main thread (Lazy SMP depth skipping)
+            engines[i].firstDepth = 1 + (i == 0 ? 0 : 1 + i % 2);
+        }
+    }
+
+    // Set the search budget for every thread, a zero means no limit of that kind
+    public void setLimits(int maxDepth, long maxMillis, long maxNodes) {
+        for (SearchEngine e : engines) {
+            e.setLimits(maxDepth, maxMillis, maxNodes);
+        }
+    }
+
+    // Let every thread score endgames from a tablebase (null to stop using one)
+    public void setTablebase(EndgameTablebase tablebase) {
+        for (SearchEngine e : engines) {
+            e.tablebase = tablebase;
+        }
+    }
+
+    // Stop every thread, search() then returns the best move found so far
+    public void stop() {
+        abort.set(true);
+    }
+
+    // Find the best move for the side to move, using every thread
+    public long search(BitboardPosition root) {
+        return search(root, new AtomicBoolean());
+    }
+
+    /*
+    Search with a stop flag from the caller, which may set it at any time, even before the search
+    has started (see ComputerPlayer.cancel()). Use a new flag for each search.
+    Synchronized so a new search waits for a stopped one to wind down before reusing the engines.
+     */
+    public synchronized long search(BitboardPosition root, AtomicBoolean stop) {
+        long start = System.currentTimeMillis();
+        abort = stop;
+        for (SearchEngine e : engines) {
+            e.sharedStop = stop;
+        }
+        // Once for the whole search, the engines don't do it themselves
+        table.newSearch();
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            final SearchEngine engine = engines[i];
+            final BitboardPosition copy = new BitboardPosition();
+            copy.set(root);
+            tasks[i] = pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    engine.search(copy);
+                }
+            });
+        }
+        // The main thread decides when the search is over, then the helpers are called off
+        tasks[0].join();
+        stop.set(true);
+        for (int i = 1; i < threads; i++) {
+            tasks[i].join();
+        }
+        bestMove = engines[0].bestMove;
+        bestScore = engines[0].bestScore;
+        depthReached = engines[0].depthReached;
+        elapsedMillis = System.currentTimeMillis() - start;
+        return bestMove;
+    }
+
+    // Total nodes searched by every thread in the last search
+    public long nodes() {
+        long total = 0;
+        for (SearchEngine e : engines) {
+            total += e.nodes;
+        }
+        return total;
+    }
+
+    // Nodes per second of one thread in the last search
+    public long nodesPerSecond(int thread) {
+        return engines[thread].nodes * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    public long nodesPerSecond() {
+        return nodes() * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    // Shut down the pool's threads, the search can't be used afterwards
+    public void shutdown() {
+        stop();
+        pool.shutdown();
+    }
+
+    /*
+    Scaling benchmark: searches the same positions to a fixed depth with 1, 2, 4... threads
+    and prints nodes/sec per thread, overall nodes/sec, and the speedup in time to depth.
+    Usage: java checkers.ParallelSearch [maxThreads] [depth]
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 17;
+        // The start position and a few positions from a typical game
+        GameState[] positions = {new GameState(), Notation.play("9-14 22-17 11-15 25-22"),
+                Notation.play("11-15 23-19 8-11 22-17 4-8 17-13")};
+
+        long baseMillis = 0;
+        long baseNodesPerSecond = 0;
+        for (int t = 1; t <= maxThreads; t *= 2) {
+            ParallelSearch search = new ParallelSearch(new Evaluator(), t, new TranspositionTable(64));
+            search.setLimits(depth, 0, 0);
+            long millis = 0;
+            long nodes = 0;
+            long[] threadNodes = new long[t];
+            for (GameState g : positions) {
+                search.table.clear();
+                search.search(g.toPosition());
+                millis += search.elapsedMillis;
+                nodes += search.nodes();
+                for (int i = 0; i < t; i++) {
+                    threadNodes[i] += search.engines[i].nodes;
+                }
+            }
+            search.shutdown();
+            millis = Math.max(1, millis);
+            long nodesPerSecond = nodes * 1000 / millis;
+            if (t == 1) {
+                baseMillis = millis;
+                baseNodesPerSecond = nodesPerSecond;
+            }
+            StringBuilder perThread = new StringBuilder();
+            for (int i = 0; i < t; i++) {
+                perThread.append(i == 0 ? "" : " ").append(threadNodes[i] * 1000 / millis);
+            }
+            System.out.printf("threads=%d depth=%d ms=%d nps=%d nps_scaling=%.2f speedup=%.2f per_thread_nps=[%s]%n",
+                    t, depth, millis, nodesPerSecond, (double) nodesPerSecond / baseNodesPerSecond,
+                    (double) baseMillis / millis, perThread);
+            if (t < maxThreads && t * 2 > maxThreads)
+                t = maxThreads / 2;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+    One game read from or written to a PDN (Portable Draughts Notation) file:
+    its tags, the position it starts from, its moves and its result.
+
+    A PdnReader fills the same PdnGame for every game it reads, so scanning a large
+    collection doesn't create new objects per game (see PdnReader.next()).
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.util.LinkedHashMap;
+
+public class PdnGame {
+    // Results, as written in PDN. Black moves first in checkers, so "1-0" means black won.
+    final static String BLACK_WINS = "1-0";
+    final static String WHITE_WINS = "0-1";
+    final static String DRAW = "1/2-1/2";
+    final static String UNKNOWN = "*";
+    // GameState can't change, so every game can share this one
+    final static GameState STANDARD_START = new GameState();
+
+    // Tags in the order they were read or added, e.g. "Event", "Black", "White", "Date"
+    final LinkedHashMap<String, String> tags = new LinkedHashMap<String, String>();
+    GameState start = STANDARD_START;
+    long[] moves = new long[256];
+    int moveCount = 0;
+    String result = UNKNOWN;
+    // Why the game was rejected, null if every move was legal
+    String error;
+    // Number of moves that were legal before the error
+    int errorPly = -1;
+
+    // Empty the game so it can be filled again
+    public void clear() {
+        tags.clear();
+        start = STANDARD_START;
+        moveCount = 0;
+        result = UNKNOWN;
+        error = null;
+        errorPly = -1;
+    }
+
+    public void addMove(long move) {
+        if (moveCount == moves.length)
+            moves = java.util.Arrays.copyOf(moves, moves.length * 2);
+        moves[moveCount++] = move;
+    }
+
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    public void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    // The state after every move (a game with an error stops at its last legal move)
+    public GameState finalState() {
+        GameState state = start;
+        for (int i = 0; i < moveCount; i++) {
+            state = state.apply(moves[i]);
+        }
+        return state;
+    }
+
+    // The PDN result for the end of a game (see GameState.result())
+    static String result(GameState state) {
+        if (state.result() == GameState.BLACK_WINS)
+            return BLACK_WINS;
+        if (state.result() == GameState.WHITE_WINS)
+            return WHITE_WINS;
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,382 @@
+/*
+    Reads games from PDN (Portable Draughts Notation), one at a time, so collections of any size
+    can be scanned in a fixed amount of memory.
+
+    The file is read through an NIO channel into one reusable buffer, and the tokenizer works on
+    the bytes directly. Moves are turned into squares without building strings, and each one is
+    checked against the legal moves the Board would allow (see MoveGenerator). A game with an
+    illegal move is still returned, with its error set, so a scan can count and skip it.
+
+    Understood: tag pairs [Name "value"], move numbers "12." and "12...", moves "11-15", "22x15"
+    and "15x24x31", results "1-0", "0-1", "1/2-1/2", "2-0", "0-2", "1-1" and "*", comments {...}
+    and ; to end of line, variations (...) which are skipped, NAGs $1 and move marks ! and ?.
+    A FEN tag sets the starting position (see Notation.parseFen()).
+
+    Usage: java checkers.PdnReader <file.pdn>    scans a file and prints how many games were legal
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+public class PdnReader implements Closeable {
+    // Longest tag value or move kept, anything longer is cut off
+    final static int MAX_TEXT = 4096;
+    final static int MAX_TOKEN = 64;
+
+    // Token types
+    private final static int EOF = 0;
+    private final static int TAG = 1;
+    private final static int MOVE = 2;
+    private final static int RESULT = 3;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private boolean endOfInput = false;
+
+    // The current token, reused for every token
+    private final char[] token = new char[MAX_TOKEN];
+    private int tokenLength;
+    private final StringBuilder tagName = new StringBuilder();
+    private final StringBuilder tagValue = new StringBuilder();
+
+    // Scratch space for checking moves, so a game doesn't allocate per move
+    private final BitboardPosition position = new BitboardPosition();
+    private final MoveGenerator generator = new MoveGenerator();
+    private final long[] legal = new long[MoveCode.MAX_MOVES];
+    private final int[] squares = new int[MAX_TOKEN];
+
+    long gamesRead = 0;
+    long bytesRead = 0;
+
+    // Constructor; reads from any channel, which is closed by close()
+    public PdnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.limit(0);
+    }
+
+    public static PdnReader open(File file) throws IOException {
+        return new PdnReader(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+    }
+
+    /*
+    Read the next game into game (which is cleared first). Returns false at the end of the input.
+    A game ends at its result, or where the next game's tags start.
+     */
+    public boolean next(PdnGame game) throws IOException {
+        game.clear();
+        boolean started = false;
+        boolean inMoves = false;
+        while (true) {
+            // A tag after the moves belongs to the next game
+            if (inMoves && peekNonSpace() == '[')
+                break;
+            int type = nextToken();
+            if (type == EOF)
+                break;
+            started = true;
+            if (type == TAG) {
+                String name = tagName.toString();
+                String value = tagValue.toString();
+                game.setTag(name, value);
+                if (name.equals("FEN"))
+                    setStart(game, value);
+            }
+            else if (type == MOVE) {
+                if (!inMoves) {
+                    inMoves = true;
+                    position.set(game.start.toPosition());
+                }
+                addMove(game);
+            }
+            else {
+                game.result = resultToken();
+                break;
+            }
+        }
+        if (!started)
+            return false;
+        gamesRead++;
+        return true;
+    }
+
+    private void setStart(PdnGame game, String fen) {
+        try {
+            game.start = Notation.parseFen(fen);
+        }
+        catch (IllegalArgumentException e) {
+            reject(game, "Bad FEN tag: " + fen);
+        }
+    }
+
+    // Check the move in the token against the legal moves and add it to the game
+    private void addMove(PdnGame game) {
+        if (game.error != null)
+            return;
+        int length = 0;
+        int value = -1;
+        for (int i = 0; i <= tokenLength; i++) {
+            char c = i < tokenLength ? token[i] : '-';
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 32)
+                    break;
+            }
+            else {
+                if (value < 1 || value > 32 || length == squares.length) {
+                    length = 0;
+                    break;
+                }
+                squares[length++] = value - 1;
+                value = -1;
+            }
+        }
+        if (game.start.continuingSquare() >= 0) {
+            reject(game, "Game starts in the middle of a jump");
+            return;
+        }
+        int count = generator.generate(position, legal);
+        long move = Notation.match(legal, count, squares, length);
+        if (move == MoveCode.NONE) {
+            reject(game, "Illegal move " + new String(token, 0, tokenLength) + " at ply " + (game.moveCount + 1));
+            return;
+        }
+        position.makeMove(move);
+        game.addMove(move);
+    }
+
+    private void reject(PdnGame game, String why) {
+        if (game.error == null) {
+            game.error = why;
+            game.errorPly = game.moveCount;
+        }
+    }
+
+    /*
+    Read the next tag, move or result, skipping everything else.
+    Tags are left in tagName/tagValue, moves and results in token.
+     */
+    private int nextToken() throws IOException {
+        while (true) {
+            int c = peekNonSpace();
+            if (c < 0)
+                return EOF;
+            if (c == '[') {
+                read();
+                readTag();
+                return TAG;
+            }
+            if (c == '{') {
+                skipUntil('}');
+                continue;
+            }
+            if (c == ';' || c == '%') {
+                skipUntil('\n');
+                continue;
+            }
+            if (c == '(') {
+                skipVariation();
+                continue;
+            }
+            if (c == '$') {
+                readWord();
+                continue;
+            }
+            readWord();
+            if (tokenLength == 0) {
+                // A stray closing bracket or similar, not part of any token
+                read();
+                continue;
+            }
+            int type = classify();
+            if (type != EOF)
+                return type;
+        }
+    }
+
+    // Work out what a word is, dropping move numbers and marks. Returns EOF for words to skip
+    private int classify() {
+        // Move marks: 11-15! 22x15?
+        while (tokenLength > 0 && (token[tokenLength - 1] == '!' || token[tokenLength - 1] == '?'))
+            tokenLength--;
+        if (isResult())
+            return RESULT;
+        // A move number, possibly stuck to its move: "12." "12..." "12.11-15"
+        int dot = -1;
+        for (int i = 0; i < tokenLength; i++) {
+            if (token[i] == '.')
+                dot = i;
+        }
+        if (dot >= 0) {
+            System.arraycopy(token, dot + 1, token, 0, tokenLength - dot - 1);
+            tokenLength -= dot + 1;
+            if (tokenLength == 0)
+                return EOF;
+        }
+        for (int i = 0; i < tokenLength; i++) {
+            char c = token[i];
+            if (!(c >= '0' && c <= '9') && c != '-' && c != 'x' && c != 'X' && c != ':')
+                return EOF;
+        }
+        return MOVE;
+    }
+
+    // The result in the token, which isResult()
+    private String resultToken() {
+        if (matches("1-0") || matches("2-0"))
+            return PdnGame.BLACK_WINS;
+        if (matches("0-1") || matches("0-2"))
+            return PdnGame.WHITE_WINS;
+        if (matches("*"))
+            return PdnGame.UNKNOWN;
+        return PdnGame.DRAW;
+    }
+
+    private boolean isResult() {
+        return matches("1-0") || matches("0-1") || matches("1/2-1/2") || matches("2-0")
+                || matches("0-2") || matches("1-1") || matches("*");
+    }
+
+    private boolean matches(String text) {
+        if (tokenLength != text.length())
+            return false;
+        for (int i = 0; i < tokenLength; i++) {
+            if (token[i] != text.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    // Read a word into token, stopping at a space or bracket
+    private void readWord() throws IOException {
+        tokenLength = 0;
+        while (true) {
+            int c = peek();
+            if (c < 0 || c <= ' ' || c == '[' || c == ']' || c == '{' || c == '}' || c == '(' || c == ')' || c == ';')
+                return;
+            read();
+            if (tokenLength < MAX_TOKEN)
+                token[tokenLength++] = (char) c;
+        }
+    }
+
+    // Read the rest of a tag after the [, for example: Event "Club match"]
+    private void readTag() throws IOException {
+        tagName.setLength(0);
+        tagValue.setLength(0);
+        int c = peekNonSpace();
+        while (c > ' ' && c != '"' && c != ']') {
+            read();
+            if (tagName.length() < MAX_TOKEN)
+                tagName.append((char) c);
+            c = peek();
+        }
+        c = peekNonSpace();
+        if (c == '"') {
+            read();
+            while ((c = read()) >= 0 && c != '"') {
+                if (c == '\\')
+                    c = read();
+                if (c >= 0 && tagValue.length() < MAX_TEXT)
+                    tagValue.append((char) c);
+            }
+        }
+        skipUntil(']');
+    }
+
+    // Skip a variation, which may hold further variations and comments
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '{')
+                skipUntil('}');
+            else if (c == '(')
+                depth++;
+            else if (c == ')' && --depth == 0)
+                return;
+        }
+    }
+
+    // Skip up to and including the given character
+    private void skipUntil(int end) throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != end) {
+        }
+    }
+
+    private int peekNonSpace() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && c <= ' ')
+            read();
+        return c;
+    }
+
+    // The next byte without using it up, -1 at the end of the input
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill())
+            return -1;
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill())
+            return -1;
+        return buffer.get() & 0xFF;
+    }
+
+    // Read more of the input into the buffer, returns false if there is none left
+    private boolean fill() throws IOException {
+        if (endOfInput)
+            return false;
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        buffer.flip();
+        if (n < 0) {
+            endOfInput = true;
+            return false;
+        }
+        bytesRead += n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java checkers.PdnReader <file.pdn>");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long valid = 0;
+        long moves = 0;
+        PdnGame game = new PdnGame();
+        try (PdnReader reader = PdnReader.open(new File(args[0]))) {
+            while (reader.next(game)) {
+                if (game.isValid())
+                    valid++;
+                else if (reader.gamesRead - valid <= 10)
+                    System.out.println("Game " + reader.gamesRead + ": " + game.error);
+                moves += game.moveCount;
+            }
+            long millis = Math.max(1, System.currentTimeMillis() - start);
+            System.out.println("Read " + reader.gamesRead + " games (" + valid + " legal), " + moves + " moves, "
+                    + reader.bytesRead / 1024 + " KB in " + millis + " ms ("
+                    + reader.bytesRead * 1000 / 1024 / 1024 / millis + " MB/s)");
+        }
+    }
+}
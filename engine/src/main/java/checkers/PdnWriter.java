@@ -0,0 +1,87 @@
+/*
+    Writes games in PDN (Portable Draughts Notation), which PdnReader and other checkers
+    programs can read.
+
+    Games are written one at a time to any Writer, so a large collection can be written
+    without holding it in memory. Tags come first (GameType 21 marks American checkers), then the
+    moves with move numbers, wrapped to fit in 80 columns, ending with the result.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+public class PdnWriter {
+    final static int LINE_WIDTH = 80;
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder();
+    private final BitboardPosition position = new BitboardPosition();
+    private final MoveGenerator generator = new MoveGenerator();
+    private final long[] legal = new long[MoveCode.MAX_MOVES];
+
+    public PdnWriter(Writer out) {
+        this.out = out;
+    }
+
+    // Write one game followed by a blank line
+    public void write(PdnGame game) throws IOException {
+        if (game.tag("GameType") == null)
+            writeTag("GameType", String.valueOf(Variant.AMERICAN.gameType));
+        for (Map.Entry<String, String> tag : game.tags.entrySet()) {
+            writeTag(tag.getKey(), tag.getValue());
+        }
+        if (game.tag("FEN") == null && !game.start.equals(PdnGame.STANDARD_START))
+            writeTag("FEN", Notation.toFen(game.start));
+        if (game.tag("Result") == null)
+            writeTag("Result", game.result);
+
+        line.setLength(0);
+        position.set(game.start.toPosition());
+        int number = 1;
+        for (int i = 0; i < game.moveCount; i++) {
+            long move = game.moves[i];
+            // Number every black move, and a white move that starts the game
+            if (position.blacksTurn)
+                append(number + ".");
+            else if (i == 0)
+                append(number + "...");
+            int count = generator.generate(position, legal);
+            append(Notation.write(move, position.occupied(), legal, count));
+            if (!position.blacksTurn)
+                number++;
+            position.makeMove(move);
+        }
+        append(game.result);
+        out.write(line.toString());
+        out.write("\n\n");
+    }
+
+    // Add a word to the move text, starting a new line when it would get too long
+    private void append(String word) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + word.length() > LINE_WIDTH) {
+            out.write(line.toString());
+            out.write('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0)
+            line.append(' ');
+        line.append(word);
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+    Perft ("performance test"): counts every position reachable in exactly N moves.
+    Comparing the counts against known values is the standard way to check a move generator,
+    and the time it takes is a good measure of move generation plus make move speed.
+
+    Counts are for complete moves (see MoveGenerator). The start position counts match the
+    published values for checkers up to depth 8. Deeper than that they differ slightly, because on
+    this Board a man crowned in the middle of a multi-jump keeps jumping as a king.
+    The other reference counts were recorded from this generator, to catch regressions.
+
+    Usage:
+        java checkers.Perft                    run every reference position and check the counts
+        java checkers.Perft <depth> [fen]      count one position (start position if no FEN is given)
+        java checkers.Perft <depth> <fen> divide    also print the count below each root move
+    Each result is printed as one line of JSON so it can be collected over time.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class Perft {
+    // Reference positions and their counts at depth 1, 2, 3...
+    final static String[] REFERENCE_FENS = {
+            "B:W21-32:B1-12",
+            "W:WK3,11,23,25,26,27,K30:B5,6,7,K12,14,17,18",
+            "B:W18,19,21,23,24,26,29,30,31,32:B1,2,3,4,6,7,9,10,11,12",
+            "W:WK1,K2:B20,K31,K32",
+            "B:W14,16,17,18,24,25,27,28:B1,3,5,8,9,11,12,15",
+    };
+    final static long[][] REFERENCE_COUNTS = {
+            {7, 49, 302, 1469, 7361, 36768, 179740, 845931},
+            {2, 11, 48, 167, 757, 2959, 13992},
+            {10, 74, 472, 2862, 16737, 95217, 529923},
+            {4, 20, 90, 504, 2856, 16218, 85060},
+            {3, 8, 15, 53, 179, 676, 2943},
+    };
+
+    // One generator and move list per ply, and one position that moves are made and undone in,
+    // so counting doesn't allocate
+    private final MoveGenerator[] generators;
+    private final long[][] moves;
+    private final BitboardPosition position = new BitboardPosition();
+
+    public Perft(int maxDepth) {
+        generators = new MoveGenerator[maxDepth + 1];
+        moves = new long[maxDepth + 1][MoveCode.MAX_MOVES];
+        for (int i = 0; i <= maxDepth; i++) {
+            generators[i] = new MoveGenerator();
+        }
+    }
+
+    // Count the positions exactly depth moves from pos
+    public long count(BitboardPosition pos, int depth) {
+        position.set(pos);
+        return countFrom(depth);
+    }
+
+    private long countFrom(int depth) {
+        if (depth == 0)
+            return 1;
+        int count = generators[depth].generate(position, moves[depth]);
+        // The moves themselves are the leaves, no need to make them
+        if (depth == 1)
+            return count;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            position.doMove(moves[depth][i]);
+            total += countFrom(depth - 1);
+            position.undoMove(moves[depth][i]);
+        }
+        return total;
+    }
+
+    // Print the count below each root move, useful for finding which move a bug is under
+    public void divide(BitboardPosition pos, int depth) {
+        long[] rootMoves = new long[MoveCode.MAX_MOVES];
+        int count = new MoveGenerator().generate(pos, rootMoves);
+        BitboardPosition child = new BitboardPosition();
+        for (int i = 0; i < count; i++) {
+            child.set(pos);
+            child.makeMove(rootMoves[i]);
+            System.out.println(MoveCode.toString(rootMoves[i]) + ": " + (depth > 1 ? count(child, depth - 1) : 1));
+        }
+    }
+
+    // Count and print one result as JSON, returns the count
+    private long report(String fen, int depth, long expected) {
+        long start = System.nanoTime();
+        long nodes = count(Notation.parseFen(fen).toPosition(), depth);
+        long nanos = Math.max(1, System.nanoTime() - start);
+        StringBuilder json = new StringBuilder();
+        json.append("{\"fen\":\"").append(fen).append("\",\"depth\":").append(depth)
+                .append(",\"nodes\":").append(nodes)
+                .append(",\"ms\":").append(nanos / 1000000)
+                .append(",\"nodes_per_second\":").append(nodes * 1000000000L / nanos);
+        if (expected >= 0)
+            json.append(",\"expected\":").append(expected).append(",\"ok\":").append(nodes == expected);
+        json.append('}');
+        System.out.println(json);
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            boolean allOk = true;
+            for (int p = 0; p < REFERENCE_FENS.length; p++) {
+                Perft perft = new Perft(REFERENCE_COUNTS[p].length);
+                for (int d = 1; d <= REFERENCE_COUNTS[p].length; d++) {
+                    long expected = REFERENCE_COUNTS[p][d - 1];
+                    allOk &= perft.report(REFERENCE_FENS[p], d, expected) == expected;
+                }
+            }
+            if (!allOk)
+                System.exit(1);
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = args.length > 1 ? args[1] : REFERENCE_FENS[0];
+        Perft perft = new Perft(depth);
+        if (args.length > 2 && args[2].equals("divide"))
+            perft.divide(Notation.parseFen(fen).toPosition(), depth);
+        perft.report(fen, depth, -1);
+    }
+}
@@ -6,6 +6,8 @@
     @author (Cameron Labelle)
     @version (April 2024)
  */
+package checkers;
+
 public class Position2D {
     int x;
     int y;
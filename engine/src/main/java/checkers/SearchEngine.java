@@ -0,0 +1,385 @@
+/*
+    Alpha-beta search used by the computer player.
+
+    The search deepens one ply at a time (iterative deepening) until it runs out of depth,
+    time or nodes, and keeps the best move from the last depth it finished.
+    At the leaves it keeps searching while captures are pending (quiescence search), since
+    a position in the middle of an exchange can't be judged by counting pieces.
+    Quiet moves that caused cutoffs are remembered per ply (killer moves) and per from/to
+    square (history) so they are tried first next time.
+    Results are stored in a TranspositionTable, which can be shared with other engines.
+    If an EndgameTablebase is set, positions it covers are scored from it without searching.
+
+    One engine should only be used by one thread at a time. stop() may be called from any thread.
+    Several engines can search the same position together, see ParallelSearch.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SearchEngine {
+    final static int MAX_PLY = 64;
+    final static int INFINITY = 1000000;
+    // Score for winning the game, reduced by the number of plies it takes so faster wins score higher
+    final static int WIN = 100000;
+    // Any score past this is a known win or loss (found by search or by the tablebase)
+    final static int WIN_BOUND = WIN - 1000;
+    // Check the clock every this many nodes
+    final static int CHECK_INTERVAL = 1023;
+
+    Evaluator evaluator;
+    TranspositionTable table;
+    EndgameTablebase tablebase;
+
+    // Search budget, a zero means no limit of that kind
+    int maxDepth = 20;
+    long maxMillis = 1000;
+    long maxNodes = 0;
+
+    // Results of the most recent search
+    long bestMove = MoveCode.NONE;
+    int bestScore;
+    int depthReached;
+    long nodes;
+    long elapsedMillis;
+
+    // Set by ParallelSearch so one flag stops every thread, null when searching alone
+    AtomicBoolean sharedStop;
+    // Told about every finished depth, on the searching thread, null if nobody is listening
+    Listener listener;
+    // Depth the first iteration searches to, helper threads start deeper so they don't all do the same work
+    int firstDepth = 1;
+    // Each search moves the table's age on by one. ParallelSearch turns this off and does it itself,
+    // once for all of its threads, so entries stored early in a search don't look old to a late helper
+    boolean agesTable = true;
+
+    private volatile boolean stopped;
+    private long deadline;
+
+    // The position being searched, moves are made and taken back in it (see BitboardPosition.doMove())
+    private final BitboardPosition position = new BitboardPosition();
+    // Per-ply scratch space, allocated once
+    private final long[][] moves = new long[MAX_PLY][MoveCode.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY][MoveCode.MAX_MOVES];
+    private final MoveGenerator generator = new MoveGenerator();
+    private final long[][] killers = new long[MAX_PLY][2];
+    private final int[][] history = new int[32][32];
+    private long rootBest;
+    private int rootScore;
+    // Scratch space for principalVariation()
+    private final BitboardPosition pvPosition = new BitboardPosition();
+    private final long[] pvMoves = new long[MoveCode.MAX_MOVES];
+
+    // Gets the results of each depth as soon as it's finished, see Analyzer
+    public interface Listener {
+        void depthFinished(SearchEngine engine);
+    }
+
+    // Constructor with a table of its own
+    public SearchEngine(Evaluator evaluator) {
+        this(evaluator, new TranspositionTable(16));
+    }
+
+    // Constructor with a shared table, so results carry over between searches and engines
+    public SearchEngine(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator.forThread();
+        this.table = table;
+    }
+
+    // Set the search budget, a zero means no limit of that kind
+    public void setLimits(int maxDepth, long maxMillis, long maxNodes) {
+        this.maxDepth = Math.min(maxDepth <= 0 ? MAX_PLY / 2 : maxDepth, MAX_PLY / 2);
+        this.maxMillis = maxMillis;
+        this.maxNodes = maxNodes;
+    }
+
+    /*
+    Set the budget as a number of nodes, so a search takes about maxMillis at the given speed.
+    Unlike a time limit this gives the same move every time on the same hardware.
+     */
+    public void setNodeRate(long nodesPerSecond, long maxMillis) {
+        setLimits(0, 0, Math.max(1, nodesPerSecond * maxMillis / 1000));
+    }
+
+    // Ask a running search to finish as soon as possible, it will return the best move found so far
+    public void stop() {
+        stopped = true;
+    }
+
+    /*
+    Find the best move for the side to move. Returns MoveCode.NONE if there are no legal moves.
+    Multi-jumps are returned as complete moves (see MoveGenerator).
+     */
+    public long search(BitboardPosition root) {
+        long start = System.currentTimeMillis();
+        deadline = maxMillis > 0 ? start + maxMillis : Long.MAX_VALUE;
+        stopped = false;
+        nodes = 0;
+        bestMove = MoveCode.NONE;
+        bestScore = 0;
+        depthReached = 0;
+        clearTables();
+        if (agesTable)
+            table.newSearch();
+        position.set(root);
+
+        int count = generator.generate(position, moves[0]);
+        if (count == 1) {
+            // Only one choice (often a forced capture), no need to think about it
+            bestMove = moves[0][0];
+        }
+        else if (count > 1) {
+            for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+                rootBest = MoveCode.NONE;
+                int score = alphaBeta(0, depth, -INFINITY, INFINITY);
+                if (stopped && rootBest == MoveCode.NONE)
+                    break;
+                // A stopped search may still have found a better move at the root, keep it
+                bestMove = rootBest;
+                bestScore = stopped ? rootScore : score;
+                if (stopped)
+                    break;
+                depthReached = depth;
+                if (listener != null) {
+                    elapsedMillis = System.currentTimeMillis() - start;
+                    listener.depthFinished(this);
+                }
+                // No point searching deeper once a forced win or loss is found
+                if (Math.abs(score) > WIN_BOUND)
+                    break;
+            }
+        }
+        // Stopped before a single move was searched, any legal move is better than none
+        if (bestMove == MoveCode.NONE && count > 0)
+            bestMove = moves[0][0];
+        elapsedMillis = System.currentTimeMillis() - start;
+        return bestMove;
+    }
+
+    /*
+    The line of play the search expects: its best move, then the moves stored in the transposition
+    table for the positions that follow. Written into out, returns its length.
+    Only call this from the searching thread (for example from a Listener) or after search() returns.
+     */
+    public int principalVariation(long[] out) {
+        if (bestMove == MoveCode.NONE || out.length == 0)
+            return 0;
+        pvPosition.set(position);
+        int length = 0;
+        long move = bestMove;
+        while (true) {
+            out[length++] = move;
+            pvPosition.makeMove(move);
+            if (length == out.length || length > depthReached)
+                break;
+            long entry = table.probe(pvPosition.hash);
+            if (entry == 0 || !TranspositionTable.hasMove(entry))
+                break;
+            // The table only keeps the ends of a move, find the full move they belong to
+            int count = generator.generate(pvPosition, pvMoves);
+            move = MoveCode.NONE;
+            for (int i = 0; i < count; i++) {
+                if (MoveCode.from(pvMoves[i]) == TranspositionTable.moveFrom(entry)
+                        && MoveCode.to(pvMoves[i]) == TranspositionTable.moveTo(entry)) {
+                    move = pvMoves[i];
+                    break;
+                }
+            }
+            if (move == MoveCode.NONE)
+                break;
+        }
+        return length;
+    }
+
+    private void clearTables() {
+        for (long[] k : killers) {
+            k[0] = MoveCode.NONE;
+            k[1] = MoveCode.NONE;
+        }
+        for (int[] h : history) {
+            java.util.Arrays.fill(h, 0);
+        }
+    }
+
+    private int alphaBeta(int ply, int depth, int alpha, int beta) {
+        BitboardPosition pos = position;
+        if (depth <= 0 || ply >= MAX_PLY - 1)
+            return quiescence(ply, alpha, beta);
+        if (checkStop())
+            return 0;
+        nodes++;
+
+        // Use a stored result if it was searched at least as deep (never at the root, which needs a move)
+        long entry = table.probe(pos.hash);
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int stored = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && stored >= beta)
+                    || (bound == TranspositionTable.UPPER && stored <= alpha))
+                return stored;
+        }
+
+        if (tablebase != null && ply > 0) {
+            int known = tablebase.probe(pos);
+            if (known != EndgameTablebase.UNKNOWN)
+                return tablebaseScore(known, ply);
+        }
+
+        int count = generator.generate(pos, moves[ply]);
+        if (count == 0)
+            return -WIN + ply;
+        orderMoves(ply, count, entry);
+
+        int originalAlpha = alpha;
+        long bestHere = MoveCode.NONE;
+        int best = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            long move = pickNext(ply, i, count);
+            pos.doMove(move);
+            int score = -alphaBeta(ply + 1, depth - 1, -beta, -alpha);
+            pos.undoMove(move);
+            if (stopped)
+                return best;
+            if (score > best) {
+                best = score;
+                bestHere = move;
+                if (ply == 0) {
+                    rootBest = move;
+                    rootScore = score;
+                }
+            }
+            if (score > alpha)
+                alpha = score;
+            if (alpha >= beta) {
+                if (!MoveCode.isCapture(move))
+                    rememberCutoff(ply, move, depth);
+                break;
+            }
+        }
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(pos.hash, depth, toTable(best, ply), bound, bestHere);
+        return best;
+    }
+
+    // Convert a tablebase result to a score, wins that take fewer plies score higher
+    private int tablebaseScore(int known, int ply) {
+        if (EndgameTablebase.isWin(known))
+            return WIN - ply - EndgameTablebase.distance(known);
+        if (EndgameTablebase.isLoss(known))
+            return -WIN + ply + EndgameTablebase.distance(known);
+        return 0;
+    }
+
+    // Win scores depend on the ply they were found at, store them relative to the position instead
+    private int toTable(int score, int ply) {
+        if (score > WIN_BOUND)
+            return score + ply;
+        if (score < -WIN_BOUND)
+            return score - ply;
+        return score;
+    }
+
+    private int fromTable(int score, int ply) {
+        if (score > WIN_BOUND)
+            return score - ply;
+        if (score < -WIN_BOUND)
+            return score + ply;
+        return score;
+    }
+
+    // Keep searching captures past the depth limit, since they're forced
+    private int quiescence(int ply, int alpha, int beta) {
+        if (checkStop())
+            return 0;
+        nodes++;
+        BitboardPosition pos = position;
+        if (pos.jumpers() == 0 || ply >= MAX_PLY - 1)
+            return evaluator.evaluate(pos);
+
+        int count = generator.generate(pos, moves[ply]);
+        orderMoves(ply, count, 0);
+        int best = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            long move = pickNext(ply, i, count);
+            pos.doMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            pos.undoMove(move);
+            if (stopped)
+                return best;
+            if (score > best)
+                best = score;
+            if (score > alpha)
+                alpha = score;
+            if (alpha >= beta)
+                break;
+        }
+        return best;
+    }
+
+    // Give every move an ordering score: the best root move from the last iteration,
+    // then the move from the transposition table entry, then bigger captures, then killers, then history
+    private void orderMoves(int ply, int count, long entry) {
+        long[] list = moves[ply];
+        int[] order = scores[ply];
+        boolean tableMove = entry != 0 && TranspositionTable.hasMove(entry);
+        for (int i = 0; i < count; i++) {
+            long move = list[i];
+            if (ply == 0 && move == bestMove)
+                order[i] = Integer.MAX_VALUE;
+            else if (tableMove && MoveCode.from(move) == TranspositionTable.moveFrom(entry)
+                    && MoveCode.to(move) == TranspositionTable.moveTo(entry))
+                order[i] = Integer.MAX_VALUE - 1;
+            else if (MoveCode.isCapture(move))
+                order[i] = 1000000 + Integer.bitCount(MoveCode.captured(move)) * 1000;
+            else if (move == killers[ply][0])
+                order[i] = 900000;
+            else if (move == killers[ply][1])
+                order[i] = 800000;
+            else
+                order[i] = history[MoveCode.from(move)][MoveCode.to(move)];
+        }
+    }
+
+    // Selection sort one step at a time, since a cutoff usually happens before the list is finished
+    private long pickNext(int ply, int index, int count) {
+        long[] list = moves[ply];
+        int[] order = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (order[i] > order[best])
+                best = i;
+        }
+        long move = list[best];
+        list[best] = list[index];
+        list[index] = move;
+        int score = order[best];
+        order[best] = order[index];
+        order[index] = score;
+        return move;
+    }
+
+    private void rememberCutoff(int ply, long move, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        history[MoveCode.from(move)][MoveCode.to(move)] += depth * depth;
+    }
+
+    private boolean checkStop() {
+        if (stopped)
+            return true;
+        if (maxNodes > 0 && nodes >= maxNodes)
+            stopped = true;
+        else if ((nodes & CHECK_INTERVAL) == 0) {
+            if (System.currentTimeMillis() >= deadline || (sharedStop != null && sharedStop.get()))
+                stopped = true;
+        }
+        return stopped;
+    }
+}
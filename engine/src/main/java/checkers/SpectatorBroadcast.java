@@ -0,0 +1,259 @@
+/*
+    Sends one game to everyone watching it: a SNAPSHOT of the board when they start watching,
+    then a DELTA of a few bytes for each move (see GameProtocol).
+
+    Each message is encoded once into a read-only buffer, and every viewer gets a duplicate() of it,
+    which shares the bytes and only has its own position, so nothing is copied per viewer however many
+    there are. Messages are cut from a direct buffer of SLAB_BYTES at a time, so a new one is only
+    allocated every few hundred moves; a slab is freed once no viewer still holds a message from it. A viewer whose socket doesn't take a message straight away keeps the duplicates it still
+    owes in a queue. If that queue gets longer than MAX_PENDING the viewer isn't keeping up: the queue
+    is thrown away and the viewer gets a fresh snapshot as soon as its socket can take one, and the
+    deltas carry on from there (snapshot resync). One slow viewer never holds up the game or the others.
+
+    Used by GameServer on the thread that owns the game, so it doesn't lock anything. Works with any
+    WritableByteChannel, so SpectatorLoad can also run it against thousands of simulated viewers.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+public class SpectatorBroadcast {
+    // Messages a viewer may owe before it's dropped back to a snapshot
+    final static int MAX_PENDING = 32;
+    // Size of the direct buffers messages are cut from
+    final static int SLAB_BYTES = 4096;
+
+    // One spectator
+    static class Viewer {
+        final WritableByteChannel channel;
+        // Key on the server's selector, null if the channel isn't selectable
+        final SelectionKey key;
+        final ArrayDeque<ByteBuffer> pending = new ArrayDeque<ByteBuffer>();
+        // Set when the viewer needs a snapshot before any more deltas
+        boolean resync = true;
+        // Set while the viewer is waiting for its channel to take more, see writable()
+        boolean wantsWrite = false;
+        int snapshots = 0;
+        // Where it is in the list of viewers, -1 if it isn't in one, so taking it out doesn't have to search
+        int index = -1;
+        boolean failed = false;
+
+        Viewer(WritableByteChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        // Called once the channel has failed and been closed
+        void closed() {}
+    }
+
+    final int game;
+    private final ArrayList<Viewer> viewers = new ArrayList<Viewer>();
+    private final ArrayList<Viewer> failed = new ArrayList<Viewer>();
+    private GameState state;
+    private int ply;
+    // The snapshot of the current position, encoded when the first viewer needs it after each move
+    private ByteBuffer snapshot;
+    private ByteBuffer slab;
+
+    // Counters
+    long deltas = 0;
+    long resyncs = 0;
+    long bytesWritten = 0;
+
+    public SpectatorBroadcast(int game, GameState state, int ply) {
+        this.game = game;
+        this.state = state;
+        this.ply = ply;
+    }
+
+    public int viewerCount() {
+        return viewers.size();
+    }
+
+    // Start sending the game to a viewer, beginning with a snapshot
+    public void add(Viewer v) {
+        v.index = viewers.size();
+        viewers.add(v);
+        v.resync = true;
+        writable(v);
+    }
+
+    // Take a viewer out by moving the last one into its place
+    public void remove(Viewer v) {
+        if (v.index < 0)
+            return;
+        Viewer last = viewers.remove(viewers.size() - 1);
+        if (last != v) {
+            viewers.set(v.index, last);
+            last.index = v.index;
+        }
+        v.index = -1;
+    }
+
+    // A move was played: send its delta to every viewer that is up to date
+    public void publish(long move, GameState after) {
+        ply++;
+        state = after;
+        snapshot = null;
+        ByteBuffer delta = message(1 + GameProtocol.DELTA_BYTES);
+        GameProtocol.putDelta(delta, ply, move);
+        delta.flip();
+        ByteBuffer shared = delta.asReadOnlyBuffer();
+        deltas++;
+        for (int i = 0; i < viewers.size(); i++) {
+            Viewer v = viewers.get(i);
+            if (!v.resync)
+                offer(v, shared.duplicate());
+        }
+        removeFailed();
+    }
+
+    // The game is over: bring everyone up to date and tell them how it ended
+    public void end(int result, byte reason) {
+        ByteBuffer end = message(3);
+        end.put(GameProtocol.END).put((byte) result).put(reason);
+        end.flip();
+        ByteBuffer shared = end.asReadOnlyBuffer();
+        for (int i = 0; i < viewers.size(); i++) {
+            Viewer v = viewers.get(i);
+            // A viewer waiting for a snapshot gets it now, however far behind it is, so it sees the final position
+            if (v.resync)
+                queueSnapshot(v);
+            v.pending.add(shared.duplicate());
+            flush(v);
+        }
+        removeFailed();
+    }
+
+    /*
+    The viewer's channel can take more (OP_WRITE on the server): send what it's owed,
+    then a snapshot if it was dropped behind.
+     */
+    public void writable(Viewer v) {
+        if (flush(v)) {
+            if (v.resync)
+                queueSnapshot(v);
+            if (flush(v))
+                interest(v, false);
+        }
+        removeFailed();
+    }
+
+    private void queueSnapshot(Viewer v) {
+        v.resync = false;
+        v.snapshots++;
+        if (v.snapshots > 1)
+            resyncs++;
+        v.pending.add(snapshot().duplicate());
+    }
+
+    // Send a message, or queue it if the viewer is already behind
+    private void offer(Viewer v, ByteBuffer message) {
+        if (v.pending.isEmpty()) {
+            write(v, message);
+            if (!message.hasRemaining())
+                return;
+        }
+        else if (v.pending.size() >= MAX_PENDING) {
+            dropBehind(v);
+            return;
+        }
+        v.pending.add(message);
+        interest(v, true);
+    }
+
+    // Throw away what the viewer is owed, except a message it has already started, and resync it later
+    private void dropBehind(Viewer v) {
+        ByteBuffer started = v.pending.peek();
+        v.pending.clear();
+        if (started != null && started.position() > 0)
+            v.pending.add(started);
+        v.resync = true;
+        interest(v, true);
+    }
+
+    // Write as much of the queue as the channel takes, returns true if it's all gone
+    private boolean flush(Viewer v) {
+        ByteBuffer head;
+        while ((head = v.pending.peek()) != null) {
+            write(v, head);
+            if (head.hasRemaining()) {
+                interest(v, true);
+                return false;
+            }
+            v.pending.poll();
+        }
+        return true;
+    }
+
+    private void write(Viewer v, ByteBuffer message) {
+        try {
+            bytesWritten += v.channel.write(message);
+        }
+        catch (IOException e) {
+            // Stop sending to it, it's taken out once the current loop over the viewers is done
+            v.pending.clear();
+            message.position(message.limit());
+            if (!v.failed) {
+                v.failed = true;
+                failed.add(v);
+            }
+        }
+    }
+
+    private void removeFailed() {
+        for (Viewer v : failed) {
+            remove(v);
+            if (v.key != null)
+                v.key.cancel();
+            try {
+                v.channel.close();
+            }
+            catch (IOException e) {
+                // Closing anyway
+            }
+            v.closed();
+        }
+        failed.clear();
+    }
+
+    // Ask (or stop asking) to be told when the viewer's channel can take more
+    private void interest(Viewer v, boolean on) {
+        v.wantsWrite = on;
+        if (v.key != null && v.key.isValid()) {
+            int ops = on ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (v.key.interestOps() != ops)
+                v.key.interestOps(ops);
+        }
+    }
+
+    // The current position as a read-only buffer that viewers get duplicates of
+    private ByteBuffer snapshot() {
+        if (snapshot == null) {
+            ByteBuffer buf = message(1 + GameProtocol.SNAPSHOT_BYTES);
+            GameProtocol.putSnapshot(buf, game, ply, state);
+            buf.flip();
+            snapshot = buf.asReadOnlyBuffer();
+        }
+        return snapshot;
+    }
+
+    // Room for a message of the given size, cut from the current slab
+    private ByteBuffer message(int bytes) {
+        if (slab == null || slab.remaining() < bytes)
+            slab = ByteBuffer.allocateDirect(SLAB_BYTES);
+        ByteBuffer m = slab.slice();
+        m.limit(bytes);
+        slab.position(slab.position() + bytes);
+        return m;
+    }
+}
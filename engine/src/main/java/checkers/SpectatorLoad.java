@@ -0,0 +1,384 @@
+/*
+    Load test for spectators (see SpectatorBroadcast).
+
+    By default everything is simulated in memory: random games are played through a SpectatorBroadcast
+    each, and 10000 viewers watch them through channels that take bytes like a socket would. One viewer
+    in twenty is slow, only reading now and then, so it falls behind and has to be resynced with a
+    snapshot. Every viewer rebuilds the board from what it's sent, checks each delta is a legal move of
+    the board it has, and at the end has to have the same board as the real game.
+    Sockets aren't used for this by default because 10000 loopback connections in one process need
+    20000 file descriptors.
+
+    With --sockets it starts a GameServer instead, has GameServerLoad play games on it, and connects
+    that many real spectators that WATCH whatever is being played.
+
+    Prints one line of JSON.
+
+    Usage: java checkers.SpectatorLoad [viewers] [games]
+           java checkers.SpectatorLoad --sockets [viewers] [seconds]
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Random;
+
+public class SpectatorLoad {
+    // One viewer in SLOW_EVERY is slow, and reads once every SLOW_READS moves
+    final static int SLOW_EVERY = 20;
+    final static int SLOW_READS = 40;
+    // Bytes a simulated viewer's socket holds before it stops taking more
+    final static int FAST_BUFFER = 1024;
+    final static int SLOW_BUFFER = 64;
+
+    // What a viewer knows about the game it watches, built from the messages alone
+    private static class Decoder {
+        final long[] legal = new long[MoveCode.MAX_MOVES];
+        int game = -1;
+        int ply = -1;
+        int black, white, kings;
+        boolean blacksTurn;
+        boolean ended = false;
+        byte reason;
+        long snapshots = 0;
+        long deltas = 0;
+        long errors = 0;
+
+        // Read every complete message in the buffer (in read mode)
+        void decode(ByteBuffer in) throws IOException {
+            while (in.hasRemaining()) {
+                byte type = in.get(in.position());
+                int size = GameProtocol.payloadSize(type);
+                if (size < 0)
+                    throw new IOException("unknown message " + type);
+                if (in.remaining() < 1 + size)
+                    return;
+                in.get();
+                switch (type) {
+                    case GameProtocol.SNAPSHOT:
+                        game = in.getInt();
+                        ply = in.getShort();
+                        black = in.getInt();
+                        white = in.getInt();
+                        kings = in.getInt();
+                        blacksTurn = in.get() == 1;
+                        ended = false;
+                        snapshots++;
+                        break;
+                    case GameProtocol.DELTA:
+                        delta(in.getShort(), in.get(), in.get(), in.getInt());
+                        break;
+                    case GameProtocol.END:
+                        in.get();
+                        reason = in.get();
+                        ended = true;
+                        break;
+                    default:
+                        throw new IOException("unexpected message " + type);
+                }
+            }
+        }
+
+        // Apply a move to the masks, the way Board.movePiece() changes the tiles
+        private void delta(int next, int from, int toByte, int captured) {
+            deltas++;
+            int to = toByte & ~GameProtocol.CROWN_BIT & 0xff;
+            boolean crowns = (toByte & GameProtocol.CROWN_BIT) != 0;
+            if (ply < 0 || next != ply + 1 || !isLegal(from, to, captured, crowns))
+                errors++;
+            ply = next;
+            int fromBit = 1 << from;
+            int toBit = 1 << to;
+            if (blacksTurn) {
+                black = black & ~fromBit | toBit;
+                white &= ~captured;
+            }
+            else {
+                white = white & ~fromBit | toBit;
+                black &= ~captured;
+            }
+            if ((kings & fromBit) != 0 || crowns)
+                kings = kings & ~fromBit | toBit;
+            kings &= ~captured;
+            blacksTurn = !blacksTurn;
+        }
+
+        private boolean isLegal(int from, int to, int captured, boolean crowns) {
+            GameState state = new GameState(black, white, kings, blacksTurn, -1);
+            int count = state.fullMoves(legal);
+            for (int i = 0; i < count; i++) {
+                long move = legal[i];
+                if (MoveCode.from(move) == from && MoveCode.to(move) == to
+                        && MoveCode.captured(move) == captured && MoveCode.crowns(move) == crowns)
+                    return true;
+            }
+            return false;
+        }
+
+        boolean matches(GameState state) {
+            return black == state.black && white == state.white && kings == state.kings && blacksTurn == state.blacksTurn();
+        }
+    }
+
+    // A socket's send buffer, as far as the server can tell: takes bytes until it's full
+    private static class SimulatedChannel implements WritableByteChannel {
+        final ByteBuffer buffer;
+
+        SimulatedChannel(int size) {
+            buffer = ByteBuffer.allocate(size);
+        }
+
+        public int write(ByteBuffer src) {
+            int n = Math.min(src.remaining(), buffer.remaining());
+            int limit = src.limit();
+            src.limit(src.position() + n);
+            buffer.put(src);
+            src.limit(limit);
+            return n;
+        }
+
+        public boolean isOpen() {
+            return true;
+        }
+
+        public void close() {}
+    }
+
+    private static class SimulatedViewer {
+        final SimulatedChannel channel;
+        final SpectatorBroadcast.Viewer viewer;
+        final SpectatorBroadcast broadcast;
+        final Decoder decoder = new Decoder();
+        final boolean slow;
+
+        SimulatedViewer(SpectatorBroadcast broadcast, boolean slow) {
+            this.broadcast = broadcast;
+            this.slow = slow;
+            channel = new SimulatedChannel(slow ? SLOW_BUFFER : FAST_BUFFER);
+            viewer = new SpectatorBroadcast.Viewer(channel, null);
+        }
+
+        // The viewer reads everything that has arrived
+        void read() throws IOException {
+            ByteBuffer in = channel.buffer;
+            in.flip();
+            decoder.decode(in);
+            in.compact();
+        }
+    }
+
+    // Play random games in front of simulated viewers
+    static void simulate(int viewerCount, int gameCount) throws IOException {
+        Random random = new Random(1);
+        GameState[] states = new GameState[gameCount];
+        int[] plies = new int[gameCount];
+        SpectatorBroadcast[] broadcasts = new SpectatorBroadcast[gameCount];
+        for (int g = 0; g < gameCount; g++) {
+            states[g] = new GameState();
+            broadcasts[g] = new SpectatorBroadcast(g + 1, states[g], 0);
+        }
+        long serverNanos = 0;
+        long start = System.nanoTime();
+        SimulatedViewer[] viewers = new SimulatedViewer[viewerCount];
+        for (int i = 0; i < viewerCount; i++) {
+            viewers[i] = new SimulatedViewer(broadcasts[i % gameCount], i % SLOW_EVERY == SLOW_EVERY - 1);
+            viewers[i].broadcast.add(viewers[i].viewer);
+        }
+
+        long[] legal = new long[MoveCode.MAX_MOVES];
+        boolean[] over = new boolean[gameCount];
+        int playing = gameCount;
+        long moves = 0;
+        for (int tick = 1; ; tick++) {
+            // One move in every game still going
+            long t = System.nanoTime();
+            for (int g = 0; g < gameCount; g++) {
+                if (over[g])
+                    continue;
+                int count = states[g].fullMoves(legal);
+                long move = legal[random.nextInt(count)];
+                states[g] = states[g].apply(move);
+                plies[g]++;
+                moves++;
+                broadcasts[g].publish(move, states[g]);
+                if (states[g].isGameOver() || plies[g] >= GameServer.MAX_PLIES) {
+                    broadcasts[g].end(states[g].result(), GameProtocol.END_RESULT);
+                    over[g] = true;
+                    playing--;
+                }
+            }
+            serverNanos += System.nanoTime() - t;
+
+            // The viewers read, slow ones only now and then, and the server writes to those that made room
+            boolean allEnded = true;
+            for (SimulatedViewer v : viewers) {
+                if (!v.slow || tick % SLOW_READS == 0 || playing == 0)
+                    v.read();
+                if (v.viewer.wantsWrite) {
+                    t = System.nanoTime();
+                    v.broadcast.writable(v.viewer);
+                    serverNanos += System.nanoTime() - t;
+                }
+                allEnded &= v.decoder.ended && !v.viewer.wantsWrite;
+            }
+            if (playing == 0 && allEnded)
+                break;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long deltas = 0, resyncs = 0, bytes = 0, received = 0, snapshots = 0, errors = 0, wrong = 0;
+        for (SpectatorBroadcast b : broadcasts) {
+            deltas += b.deltas;
+            resyncs += b.resyncs;
+            bytes += b.bytesWritten;
+        }
+        for (SimulatedViewer v : viewers) {
+            received += v.decoder.deltas;
+            snapshots += v.decoder.snapshots;
+            errors += v.decoder.errors;
+            if (!v.decoder.matches(states[v.broadcast.game - 1]))
+                wrong++;
+        }
+        long messages = received + snapshots;
+        System.out.println(String.format(Locale.ROOT,
+                "{\"mode\":\"memory\",\"viewers\":%d,\"slow_viewers\":%d,\"games\":%d,\"moves\":%d,\"deltas_encoded\":%d,"
+                        + "\"deltas_delivered\":%d,\"snapshots\":%d,\"resyncs\":%d,\"bytes\":%d,\"bytes_per_message\":%.1f,"
+                        + "\"server_ns_per_message\":%.0f,\"seconds\":%.2f,\"bad_deltas\":%d,\"wrong_final_boards\":%d}",
+                viewerCount, viewerCount / SLOW_EVERY, gameCount, moves, deltas, received, snapshots, resyncs, bytes,
+                (double) bytes / messages, (double) serverNanos / messages, seconds, errors, wrong));
+    }
+
+    // A real spectator on a socket
+    private static class SocketViewer {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+        final ByteBuffer out = ByteBuffer.allocate(8);
+        final Decoder decoder = new Decoder();
+
+        SocketViewer(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    // Watch games played on a real server for a while
+    static void sockets(int viewerCount, int seconds) throws IOException, InterruptedException {
+        final GameServer server = new GameServer(0, Runtime.getRuntime().availableProcessors());
+        server.start();
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.port());
+        final GameServerLoad players = new GameServerLoad();
+        players.players = 200;
+        players.games = Integer.MAX_VALUE / 2;
+        Thread playing = new Thread(() -> {
+            try {
+                players.run(address);
+            }
+            catch (IOException e) {
+                System.out.println("Players stopped: " + e.getMessage());
+            }
+        }, "Players");
+        playing.setDaemon(true);
+        playing.start();
+        while (server.gamesStarted.get() < players.players / 2)
+            Thread.sleep(10);
+
+        Random random = new Random(1);
+        Selector selector = Selector.open();
+        ArrayList<SocketViewer> viewers = new ArrayList<SocketViewer>();
+        for (int i = 0; i < viewerCount; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.connect(address);
+            SocketViewer v = new SocketViewer(channel);
+            viewers.add(v);
+            channel.register(selector, SelectionKey.OP_CONNECT, v);
+        }
+        long watches = 0;
+        long lost = 0;
+        long end = System.nanoTime() + seconds * 1000000000L;
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                SocketViewer v = (SocketViewer) key.attachment();
+                try {
+                    if (key.isConnectable()) {
+                        v.channel.finishConnect();
+                        key.interestOps(SelectionKey.OP_READ);
+                        watch(v, server, random);
+                        watches++;
+                    }
+                    else if (key.isReadable()) {
+                        if (v.channel.read(v.in) < 0)
+                            throw new IOException("server closed the connection");
+                        v.in.flip();
+                        v.decoder.decode(v.in);
+                        v.in.compact();
+                        // Once a game is over, watch another
+                        if (v.decoder.ended) {
+                            v.decoder.ended = false;
+                            v.decoder.ply = -1;
+                            watch(v, server, random);
+                            watches++;
+                        }
+                    }
+                }
+                catch (IOException e) {
+                    key.cancel();
+                    v.channel.close();
+                    lost++;
+                }
+            }
+        }
+
+        long deltas = 0, snapshots = 0, errors = 0;
+        for (SocketViewer v : viewers) {
+            deltas += v.decoder.deltas;
+            snapshots += v.decoder.snapshots;
+            errors += v.decoder.errors;
+            v.channel.close();
+        }
+        selector.close();
+        System.out.println(String.format(Locale.ROOT,
+                "{\"mode\":\"sockets\",\"viewers\":%d,\"seconds\":%d,\"games_played\":%d,\"moves\":%d,\"watches\":%d,"
+                        + "\"snapshots\":%d,\"deltas_delivered\":%d,\"deltas_per_second\":%.0f,\"bad_deltas\":%d,\"viewers_lost\":%d}",
+                viewerCount, seconds, server.gamesFinished.get(), server.moves.get(), watches, snapshots, deltas,
+                (double) deltas / seconds, errors, lost));
+        server.close();
+    }
+
+    // Ask to watch one of the games being played, the newest ones are the ones still going
+    private static void watch(SocketViewer v, GameServer server, Random random) throws IOException {
+        long started = server.gamesStarted.get();
+        int number = (int) (started - random.nextInt(Math.max(1, server.activeGames())));
+        v.out.clear();
+        v.out.put(GameProtocol.WATCH).putInt(number);
+        v.out.flip();
+        while (v.out.hasRemaining())
+            v.channel.write(v.out);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--sockets")) {
+            int viewers = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+            int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+            sockets(viewers, seconds);
+            return;
+        }
+        int viewers = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        simulate(viewers, games);
+    }
+}
@@ -0,0 +1,492 @@
+/*
+    Plays engine against engine without opening any windows, to find out whether one set of
+    evaluation weights is stronger than another.
+
+    Games start from a list of openings (or every 3 move opening from the Board's starting setup),
+    and each opening is played twice so both players get each side of it. Every game runs on its
+    own thread, virtual threads when the JVM has them (Java 21 and newer), otherwise a fixed pool.
+    Finished games go through a bounded queue to one thread that keeps the score, so a slow
+    reporter holds the games back instead of letting results pile up in memory.
+
+    After each game the Elo difference and a sequential probability ratio test (SPRT) are updated.
+    The SPRT asks "is A at least elo1 stronger, or no more than elo0 stronger?", and the match
+    stops as soon as the answer is clear to within the alpha and beta error rates.
+
+    Each player has its own clock, "base+increment" in seconds. A player whose clock runs out loses.
+    With no clock, moves are limited by depth or nodes instead (same moves every run).
+
+    Usage: java checkers.Tournament [options]
+        --a <weights>  --b <weights>    evaluation weights (see Evaluator.parse()), default is the default weights
+        --engine-a <e>  --engine-b <e>  "alphabeta" (default) or "mcts", "mcts:4" for Monte Carlo tree search on 4 threads
+        --games <n>                     most games to play (default 1000)
+        --time <base+inc>               clock for both players, --time-a and --time-b for each (default 1+0.1)
+        --depth <n>  --nodes <n>        search limits per move, 0 for none
+        --openings <file>               moves (see Notation) or FEN positions, one per line
+        --elo0 <elo>  --elo1 <elo>      SPRT hypotheses (default 0 and 10)
+        --alpha <p>  --beta <p>         SPRT error rates (default 0.05)
+        --concurrency <n>               games played at once (default one per processor)
+        --max-plies <n>                 a game this long is a draw (default 300)
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class Tournament {
+    // Score for player A in a game
+    final static int A_LOSES = 0;
+    final static int DRAW = 1;
+    final static int A_WINS = 2;
+    // Node pool for each MCTS player, small enough for many games at once
+    final static int MCTS_NODES = 1 << 19;
+
+    // One side of the match
+    static class Player {
+        final String name;
+        Evaluator evaluator;
+        long baseMillis = 1000;
+        long incrementMillis = 100;
+        // Threads for a MctsSearch, 0 to use the alpha-beta SearchEngine
+        int mctsThreads = 0;
+
+        Player(String name, Evaluator evaluator) {
+            this.name = name;
+            this.evaluator = evaluator;
+        }
+
+        boolean hasClock() {
+            return baseMillis > 0 || incrementMillis > 0;
+        }
+
+        String engineName() {
+            return mctsThreads > 0 ? "mcts:" + mctsThreads : "alphabeta";
+        }
+    }
+
+    // What happened in one game
+    static class GameResult {
+        final int game;
+        final int score; // A_WINS, DRAW or A_LOSES
+        final int plies;
+        final String reason;
+
+        GameResult(int game, int score, int plies, String reason) {
+            this.game = game;
+            this.score = score;
+            this.plies = plies;
+            this.reason = reason;
+        }
+    }
+
+    Player a = new Player("A", new Evaluator());
+    Player b = new Player("B", new Evaluator());
+    int games = 1000;
+    int maxDepth = 0;
+    long maxNodes = 0;
+    int maxPlies = 300;
+    int concurrency = Runtime.getRuntime().availableProcessors();
+    int tableMegabytes = 4;
+    double elo0 = 0;
+    double elo1 = 10;
+    double alpha = 0.05;
+    double beta = 0.05;
+    // The normal approximation used by the SPRT is poor for a handful of games, so wait for this many
+    int sprtMinGames = 50;
+    // Print a progress line every this many games
+    int reportEvery = 100;
+    ArrayList<GameState> openings = new ArrayList<GameState>();
+
+    // Results so far, only touched by the thread that runs play()
+    int wins;
+    int losses;
+    int draws;
+    int timeForfeits;
+    long totalPlies;
+
+    private final AtomicBoolean stop = new AtomicBoolean();
+
+    /*
+    Play the match and return the SPRT outcome: 1 if A is stronger (elo1 accepted),
+    -1 if not (elo0 accepted), 0 if the games ran out first.
+     */
+    public int play() throws InterruptedException {
+        if (openings.isEmpty())
+            openings = defaultOpenings(3);
+        final BlockingQueue<GameResult> results = new ArrayBlockingQueue<GameResult>(Math.max(16, concurrency * 4));
+        final Semaphore running = new Semaphore(concurrency);
+        ExecutorService executor = newGameExecutor(concurrency);
+        System.out.println("Playing up to " + games + " games, " + concurrency + " at a time on "
+                + (virtualThreads(executor) ? "virtual" : "platform") + " threads, "
+                + openings.size() + " openings");
+        System.out.println(a.name + ": " + a.engineName() + " " + a.evaluator + ", " + b.name + ": " + b.engineName() + " " + b.evaluator);
+
+        // Start games from another thread, so this one is free to count results as they arrive
+        final int[] started = new int[1];
+        final ExecutorService pool = executor;
+        Thread scheduler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int g = 0; g < Tournament.this.games && !stop.get(); g++) {
+                        running.acquire();
+                        if (stop.get()) {
+                            running.release();
+                            break;
+                        }
+                        final int game = g;
+                        synchronized (started) {
+                            started[0]++;
+                        }
+                        pool.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    results.put(playGame(game));
+                                }
+                                catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                                finally {
+                                    running.release();
+                                }
+                            }
+                        });
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "tournament-scheduler");
+        scheduler.start();
+
+        int outcome = 0;
+        int finished = 0;
+        long start = System.currentTimeMillis();
+        while (true) {
+            GameResult result = results.poll(100, TimeUnit.MILLISECONDS);
+            if (result == null) {
+                // Done once the scheduler has stopped and every game it started has been counted
+                int total;
+                synchronized (started) {
+                    total = started[0];
+                }
+                if (!scheduler.isAlive() && finished == total && results.isEmpty())
+                    break;
+                continue;
+            }
+            finished++;
+            record(result);
+            if (outcome == 0) {
+                outcome = sprtOutcome();
+                if (outcome != 0)
+                    stop.set(true);
+            }
+            if (finished % reportEvery == 0)
+                System.out.println(summary());
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        System.out.println(summary());
+        long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+        System.out.println("Finished " + finished + " games in " + seconds + "s (" + (finished * 60 / seconds)
+                + " games/min, " + (finished == 0 ? 0 : totalPlies / finished) + " plies per game, "
+                + timeForfeits + " lost on time)");
+        if (outcome > 0)
+            System.out.println("SPRT: H1 accepted, " + a.name + " is at least " + elo1 + " Elo stronger");
+        else if (outcome < 0)
+            System.out.println("SPRT: H0 accepted, " + a.name + " is no more than " + elo0 + " Elo stronger");
+        else
+            System.out.println("SPRT: no result yet, more games are needed");
+        return outcome;
+    }
+
+    // Play one game, A takes black in even games. Runs on a game thread
+    GameResult playGame(int game) {
+        GameState state = openings.get((game / 2) % openings.size());
+        boolean aIsBlack = game % 2 == 0;
+        Player black = aIsBlack ? a : b;
+        Player white = aIsBlack ? b : a;
+        SearchEngine blackEngine = new SearchEngine(black.evaluator, new TranspositionTable(tableMegabytes));
+        SearchEngine whiteEngine = new SearchEngine(white.evaluator, new TranspositionTable(tableMegabytes));
+        MctsSearch blackMcts = black.mctsThreads > 0 ? new MctsSearch(black.evaluator, black.mctsThreads, MCTS_NODES) : null;
+        MctsSearch whiteMcts = white.mctsThreads > 0 ? new MctsSearch(white.evaluator, white.mctsThreads, MCTS_NODES) : null;
+        try {
+            return playGame(game, state, aIsBlack, blackEngine, whiteEngine, blackMcts, whiteMcts);
+        }
+        finally {
+            if (blackMcts != null)
+                blackMcts.shutdown();
+            if (whiteMcts != null)
+                whiteMcts.shutdown();
+        }
+    }
+
+    private GameResult playGame(int game, GameState state, boolean aIsBlack, SearchEngine blackEngine, SearchEngine whiteEngine,
+                                MctsSearch blackMcts, MctsSearch whiteMcts) {
+        Player black = aIsBlack ? a : b;
+        Player white = aIsBlack ? b : a;
+        long blackClock = black.baseMillis;
+        long whiteClock = white.baseMillis;
+
+        // Positions seen so far, a third repetition is a draw
+        HashMap<Long, Integer> seen = new HashMap<Long, Integer>();
+        int plies = 0;
+        while (!state.isGameOver()) {
+            if (plies >= maxPlies)
+                return new GameResult(game, DRAW, plies, "move limit");
+            Integer count = seen.get(state.hash());
+            count = count == null ? 1 : count + 1;
+            if (count >= 3)
+                return new GameResult(game, DRAW, plies, "repetition");
+            seen.put(state.hash(), count);
+
+            boolean blackMoves = state.blacksTurn();
+            Player player = blackMoves ? black : white;
+            SearchEngine engine = blackMoves ? blackEngine : whiteEngine;
+            long clock = blackMoves ? blackClock : whiteClock;
+            // Spend about a twentieth of the time left plus the increment, never more than half the clock
+            long budget = 0;
+            if (player.hasClock())
+                budget = Math.max(1, Math.min(clock / 2, clock / 20 + player.incrementMillis));
+            // With nothing else to stop it the search would go to its full depth, so use a fixed one
+            int depth = maxDepth == 0 && maxNodes == 0 && budget == 0 ? 8 : maxDepth;
+            engine.setLimits(depth, budget, maxNodes);
+
+            long before = System.currentTimeMillis();
+            MctsSearch mcts = blackMoves ? blackMcts : whiteMcts;
+            long move = mcts != null ? mcts.search(state, budget, maxNodes) : engine.search(state.toPosition());
+            long used = System.currentTimeMillis() - before;
+            if (player.hasClock()) {
+                clock -= used;
+                if (clock < 0) {
+                    boolean aFlagged = player == a;
+                    return new GameResult(game, aFlagged ? A_LOSES : A_WINS, plies, "time");
+                }
+                clock += player.incrementMillis;
+                if (blackMoves)
+                    blackClock = clock;
+                else
+                    whiteClock = clock;
+            }
+            // Both searches return one of the state's full moves, there is no need to check it again
+            state = state.applyLegal(move);
+            plies++;
+        }
+        boolean blackWon = state.result() == GameState.BLACK_WINS;
+        return new GameResult(game, blackWon == aIsBlack ? A_WINS : A_LOSES, plies, "result");
+    }
+
+    private void record(GameResult result) {
+        if (result.score == A_WINS)
+            wins++;
+        else if (result.score == A_LOSES)
+            losses++;
+        else
+            draws++;
+        if (result.reason.equals("time"))
+            timeForfeits++;
+        totalPlies += result.plies;
+    }
+
+    // A's average score per game, from 0 (lost everything) to 1 (won everything)
+    double scoreRate() {
+        int n = wins + losses + draws;
+        return n == 0 ? 0.5 : (wins + 0.5 * draws) / n;
+    }
+
+    // Variance of A's score in one game
+    double scoreVariance() {
+        int n = wins + losses + draws;
+        if (n == 0)
+            return 0;
+        double s = scoreRate();
+        return (wins * (1 - s) * (1 - s) + draws * (0.5 - s) * (0.5 - s) + losses * s * s) / n;
+    }
+
+    // Elo difference that gives an expected score (logistic model)
+    static double elo(double score) {
+        score = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    // Expected score for an Elo difference
+    static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    // Half the width of the 95% confidence interval for the Elo difference
+    double eloMargin() {
+        int n = wins + losses + draws;
+        if (n == 0)
+            return 0;
+        double s = scoreRate();
+        double error = 1.96 * Math.sqrt(scoreVariance() / n);
+        return (elo(s + error) - elo(s - error)) / 2;
+    }
+
+    /*
+    Log likelihood ratio of elo1 against elo0, using the normal approximation
+    to the game results (generalized SPRT):
+        LLR = n * (s1 - s0) * (2s - s0 - s1) / (2 * variance)
+     */
+    double llr() {
+        int n = wins + losses + draws;
+        double variance = scoreVariance();
+        if (n == 0 || variance == 0)
+            return 0;
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return n * (s1 - s0) * (2 * scoreRate() - s0 - s1) / (2 * variance);
+    }
+
+    double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    // 1 if H1 (elo1) is accepted, -1 if H0 (elo0) is accepted, 0 to keep playing
+    int sprtOutcome() {
+        if (wins + losses + draws < sprtMinGames)
+            return 0;
+        double llr = llr();
+        if (llr >= upperBound())
+            return 1;
+        if (llr <= lowerBound())
+            return -1;
+        return 0;
+    }
+
+    String summary() {
+        int n = wins + losses + draws;
+        return String.format(java.util.Locale.ROOT,
+                "Games %d: +%d -%d =%d  score %.1f%%  Elo %.1f +/- %.1f  LLR %.2f (%.2f, %.2f)",
+                n, wins, losses, draws, 100 * scoreRate(), elo(scoreRate()), eloMargin(),
+                llr(), lowerBound(), upperBound());
+    }
+
+    /*
+    One thread per game: virtual threads on Java 21 and newer, found by reflection so this still
+    compiles and runs on older JVMs, which get a fixed pool of concurrency threads instead.
+     */
+    static ExecutorService newGameExecutor(int concurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    private static boolean virtualThreads(ExecutorService executor) {
+        return !(executor instanceof java.util.concurrent.ThreadPoolExecutor);
+    }
+
+    // Every position after the given number of moves from the start, without repeats
+    static ArrayList<GameState> defaultOpenings(int plies) {
+        ArrayList<GameState> level = new ArrayList<GameState>();
+        level.add(new GameState());
+        for (int p = 0; p < plies; p++) {
+            ArrayList<GameState> next = new ArrayList<GameState>();
+            java.util.HashSet<GameState> unique = new java.util.HashSet<GameState>();
+            for (GameState s : level) {
+                for (long move : s.fullMoves()) {
+                    GameState child = s.applyLegal(move);
+                    if (unique.add(child))
+                        next.add(child);
+                }
+            }
+            level = next;
+        }
+        return level;
+    }
+
+    // Read openings, one per line: either moves from the start position or a FEN position
+    static ArrayList<GameState> readOpenings(String file) throws IOException {
+        ArrayList<GameState> list = new ArrayList<GameState>();
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                if (line.indexOf(':') >= 0) {
+                    list.add(Notation.parseFen(line));
+                    continue;
+                }
+                StringBuilder moves = new StringBuilder();
+                for (String token : line.split("\\s+")) {
+                    if (Notation.isMove(token))
+                        moves.append(token).append(' ');
+                }
+                list.add(Notation.play(moves.toString()));
+            }
+        }
+        return list;
+    }
+
+    // Read an engine choice, returns the MCTS threads or 0 for alpha-beta
+    static int parseEngine(String engine) {
+        if (engine.equals("alphabeta"))
+            return 0;
+        if (engine.equals("mcts"))
+            return 1;
+        if (engine.startsWith("mcts:"))
+            return Math.max(1, Integer.parseInt(engine.substring(5)));
+        throw new IllegalArgumentException("Unknown engine: " + engine);
+    }
+
+    // Read a clock written "base+increment" in seconds, for example "10+0.1", into a player
+    static void setClock(Player player, String control) {
+        String[] parts = control.split("\\+");
+        player.baseMillis = Math.round(Double.parseDouble(parts[0]) * 1000);
+        player.incrementMillis = parts.length > 1 ? Math.round(Double.parseDouble(parts[1]) * 1000) : 0;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Tournament t = new Tournament();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--a": t.a.evaluator = Evaluator.parse(value); break;
+                case "--b": t.b.evaluator = Evaluator.parse(value); break;
+                case "--engine-a": t.a.mctsThreads = parseEngine(value); break;
+                case "--engine-b": t.b.mctsThreads = parseEngine(value); break;
+                case "--games": t.games = Integer.parseInt(value); break;
+                case "--time": setClock(t.a, value); setClock(t.b, value); break;
+                case "--time-a": setClock(t.a, value); break;
+                case "--time-b": setClock(t.b, value); break;
+                case "--depth": t.maxDepth = Integer.parseInt(value); break;
+                case "--nodes": t.maxNodes = Long.parseLong(value); break;
+                case "--openings": t.openings = readOpenings(value); break;
+                case "--elo0": t.elo0 = Double.parseDouble(value); break;
+                case "--elo1": t.elo1 = Double.parseDouble(value); break;
+                case "--alpha": t.alpha = Double.parseDouble(value); break;
+                case "--beta": t.beta = Double.parseDouble(value); break;
+                case "--concurrency": t.concurrency = Math.max(1, Integer.parseInt(value)); break;
+                case "--max-plies": t.maxPlies = Integer.parseInt(value); break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        t.play();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+    A "static" class for tracing what the game does: move generation, turn switches and captures.
+
+    Events go to two places:
+     - Java Flight Recorder, as custom events in the "Checkers" category, whenever a recording
+       is running (for example java -XX:StartFlightRecording=filename=game.jfr -jar ui/target/swingcheckers-ui-1.0.jar)
+     - A ring buffer of the most recent events in memory, when turned on with -Dcheckers.trace=true
+       or setEnabled(). dump() prints it.
+
+    Recording an event takes only numbers, never strings, and returns straight away when neither
+    is on, so leaving the trace calls in costs nothing. The ring buffer is lock-free: any thread can
+    record while another dumps, and a slot being overwritten during a dump is skipped.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+public class Trace {
+    // Event types
+    final static int MOVES = 1;
+    final static int TURN = 2;
+    final static int CAPTURE = 3;
+    final static String[] TYPE_NAMES = {"", "MOVES", "TURN", "CAPTURE"};
+
+    // Number of events kept, a power of two
+    final static int CAPACITY = 4096;
+
+    private static volatile boolean enabled = Boolean.getBoolean("checkers.trace");
+    private static volatile boolean recording = false;
+
+    /*
+    Each slot holds the time, the event (type and up to three 16 bit values packed into a long)
+    and the sequence number it was written for. The sequence is set last, so a reader that sees
+    the same sequence before and after reading a slot knows the slot wasn't changed in between.
+     */
+    private static final AtomicLong nextSequence = new AtomicLong();
+    private static final AtomicLongArray times = new AtomicLongArray(CAPACITY);
+    private static final AtomicLongArray events = new AtomicLongArray(CAPACITY);
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final long startNanos = System.nanoTime();
+
+    static {
+        for (int i = 0; i < CAPACITY; i++)
+            sequences.set(i, -1);
+        // Follow whether a flight recording is running, without starting the recorder ourselves
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording changed) {
+                checkRecording();
+            }
+        });
+        if (FlightRecorder.isInitialized())
+            checkRecording();
+    }
+
+    private static void checkRecording() {
+        boolean running = false;
+        for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (r.getState() == RecordingState.RUNNING)
+                running = true;
+        }
+        recording = running;
+    }
+
+    @Name("checkers.MoveGeneration")
+    @Label("Move Generation")
+    @Category("Checkers")
+    @Description("Legal moves were listed for the side to move")
+    static class MoveGenerationEvent extends Event {
+        @Label("Moves")
+        int moves;
+        @Label("Must Capture")
+        boolean mustCapture;
+    }
+
+    @Name("checkers.TurnSwitch")
+    @Label("Turn Switch")
+    @Category("Checkers")
+    static class TurnSwitchEvent extends Event {
+        @Label("Black To Move")
+        boolean blackToMove;
+        @Label("Black Pieces")
+        int blackPieces;
+        @Label("White Pieces")
+        int whitePieces;
+    }
+
+    @Name("checkers.Capture")
+    @Label("Capture")
+    @Category("Checkers")
+    static class CaptureEvent extends Event {
+        @Label("From Square")
+        int from;
+        @Label("To Square")
+        int to;
+        @Label("Pieces Captured")
+        int captured;
+    }
+
+    // Turn the in-memory ring buffer on or off
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // True while a flight recording is running
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    // Moves were generated for the side to move
+    public static void moveGeneration(int moves, boolean mustCapture) {
+        if (enabled)
+            record(MOVES, moves, mustCapture ? 1 : 0, 0);
+        if (recording) {
+            MoveGenerationEvent event = new MoveGenerationEvent();
+            if (event.shouldCommit()) {
+                event.moves = moves;
+                event.mustCapture = mustCapture;
+                event.commit();
+            }
+        }
+    }
+
+    // The turn passed to the other player
+    public static void turnSwitch(boolean blackToMove, int blackPieces, int whitePieces) {
+        if (enabled)
+            record(TURN, blackToMove ? 1 : 0, blackPieces, whitePieces);
+        if (recording) {
+            TurnSwitchEvent event = new TurnSwitchEvent();
+            if (event.shouldCommit()) {
+                event.blackToMove = blackToMove;
+                event.blackPieces = blackPieces;
+                event.whitePieces = whitePieces;
+                event.commit();
+            }
+        }
+    }
+
+    // A piece jumped from one square to another (numbered 1 - 32), capturing some pieces
+    public static void capture(int from, int to, int captured) {
+        if (enabled)
+            record(CAPTURE, from, to, captured);
+        if (recording) {
+            CaptureEvent event = new CaptureEvent();
+            if (event.shouldCommit()) {
+                event.from = from;
+                event.to = to;
+                event.captured = captured;
+                event.commit();
+            }
+        }
+    }
+
+    private static void record(int type, int a, int b, int c) {
+        long sequence = nextSequence.getAndIncrement();
+        int slot = (int) (sequence & (CAPACITY - 1));
+        // Mark the slot as being written, then fill it in and publish it
+        sequences.set(slot, -1);
+        times.lazySet(slot, System.nanoTime() - startNanos);
+        events.lazySet(slot, ((long) type << 48) | ((long) (a & 0xFFFF) << 32) | ((long) (b & 0xFFFF) << 16) | (c & 0xFFFF));
+        sequences.set(slot, sequence);
+    }
+
+    // Print the events in the buffer, oldest first
+    public static void dump(PrintStream out) {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - CAPACITY);
+        out.println("Trace: " + (end - start) + " of " + end + " events");
+        for (long s = start; s < end; s++) {
+            int slot = (int) (s & (CAPACITY - 1));
+            if (sequences.get(slot) != s)
+                continue;
+            long time = times.get(slot);
+            long event = events.get(slot);
+            // Skip the slot if it was overwritten while we read it
+            if (sequences.get(slot) != s)
+                continue;
+            int type = (int) (event >>> 48);
+            int a = (int) (event >>> 32) & 0xFFFF;
+            int b = (int) (event >>> 16) & 0xFFFF;
+            int c = (int) event & 0xFFFF;
+            String text;
+            if (type == MOVES)
+                text = a + " moves" + (b == 1 ? ", must capture" : "");
+            else if (type == TURN)
+                text = (a == 1 ? "black" : "white") + " to move, " + b + " black and " + c + " white pieces";
+            else
+                text = a + "x" + b + ", " + c + " captured";
+            out.println(String.format(java.util.Locale.ROOT, "%10.3fms %-8s %s", time / 1e6, TYPE_NAMES[type], text));
+        }
+    }
+
+    // Forget every recorded event
+    public static void clear() {
+        nextSequence.set(0);
+        for (int i = 0; i < CAPACITY; i++)
+            sequences.set(i, -1);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+    A fixed size hash table of search results, keyed by Zobrist hash (see Zobrist).
+    Lets the search reuse work when the same position is reached by a different order of moves.
+
+    Entries are stored in two long arrays (no object per entry). Each entry is a key and a packed
+    data word, and the key is stored XORed with the data. A reader only accepts an entry when
+    the two words still XOR back to its key, so entries that are half written by another thread
+    are simply treated as misses. This means search threads can share one table without locks.
+
+    Entries are grouped in buckets of 4. When a bucket is full the entry to replace is picked by
+    depth and age: shallow results and results left over from older searches go first.
+
+    Layout of a data word:
+        bits 0-4   : from square of the best move
+        bits 5-9   : to square of the best move
+        bit  10    : set if there is a best move
+        bits 11-12 : bound type (EXACT, LOWER or UPPER), never 0 for a stored entry
+        bits 13-19 : depth searched
+        bits 20-27 : age (search number) when stored
+        bits 32-63 : score
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class TranspositionTable {
+    // Bound types
+    final static int EXACT = 1;
+    final static int LOWER = 2; // Score is at least this (caused a beta cutoff)
+    final static int UPPER = 3; // Score is at most this (no move raised alpha)
+
+    final static int BUCKET_SIZE = 4;
+    final static int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    // Written once per search (by the searching thread, or ParallelSearch before it starts its threads)
+    private volatile int age;
+
+    // Constructor; size of the table in megabytes, rounded down to a power of two entries
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(BUCKET_SIZE, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[size];
+        data = new long[size];
+        mask = (size - 1) & ~(BUCKET_SIZE - 1);
+    }
+
+    // Call at the start of every search, so older entries are replaced first
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(data, 0);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // Return the data word stored for a hash, or 0 if there isn't one
+    public long probe(long key) {
+        int bucket = (int) key & mask;
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            long d = data[i];
+            if (d != 0 && (keys[i] ^ d) == key)
+                return d;
+        }
+        return 0;
+    }
+
+    // Store a search result, the move may be MoveCode.NONE
+    public void store(long key, int depth, int score, int bound, long move) {
+        long d = pack(depth, score, bound, move);
+        int bucket = (int) key & mask;
+        int replace = bucket;
+        int worst = Integer.MAX_VALUE;
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            long old = data[i];
+            if (old == 0 || (keys[i] ^ old) == key) {
+                // Don't let a shallow result for the same position wipe out a deeper one from this search
+                if (old != 0 && age(old) == age && depth(old) > depth && bound != EXACT)
+                    return;
+                replace = i;
+                break;
+            }
+            int priority = depth(old) - 4 * ((age - age(old)) & 0xFF);
+            if (priority < worst) {
+                worst = priority;
+                replace = i;
+            }
+        }
+        data[replace] = d;
+        keys[replace] = key ^ d;
+    }
+
+    private long pack(int depth, int score, int bound, long move) {
+        long d = ((long) score << 32) | (age << 20) | (Math.max(0, Math.min(depth, 127)) << 13) | (bound << 11);
+        if (move != MoveCode.NONE)
+            d |= (1 << 10) | (MoveCode.to(move) << 5) | MoveCode.from(move);
+        return d;
+    }
+
+    // Decode parts of a data word returned by probe()
+    public static int score(long d) {
+        return (int) (d >> 32);
+    }
+
+    public static int depth(long d) {
+        return (int) (d >>> 13) & 0x7F;
+    }
+
+    public static int bound(long d) {
+        return (int) (d >>> 11) & 3;
+    }
+
+    public static int age(long d) {
+        return (int) (d >>> 20) & 0xFF;
+    }
+
+    public static boolean hasMove(long d) {
+        return (d & (1 << 10)) != 0;
+    }
+
+    public static int moveFrom(long d) {
+        return (int) d & 0x1F;
+    }
+
+    public static int moveTo(long d) {
+        return (int) (d >>> 5) & 0x1F;
+    }
+}
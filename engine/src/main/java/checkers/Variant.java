@@ -0,0 +1,156 @@
+/*
+    The rules of a variant of checkers (draughts), with lookup tables for its board.
+
+    Each variant knows its board size, how many rows of men each side starts with, who moves first,
+    and how kings and captures work. The tables are worked out once when the variant is created:
+        neighbors[dir][square]  the square one diagonal step away, or -1 off the board
+        rays[dir][square]       every square along the diagonal, nearest first
+    so move generation (see VariantMoveGenerator) never does coordinate arithmetic, even for kings
+    that fly across a 10x10 board.
+
+    Squares are numbered like BitboardPosition: left to right, top to bottom, starting at black's
+    back row, only counting playable tiles. Square + 1 is the number used in standard notation.
+    Black starts at the top and moves down the board.
+
+    The Board plays AMERICAN, whose fast bitboard engine is BitboardPosition and MoveGenerator.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class Variant {
+    // Directions, same order as BitboardPosition
+    final static int NW = 0;
+    final static int NE = 1;
+    final static int SE = 2;
+    final static int SW = 3;
+    // Row and column change of each direction
+    final static int[] ROW_STEP = {-1, -1, 1, 1};
+    final static int[] COLUMN_STEP = {-1, 1, 1, -1};
+
+    // As the Board plays it: kings move one square, men capture forwards only, any capture may be chosen,
+    // and a man crowned part way through a capture carries on as a king (the same as MoveGenerator)
+    final static Variant AMERICAN = new Variant("American", 21, 8, 3, true, false, false, false, true);
+    // 10x10, flying kings, men capture backwards too, the longest capture must be taken,
+    // and a man is only crowned if its move ends on the far row
+    final static Variant INTERNATIONAL = new Variant("International", 20, 10, 4, false, true, true, true, false);
+    // Flying kings, men capture backwards, any capture may be chosen, crowned men carry on as kings
+    final static Variant RUSSIAN = new Variant("Russian", 25, 8, 3, false, true, true, false, true);
+    // International rules on an 8x8 board
+    final static Variant BRAZILIAN = new Variant("Brazilian", 26, 8, 3, false, true, true, true, false);
+
+    final static Variant[] ALL = {AMERICAN, INTERNATIONAL, RUSSIAN, BRAZILIAN};
+
+    final String name;
+    // GameType tag used in PDN files
+    final int gameType;
+    final int size;
+    final int squares;
+    final int rowsOfMen;
+    final boolean blackMovesFirst;
+    final boolean flyingKings;
+    final boolean menCaptureBackward;
+    final boolean mostCaptures;
+    // A man reaching the far row part way through a capture is crowned and carries on as a king
+    final boolean crownDuringCapture;
+
+    final int[][] neighbors;
+    final int[][][] rays;
+    final long blackStart;
+    final long whiteStart;
+    // Rows where each side's men are crowned
+    final long blackCrownRow;
+    final long whiteCrownRow;
+
+    // Constructor; builds the lookup tables for the board
+    private Variant(String name, int gameType, int size, int rowsOfMen, boolean blackMovesFirst, boolean flyingKings,
+                    boolean menCaptureBackward, boolean mostCaptures, boolean crownDuringCapture) {
+        this.name = name;
+        this.gameType = gameType;
+        this.size = size;
+        this.rowsOfMen = rowsOfMen;
+        this.blackMovesFirst = blackMovesFirst;
+        this.flyingKings = flyingKings;
+        this.menCaptureBackward = menCaptureBackward;
+        this.mostCaptures = mostCaptures;
+        this.crownDuringCapture = crownDuringCapture;
+        squares = size * size / 2;
+        if (squares > 64)
+            throw new IllegalArgumentException("Board too large for a long mask: " + size);
+
+        neighbors = new int[4][squares];
+        rays = new int[4][squares][];
+        long black = 0;
+        long white = 0;
+        long blackCrown = 0;
+        long whiteCrown = 0;
+        for (int sq = 0; sq < squares; sq++) {
+            int row = row(sq);
+            for (int dir = 0; dir < 4; dir++) {
+                int length = 0;
+                int[] ray = new int[size];
+                int r = row + ROW_STEP[dir];
+                int c = column(sq) + COLUMN_STEP[dir];
+                while (r >= 0 && r < size && c >= 0 && c < size) {
+                    ray[length++] = square(c, r);
+                    r += ROW_STEP[dir];
+                    c += COLUMN_STEP[dir];
+                }
+                rays[dir][sq] = java.util.Arrays.copyOf(ray, length);
+                neighbors[dir][sq] = length > 0 ? ray[0] : -1;
+            }
+            if (row < rowsOfMen)
+                black |= 1L << sq;
+            if (row >= size - rowsOfMen)
+                white |= 1L << sq;
+            if (row == size - 1)
+                blackCrown |= 1L << sq;
+            if (row == 0)
+                whiteCrown |= 1L << sq;
+        }
+        blackStart = black;
+        whiteStart = white;
+        blackCrownRow = blackCrown;
+        whiteCrownRow = whiteCrown;
+    }
+
+    // Conversions between grid space (column, row) and square numbers, -1 for a tile that isn't played on
+    public int square(int column, int row) {
+        if (column < 0 || column >= size || row < 0 || row >= size || (column + row) % 2 == 0)
+            return -1;
+        return row * (size / 2) + column / 2;
+    }
+
+    public int row(int square) {
+        return square / (size / 2);
+    }
+
+    public int column(int square) {
+        return (square % (size / 2)) * 2 + 1 - (row(square) & 1);
+    }
+
+    // Pieces each side starts with
+    public int menPerSide() {
+        return rowsOfMen * size / 2;
+    }
+
+    // True if a man of this color moves in this direction
+    public boolean isForward(boolean black, int dir) {
+        return black == (dir == SE || dir == SW);
+    }
+
+    // Look up a variant by name (not case sensitive) or PDN GameType number, null if there isn't one
+    public static Variant forName(String name) {
+        for (Variant v : ALL) {
+            if (v.name.equalsIgnoreCase(name) || String.valueOf(v.gameType).equals(name))
+                return v;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+    Generates complete moves for a VariantPosition, following the rules of its Variant.
+
+    Like MoveGenerator, a multi-jump is one move from where the piece starts to where the chain ends,
+    and each distinct chain (start, end and captured pieces) is listed once. Flying kings slide along
+    the variant's ray tables, and where the rules say the longest capture must be taken, only the
+    chains that capture the most pieces are kept.
+
+    Moves are kept in the generator's own arrays (from, to, captured, crown), which grow when needed
+    and are reused, so generating doesn't allocate once they are big enough. Because of that one
+    instance must not be shared between threads, and a search needs one per ply.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class VariantMoveGenerator {
+    // The moves from the last call to generate()
+    int[] from = new int[64];
+    int[] to = new int[64];
+    long[] captured = new long[64];
+    boolean[] crown = new boolean[64];
+    int count;
+
+    // Scratch state for the chain currently being followed
+    private Variant variant;
+    private int firstOfPiece;
+    private int origin;
+    private boolean originKing;
+    private boolean forBlack;
+    private long opponents;
+    private long occupied;
+    private long crownRow;
+
+    // Fill the move arrays with every legal move for the side to move and return how many there are
+    public int generate(VariantPosition pos) {
+        variant = pos.variant;
+        count = 0;
+        forBlack = pos.blacksTurn;
+        long own = forBlack ? pos.black : pos.white;
+        opponents = forBlack ? pos.white : pos.black;
+        crownRow = forBlack ? variant.blackCrownRow : variant.whiteCrownRow;
+
+        // Capture rule: if any piece can capture, only captures are legal
+        long pieces = own;
+        while (pieces != 0) {
+            int sq = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            origin = sq;
+            originKing = (pos.kings & (1L << sq)) != 0;
+            firstOfPiece = count;
+            // The jumping piece leaves its square, so a chain is allowed to pass back through it
+            occupied = pos.occupied() & ~(1L << sq);
+            follow(sq, 0, originKing);
+        }
+        if (count > 0) {
+            if (variant.mostCaptures)
+                keepLongest();
+            return count;
+        }
+
+        long empty = ~pos.occupied();
+        pieces = own;
+        while (pieces != 0) {
+            int sq = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            boolean king = (pos.kings & (1L << sq)) != 0;
+            for (int dir = 0; dir < 4; dir++) {
+                if (!king && !variant.isForward(forBlack, dir))
+                    continue;
+                int[] ray = variant.rays[dir][sq];
+                // A flying king slides until it meets a piece, anything else takes one step
+                int reach = king && variant.flyingKings ? ray.length : Math.min(1, ray.length);
+                for (int i = 0; i < reach && (empty & (1L << ray[i])) != 0; i++) {
+                    add(sq, ray[i], 0, !king && (crownRow & (1L << ray[i])) != 0);
+                }
+            }
+        }
+        return count;
+    }
+
+    // Depth-first search of every capture available from a square, adding the chain when it ends
+    private void follow(int square, long taken, boolean king) {
+        boolean extended = false;
+        for (int dir = 0; dir < 4; dir++) {
+            if (!king && !variant.menCaptureBackward && !variant.isForward(forBlack, dir))
+                continue;
+            int[] ray = variant.rays[dir][square];
+            int i = 0;
+            // A flying king can capture from a distance, so skip the empty squares in front of it
+            if (king && variant.flyingKings) {
+                while (i < ray.length && (occupied & (1L << ray[i])) == 0)
+                    i++;
+            }
+            if (i + 1 >= ray.length)
+                continue;
+            int over = ray[i];
+            // Captured pieces stay on the board until the chain is over, so they can't be jumped twice
+            if ((opponents & ~taken & (1L << over)) == 0)
+                continue;
+            // A flying king may land on any empty square past the captured piece, anything else only the next one
+            int last = king && variant.flyingKings ? ray.length : i + 2;
+            for (int j = i + 1; j < last && (occupied & (1L << ray[j])) == 0; j++) {
+                boolean crowned = king || (variant.crownDuringCapture && (crownRow & (1L << ray[j])) != 0);
+                follow(ray[j], taken | (1L << over), crowned);
+                extended = true;
+            }
+        }
+        if (!extended && taken != 0) {
+            boolean crowned = !originKing && (king || (crownRow & (1L << square)) != 0);
+            // Skip it if another path already produced the same move
+            for (int m = firstOfPiece; m < count; m++) {
+                if (to[m] == square && captured[m] == taken)
+                    return;
+            }
+            add(origin, square, taken, crowned);
+        }
+    }
+
+    // Keep only the captures that take the most pieces
+    private void keepLongest() {
+        int most = 0;
+        for (int m = 0; m < count; m++)
+            most = Math.max(most, Long.bitCount(captured[m]));
+        int kept = 0;
+        for (int m = 0; m < count; m++) {
+            if (Long.bitCount(captured[m]) != most)
+                continue;
+            from[kept] = from[m];
+            to[kept] = to[m];
+            captured[kept] = captured[m];
+            crown[kept] = crown[m];
+            kept++;
+        }
+        count = kept;
+    }
+
+    private void add(int start, int end, long taken, boolean crowned) {
+        if (count == from.length) {
+            from = java.util.Arrays.copyOf(from, count * 2);
+            to = java.util.Arrays.copyOf(to, count * 2);
+            captured = java.util.Arrays.copyOf(captured, count * 2);
+            crown = java.util.Arrays.copyOf(crown, count * 2);
+        }
+        from[count] = start;
+        to[count] = end;
+        captured[count] = taken;
+        crown[count] = crowned;
+        count++;
+    }
+
+    // Move i in standard notation, e.g. "32-28" or "19x28" (square numbers start at 1)
+    public String toString(int i) {
+        return (from[i] + 1) + (captured[i] != 0 ? "x" : "-") + (to[i] + 1);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+    Perft for every Variant: counts the positions reachable in exactly N moves, to check
+    VariantMoveGenerator against published counts (the same idea as Perft, which checks the
+    American bitboard engine).
+
+    Usage: java checkers.VariantPerft                         check every variant against the reference counts
+           java checkers.VariantPerft <variant> <depth> [fen]  count one position
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class VariantPerft {
+    /*
+    Counts from the starting position of each variant at depth 1, 2, 3...
+    American, International and Russian are the published counts. The Brazilian ones were
+    counted by this generator, so they only catch changes.
+     */
+    final static Variant[] REFERENCE_VARIANTS = {Variant.AMERICAN, Variant.INTERNATIONAL, Variant.RUSSIAN, Variant.BRAZILIAN};
+    final static long[][] REFERENCE_COUNTS = {
+            {7, 49, 302, 1469, 7361, 36768, 179740, 845931},
+            {9, 81, 658, 4265, 27117, 167140, 1049442, 6483961},
+            {7, 49, 302, 1469, 7482, 37986, 190146},
+            {7, 49, 302, 1469, 7473, 37628, 187302},
+    };
+
+    // One generator and position per ply, so counting doesn't allocate
+    private final VariantMoveGenerator[] generators;
+    private final VariantPosition[] positions;
+
+    public VariantPerft(Variant variant, int maxDepth) {
+        generators = new VariantMoveGenerator[maxDepth + 1];
+        positions = new VariantPosition[maxDepth + 1];
+        for (int i = 0; i <= maxDepth; i++) {
+            generators[i] = new VariantMoveGenerator();
+            positions[i] = new VariantPosition(variant);
+        }
+    }
+
+    // Number of positions exactly depth moves from pos
+    public long count(VariantPosition pos, int depth) {
+        positions[depth].set(pos);
+        return count(depth);
+    }
+
+    private long count(int depth) {
+        VariantMoveGenerator moves = generators[depth];
+        int n = moves.generate(positions[depth]);
+        if (depth == 1)
+            return n;
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            positions[depth - 1].set(positions[depth]);
+            positions[depth - 1].makeMove(moves, i);
+            nodes += count(depth - 1);
+        }
+        return nodes;
+    }
+
+    // Count one position and print a JSON line like Perft.report(), returns the count
+    public long report(VariantPosition pos, int depth, long expected) {
+        long start = System.nanoTime();
+        long nodes = count(pos, depth);
+        long nanos = Math.max(1, System.nanoTime() - start);
+        String check = expected < 0 ? "" : ",\"expected\":" + expected + ",\"ok\":" + (nodes == expected);
+        System.out.println("{\"variant\":\"" + pos.variant + "\",\"fen\":\"" + pos.toFen() + "\",\"depth\":" + depth
+                + ",\"nodes\":" + nodes + ",\"ms\":" + nanos / 1000000
+                + ",\"nodes_per_second\":" + (long) (nodes * 1e9 / nanos) + check + "}");
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            boolean allOk = true;
+            for (int v = 0; v < REFERENCE_VARIANTS.length; v++) {
+                Variant variant = REFERENCE_VARIANTS[v];
+                VariantPerft perft = new VariantPerft(variant, REFERENCE_COUNTS[v].length);
+                for (int d = 1; d <= REFERENCE_COUNTS[v].length; d++) {
+                    long expected = REFERENCE_COUNTS[v][d - 1];
+                    allOk &= perft.report(new VariantPosition(variant), d, expected) == expected;
+                }
+            }
+            System.out.println(allOk ? "All variant perft counts match" : "VARIANT PERFT MISMATCH");
+            if (!allOk)
+                System.exit(1);
+            return;
+        }
+        Variant variant = Variant.forName(args[0]);
+        if (variant == null || args.length < 2) {
+            System.out.println("Usage: java checkers.VariantPerft [<variant> <depth> [fen]]");
+            return;
+        }
+        int depth = Integer.parseInt(args[1]);
+        VariantPosition pos = args.length > 2 ? VariantPosition.parseFen(variant, args[2]) : new VariantPosition(variant);
+        new VariantPerft(variant, depth).report(pos, depth, -1);
+    }
+}
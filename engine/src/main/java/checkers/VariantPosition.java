@@ -0,0 +1,133 @@
+/*
+    A position in any Variant, stored as one long mask each for black pieces, white pieces and
+    kings (the largest board, 10x10, has 50 playable squares).
+
+    This is the variant counterpart of BitboardPosition. Moves come from VariantMoveGenerator and are
+    made with makeMove(), which is all a search or perft needs.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+public class VariantPosition {
+    final Variant variant;
+    long black;
+    long white;
+    long kings;
+    boolean blacksTurn;
+
+    // Constructor; creates the variant's starting position
+    public VariantPosition(Variant variant) {
+        this.variant = variant;
+        black = variant.blackStart;
+        white = variant.whiteStart;
+        kings = 0;
+        blacksTurn = variant.blackMovesFirst;
+    }
+
+    // Copy another position of the same variant into this one
+    public void set(VariantPosition other) {
+        black = other.black;
+        white = other.white;
+        kings = other.kings;
+        blacksTurn = other.blacksTurn;
+    }
+
+    public long occupied() {
+        return black | white;
+    }
+
+    /*
+    Move a piece from one square to another, removing the captured pieces, and pass the turn.
+    A king capturing in a loop can end where it started, so from and to may be the same square.
+     */
+    public void makeMove(int from, int to, long captured, boolean crown) {
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        boolean king = (kings & fromBit) != 0;
+        if (blacksTurn) {
+            black = (black & ~fromBit) | toBit;
+            white &= ~captured;
+        }
+        else {
+            white = (white & ~fromBit) | toBit;
+            black &= ~captured;
+        }
+        kings &= ~(captured | fromBit);
+        if (king || crown)
+            kings |= toBit;
+        blacksTurn = !blacksTurn;
+    }
+
+    // Make move number i from a list of generated moves
+    public void makeMove(VariantMoveGenerator moves, int i) {
+        makeMove(moves.from[i], moves.to[i], moves.captured[i], moves.crown[i]);
+    }
+
+    /*
+    Read a position in PDN FEN format, for example "W:W31-50:B1-20" for the start of an
+    international game. Throws IllegalArgumentException if it can't be read.
+     */
+    public static VariantPosition parseFen(Variant variant, String fen) {
+        String[] parts = fen.trim().replace("\"", "").split(":");
+        if (parts.length != 3 || !(parts[0].equals("B") || parts[0].equals("W")))
+            throw new IllegalArgumentException("Bad FEN: " + fen);
+        VariantPosition pos = new VariantPosition(variant);
+        pos.black = 0;
+        pos.white = 0;
+        pos.kings = 0;
+        pos.blacksTurn = parts[0].equals("B");
+        for (int i = 1; i < 3; i++) {
+            char color = parts[i].charAt(0);
+            for (String item : parts[i].substring(1).split(",")) {
+                item = item.trim();
+                if (item.isEmpty())
+                    continue;
+                boolean king = item.startsWith("K");
+                if (king)
+                    item = item.substring(1);
+                String[] range = item.split("-");
+                int first = Integer.parseInt(range[0]);
+                int last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+                for (int sq = first; sq <= last; sq++) {
+                    if (sq < 1 || sq > variant.squares)
+                        throw new IllegalArgumentException("Bad square in FEN: " + fen);
+                    if (color == 'B')
+                        pos.black |= 1L << (sq - 1);
+                    else if (color == 'W')
+                        pos.white |= 1L << (sq - 1);
+                    else
+                        throw new IllegalArgumentException("Bad color in FEN: " + fen);
+                    if (king)
+                        pos.kings |= 1L << (sq - 1);
+                }
+            }
+        }
+        return pos;
+    }
+
+    // The position in PDN FEN format (see parseFen())
+    public String toFen() {
+        return (blacksTurn ? "B" : "W") + ":W" + fenSquares(white) + ":B" + fenSquares(black);
+    }
+
+    private String fenSquares(long pieces) {
+        StringBuilder sb = new StringBuilder();
+        for (int sq = 0; sq < variant.squares; sq++) {
+            if ((pieces & (1L << sq)) == 0)
+                continue;
+            if (sb.length() > 0)
+                sb.append(',');
+            if ((kings & (1L << sq)) != 0)
+                sb.append('K');
+            sb.append(sq + 1);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return variant + " " + toFen();
+    }
+}
@@ -6,6 +6,8 @@
     @author (Cameron Labelle)
     @version (April 2024)
  */
+package checkers;
+
 public class Vector2DInt {
     int x;
     int y;
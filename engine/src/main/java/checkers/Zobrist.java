@@ -0,0 +1,60 @@
+/*
+    A "static" class holding the random numbers for Zobrist hashing.
+    A position's hash is the XOR of one number for every (piece type, square) pair on the board,
+    plus one more when it is white's turn. Moving a piece only changes a few of those numbers,
+    so BitboardPosition keeps its hash up to date without recomputing it.
+
+    The numbers come from a fixed seed so hashes are the same every run (opening books and
+    archives store them in files).
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.util.SplittableRandom;
+
+public class Zobrist {
+    // Piece types, used as the first index into PIECES
+    final static int BLACK_MAN = 0;
+    final static int WHITE_MAN = 1;
+    final static int BLACK_KING = 2;
+    final static int WHITE_KING = 3;
+
+    final static long[][] PIECES = new long[4][32];
+    final static long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDC4EC3E25L);
+        for (long[] type : PIECES) {
+            for (int sq = 0; sq < 32; sq++) {
+                type[sq] = random.nextLong();
+            }
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    public static int type(boolean black, boolean king) {
+        return (black ? BLACK_MAN : WHITE_MAN) + (king ? 2 : 0);
+    }
+
+    // Compute a hash from scratch, only needed when a position is created
+    public static long hash(int black, int white, int kings, boolean blacksTurn) {
+        long hash = blacksTurn ? 0 : WHITE_TO_MOVE;
+        hash ^= hashMask(PIECES[BLACK_MAN], black & ~kings);
+        hash ^= hashMask(PIECES[WHITE_MAN], white & ~kings);
+        hash ^= hashMask(PIECES[BLACK_KING], black & kings);
+        hash ^= hashMask(PIECES[WHITE_KING], white & kings);
+        return hash;
+    }
+
+    // XOR of the numbers for every square in a mask
+    public static long hashMask(long[] keys, int mask) {
+        long hash = 0;
+        while (mask != 0) {
+            hash ^= keys[Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return hash;
+    }
+}
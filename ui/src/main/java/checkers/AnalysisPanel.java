@@ -0,0 +1,125 @@
+/*
+    A side panel that shows what the Analyzer thinks of the position on the Board:
+    how deep it has looked, the score, its best move (a hint) and the line of play it expects.
+
+    The panel checks the analyzer ten times a second with a Swing Timer and only changes its
+    labels when there's a new result, so however fast the search goes the event dispatch thread
+    gets at most ten small updates a second, and dragging a piece never stutters.
+
+    The Board tells the panel when the position changes (see Board.movePiece() and positionChanged()).
+    Analysis stops the moment a move is made, and only runs while it's a person's turn.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import javax.swing.BorderFactory;
+import javax.swing.BoxLayout;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+public class AnalysisPanel extends JPanel implements ActionListener {
+    private static final long serialVersionUID = 1L;
+
+    // How often the panel looks for new results
+    final static int REFRESH_MILLIS = 100;
+
+    final Analyzer analyzer;
+    final int manValue;
+    private final Timer timer;
+    private Analyzer.Result shown;
+    private boolean running = false;
+
+    JLabel depthLabel = new JLabel();
+    JLabel scoreLabel = new JLabel();
+    JLabel hintLabel = new JLabel();
+    JLabel speedLabel = new JLabel();
+    JTextArea lineText = new JTextArea(6, 16);
+
+    // Constructor; manValue is the evaluator's score for one man, used to show scores in men
+    public AnalysisPanel(Analyzer analyzer, int manValue) {
+        this.analyzer = analyzer;
+        this.manValue = manValue;
+        setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+        setBorder(BorderFactory.createTitledBorder("Analysis"));
+        setPreferredSize(new Dimension(200, 480));
+        lineText.setEditable(false);
+        lineText.setLineWrap(true);
+        lineText.setWrapStyleWord(true);
+        lineText.setOpaque(false);
+        lineText.setAlignmentX(LEFT_ALIGNMENT);
+        add(depthLabel);
+        add(scoreLabel);
+        add(hintLabel);
+        add(speedLabel);
+        add(new JLabel("Expected line:"));
+        add(lineText);
+        timer = new Timer(REFRESH_MILLIS, this);
+        showResult(null);
+    }
+
+    /*
+    Call on the event dispatch thread whenever the Board shows a new position.
+    Analysis runs if it's a person's turn (personsTurn) and stops otherwise.
+     */
+    public void positionChanged(GameState state, boolean personsTurn) {
+        if (!isShowing() || !personsTurn || state.isGameOver() || state.continuingSquare() >= 0) {
+            stopAnalysis();
+            return;
+        }
+        analyzer.start(state);
+        running = true;
+        timer.start();
+    }
+
+    // Stop analyzing straight away, call as soon as a move is made
+    public void stopAnalysis() {
+        analyzer.stop();
+        running = false;
+        timer.stop();
+        if (shown != null)
+            depthLabel.setText(depthLabel.getText() + " (stopped)");
+        shown = null;
+    }
+
+    // Timer tick: show the newest result if there is one
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        Analyzer.Result result = analyzer.latest();
+        if (running && result != shown)
+            showResult(result);
+    }
+
+    private void showResult(Analyzer.Result result) {
+        shown = result;
+        if (result == null) {
+            depthLabel.setText("Depth: -");
+            scoreLabel.setText("Score: -");
+            hintLabel.setText("Hint: -");
+            speedLabel.setText(" ");
+            lineText.setText("");
+            return;
+        }
+        depthLabel.setText("Depth: " + result.depth);
+        scoreLabel.setText("Score: " + scoreText(result));
+        hintLabel.setText("Hint: " + MoveCode.toString(result.bestMove));
+        speedLabel.setText(String.format(java.util.Locale.ROOT, "%,d nodes, %,d/s", result.nodes, result.nodesPerSecond()));
+        lineText.setText(result.line);
+    }
+
+    // The score from black's point of view, in men, or who wins in how many moves
+    private String scoreText(Analyzer.Result result) {
+        int score = result.state.blacksTurn() ? result.score : -result.score;
+        if (Math.abs(score) > SearchEngine.WIN_BOUND) {
+            int plies = SearchEngine.WIN - Math.abs(score);
+            return (score > 0 ? "Black" : "White") + " wins in " + (plies + 1) / 2;
+        }
+        return String.format(java.util.Locale.ROOT, "%+.2f", (double) score / manValue);
+    }
+}
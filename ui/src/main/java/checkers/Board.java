@@ -0,0 +1,687 @@
+/*
+    The board that the checkers game is played on. It is a view over a GameState: the rules and the
+    position live there, and every move the player makes is passed to GameState.apply(), which returns
+    the state the tiles are then drawn from. This class only handles drawing and player input/output,
+    plus the undo/redo history of states.
+    Extends JPanel so that we can use paintComponent() to draw onto the window.
+
+    The window is 640x480 pixels: a square 480 pixel board (8 tiles of 60) with 80 pixels of scenery on each side.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import javax.swing.JPanel;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.util.ArrayList;
+import java.awt.Color;
+
+// Intercept mouse motion and click events with interface implementation
+public class Board extends JPanel implements MouseListener, MouseMotionListener {
+    // Constant information. The rules engine (GameState) plays American checkers, the board's size comes from its Variant
+    final Variant variant = Variant.AMERICAN;
+    final int ROW_SIZE = variant.size;
+    final int COLUMN_SIZE = variant.size;
+    final int TILE_SIZE_PX = 60; // Window height divided by 8
+    // Window size (see header)
+    final int WIDTH = 640;
+    final int HEIGHT = 480;
+    final int PADDING = 80; // Pixels that will be on the left and right of the board.
+    boolean blacksTurn = true;
+    Tile[][] tiles;
+    // Data for piece being moved by player at current time.
+    boolean movingPiece = false;
+    CheckersPiece heldPiece;
+    Position2D movingPieceStart;
+    Position2D movingPieceCurrent;
+
+    // The rules engine state that the tiles are drawn from
+    GameState state;
+    // States at the start of each turn that can be gone back to, and states undone that can be redone.
+    // GameState can't change, so going back is just showing an older one.
+    ArrayList<GameState> undoStates = new ArrayList<GameState>();
+    ArrayList<GameState> redoStates = new ArrayList<GameState>();
+
+    // Passed from driver to update text for whose turn it is
+    JLabel gameInfo;
+
+    // Computer opponent, null when two people are playing
+    ComputerPlayer computer;
+    boolean computerIsBlack;
+    // Shows background analysis of the position, null when analysis is off
+    AnalysisPanel analysis;
+    // Keeps the game on disk so it can be resumed (see MoveJournal), null when there isn't one
+    MoveJournal journal;
+
+    // The moves of every piece, updated only near the squares each move changed (see MoveCache)
+    MoveCache moves = new MoveCache();
+    // Squares (see BitboardPosition) of pieces that CAN capture (capture rule). If not 0, one of them MUST be played.
+    int mustCapture;
+    // Squares a capture can end on
+    int captureTargets;
+
+    // The amount of pieces of each color remaining (copied from state).
+    int whiteRemaining = variant.menPerSide();
+    int blackRemaining = variant.menPerSide();
+    final Color skyBlue = new Color(82, 185, 217);
+    final Color treeGreen = new Color(33, 153, 0);
+    final Color cloudWhite = new Color(231, 242, 228);
+
+    /*
+    Drawing is done in layers that are kept between paints. The backdrop never changes, so it is
+    drawn once. The board layer (backdrop, tiles, pieces and captured pieces) is only redrawn after
+    something on the board changes, see refresh(). A paint then just copies the board layer and
+    draws the held piece on top, and dragging a piece only repaints the area around it.
+     */
+    BufferedImage backdropLayer;
+    BufferedImage boardLayer;
+    Graphics boardLayerGraphics; // Kept open so redrawing the layer doesn't create a new one each time
+    boolean boardLayerDirty = true;
+
+    // Paint time and allocation per frame, shown in a corner when showPaintStats is on (-Dcheckers.hud=true)
+    final PaintStats paintStats = new PaintStats();
+    boolean showPaintStats = Boolean.getBoolean("checkers.hud");
+    String paintStatsText = "";
+    final Font HUD_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 11);
+    final Color hudBackground = new Color(0, 0, 0, 150);
+    // Backdrop shapes
+    final int[] leftTreeX = {-50, 10, 60};
+    final int[] leftTreeY = {HEIGHT, 390, HEIGHT};
+    final int[] rightTreeX = {550, 590, 630};
+    final int[] rightTreeY = {500, 420, 500};
+
+    // Constructor, pass JLabel for whose turn it is from driver
+    public Board(JLabel gameInfo) {
+        this(gameInfo, new GameState());
+    }
+
+    // Constructor for showing an existing game state
+    public Board(JLabel gameInfo, GameState state) {
+        this.gameInfo = gameInfo;
+        this.state = state;
+        // Reset some instance data in the constructor to ensure proper resets.
+        movingPieceCurrent = new Position2D();
+        tiles = new Tile[ROW_SIZE][COLUMN_SIZE];
+        // Tile generator
+        int tileNumber = 0; // Every second tile should be playable
+        // Nested for loop to go through each tile in the 2D array
+        for (int v = 0; v < COLUMN_SIZE; v++) {
+            for (int h = 0; h < ROW_SIZE; h++) {
+                // (tileNumber % 2) != (v % 2) will create a grid of playable tiles
+                tiles[h][v] = new Tile((h * TILE_SIZE_PX + PADDING), (v * TILE_SIZE_PX), (tileNumber % 2) != (v % 2));
+                tileNumber++;
+            }
+        }
+        // Place pieces from the game state, then initialize all piece moves
+        syncTiles();
+        determineMoves();
+        dimNonCaptures(mustCapture != 0);
+        // Board size (640, 640)
+        setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        addMouseListener(this);
+        addMouseMotionListener(this);
+    }
+
+    // All graphics for the program in this method
+    // Call with refresh() after changing the board, or repaint() if only the held piece moved
+    // Nothing here allocates once the layers exist, see PaintStats
+    public void paintComponent(Graphics brush) {
+        paintStats.begin();
+        // Not calling super.paintComponent(), it copies the Graphics every time. The board layer covers
+        // the panel, so only the space around it (if the window was made bigger) needs clearing.
+        if (boardLayer == null || boardLayerDirty)
+            drawBoardLayer();
+        brush.drawImage(boardLayer, 0, 0, null);
+        if (getWidth() > WIDTH || getHeight() > HEIGHT) {
+            brush.setColor(getBackground());
+            brush.fillRect(WIDTH, 0, Math.max(0, getWidth() - WIDTH), getHeight());
+            brush.fillRect(0, HEIGHT, WIDTH, Math.max(0, getHeight() - HEIGHT));
+        }
+        // Draw piece held in the players "hand" (being moved by mouse)
+        if (movingPiece) {
+            heldPiece.drawCenteredAt(movingPieceCurrent.x, movingPieceCurrent.y, brush, PieceSprites.HIGHLIGHTED);
+        }
+        paintStats.end();
+        // Drawn after measuring, since building the text allocates
+        if (showPaintStats)
+            drawPaintStats(brush);
+    }
+
+    // Show the paint statistics in the top left corner, the text is updated every 30 frames
+    private void drawPaintStats(Graphics brush) {
+        if (paintStats.frames() % 30 == 1 || paintStatsText.isEmpty())
+            paintStatsText = paintStats.summary();
+        brush.setColor(hudBackground);
+        brush.fillRect(0, 0, WIDTH, 16);
+        brush.setColor(Color.WHITE);
+        brush.setFont(HUD_FONT);
+        brush.drawString(paintStatsText, 4, 12);
+    }
+
+    // Turn the paint statistics display on or off
+    public void setPaintStatsVisible(boolean visible) {
+        showPaintStats = visible;
+        refresh();
+    }
+
+    // Redraw the board layer after something on the board has changed
+    private void drawBoardLayer() {
+        if (backdropLayer == null) {
+            backdropLayer = createLayer();
+            Graphics g = backdropLayer.getGraphics();
+            drawBackdrop(g);
+            g.dispose();
+        }
+        if (boardLayer == null) {
+            boardLayer = createLayer();
+            boardLayerGraphics = boardLayer.getGraphics();
+        }
+        Graphics brush = boardLayerGraphics;
+        brush.drawImage(backdropLayer, 0, 0, null);
+        // Draw the grid of tiles by calling each tile's draw() method
+        for (Tile[] row : tiles) {
+            for (Tile t : row) {
+                t.draw(brush);
+            }
+        }
+        // Captured pieces down each side
+        for (int i = variant.menPerSide(); i > whiteRemaining; i--) {
+            PieceSprites.drawCentered(brush, false, false, PieceSprites.NORMAL, 40, i * 30);
+        }
+        for (int i = variant.menPerSide(); i > blackRemaining; i--) {
+            PieceSprites.drawCentered(brush, true, false, PieceSprites.NORMAL, WIDTH - 40, i * 30);
+        }
+        boardLayerDirty = false;
+    }
+
+    // An image the size of the window, in the screen's format when there is one so copying it is fast
+    private BufferedImage createLayer() {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config != null)
+            return config.createCompatibleImage(WIDTH, HEIGHT);
+        return new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    }
+
+    // Mark the board layer as out of date and repaint everything, call after changing any tile
+    public void refresh() {
+        boardLayerDirty = true;
+        repaint();
+    }
+
+    public void drawBackdrop(Graphics brush) {
+        brush.setColor(skyBlue);
+        brush.fillRect(0, 0, WIDTH, HEIGHT);
+
+        brush.setColor(treeGreen);
+        brush.fillPolygon(rightTreeX, rightTreeY, 3);
+        brush.fillPolygon(leftTreeX, leftTreeY, 3);
+
+        brush.setColor(cloudWhite);
+        brush.fillOval(10, 50, 50, 50);
+        brush.fillOval(25, 40, 50, 50);
+        brush.fillOval(55, 60, 50, 50);
+
+        brush.fillOval(560, 120, 50, 50);
+        brush.fillOval(585, 105, 50, 50);
+        brush.fillOval(575, 145, 50, 50);
+    }
+
+    /*
+        Intercept mouse press events thanks to MouseListener implementation
+        We use this instead of mouseClicked() to make the controls "drag and drop"
+     */
+    @Override
+    public void mousePressed(MouseEvent e) {
+        // Convert pixel position to tile space
+        int tileX = (e.getX() - PADDING) / TILE_SIZE_PX;
+        int tileY = e.getY() / TILE_SIZE_PX;
+        // Ignore clicks beside the board, while the computer is thinking, and once the game has finished
+        if (!(onBoard(tileX) && onBoard(tileY)) || state.isGameOver() || computersTurn())
+            return;
+        Tile targeted = tiles[tileX][tileY];
+        // Check if tile holds piece of same color as whose turn it is
+        if (targeted.holdsPiece && targeted.piece.black == blacksTurn) {
+            // Verify this does not violate capture rule
+            if (mustCapture == 0 || (mustCapture & (1 << squareOf(targeted))) != 0) {
+                // Move important piece info into instance memory
+                movingPiece = true;
+                heldPiece = tiles[tileX][tileY].takePiece();
+                movingPieceStart = new Position2D(tileX, tileY);
+                movingPieceCurrent.set(e.getX(), e.getY());
+                // Highlight all possible movements for this piece (including back to original tile)
+                tiles[tileX][tileY].setHighlight(true);
+                setHighlights(moves.targets(state, squareOf(targeted)), true);
+                // Apply the highlights
+                refresh();
+            }
+        }
+        // Give a popup dialog if the player tries to move a piece of the opposite colour.
+        else if (targeted.holdsPiece) {
+            if (blacksTurn)
+                showDialog("Illegal move!", "It is black's turn, they need to move a black piece.", JOptionPane.ERROR_MESSAGE);
+            else
+                showDialog("Illegal move!", "It is white's turn, they need to move a white piece.", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /*
+        Important method for handling user control
+        Intercept mouse release events only if the user is moving a piece (from mousePressed())
+        From here, determine if the move was legal, and take actions necessary
+     */
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        if (movingPiece) {
+            // Convert pixel position to tile space
+            int tileX = (e.getX() - PADDING) / TILE_SIZE_PX;
+            int tileY = e.getY() / TILE_SIZE_PX;
+            // Return early if mouse was released outside the window. (Assuming standard res)
+            if (!(onBoard(tileX) && onBoard(tileY))) {
+                tiles[movingPieceStart.x][movingPieceStart.y].setPiece(heldPiece);
+                movingPiece = false;
+                deHighlight();
+                refresh();
+                return;
+            }
+            Tile endTile = tiles[tileX][tileY];
+            // success: piece moved from mouse release (includes jumps)
+            // wasJump: piece jumped from mouse release
+            boolean success = false;
+            boolean wasJump = false;
+            // When a piece is picked up, all possible moves are highlighted, so undo it now.
+            tiles[movingPieceStart.x][movingPieceStart.y].setHighlight(false);
+            setHighlights(moves.targets(state, BitboardPosition.square(movingPieceStart.x, movingPieceStart.y)), false);
+            // Ask the rules engine if this is a legal move
+            long move = state.findMove(BitboardPosition.square(movingPieceStart.x, movingPieceStart.y), squareOf(endTile));
+            if (move != MoveCode.NONE) {
+                wasJump = movePiece(move);
+                success = true;
+            }
+            // Movement was not legal
+            if (!success) {
+                // Put the "held" piece back to where it started.
+                tiles[movingPieceStart.x][movingPieceStart.y].setPiece(heldPiece);
+                movingPiece = false;
+                // Have to put a repaint here because the popup will stop this thread of execution.
+                // With no repaint, it will look like the piece is staying in the illegal position.
+                refresh();
+                // Also, don't show the message if the player didn't move the piece at all
+                if (!endTile.equals(tiles[movingPieceStart.x][movingPieceStart.y]))
+                    showDialog("Illegal Move!", "That was not a legal movement for your piece!", JOptionPane.ERROR_MESSAGE);
+            }
+            // Movement was legal and it captured an enemy piece
+            else if (success && wasJump) {
+                // The engine keeps the turn if the piece that just captured can capture again
+                // Can capture
+                if (state.continuingSquare() >= 0) {
+                    determineMoves();
+                    // Indicate to user next move, don't switch turn yet
+                    dimNonCaptures(true);
+                }
+                // Cannot capture
+                else {
+                    switchTurn();
+                }
+                tiles[movingPieceStart.x][movingPieceStart.y].setHighlight(false);
+            }
+            // Successful movement, but not a capture : just switch turns
+            else if (success) {
+                switchTurn();
+            }
+            // Remove the piece the player was moving from instance memory, it now belongs to the tile it originated from
+            movingPiece = false;
+            heldPiece = null;
+            movingPieceStart = null;
+            refresh();
+        }
+    }
+
+    // Helper method to be called whenever a player ends their turn
+    public void switchTurn() {
+        // The game state has already passed the turn, see movePiece()
+        blacksTurn = state.blacksTurn();
+        Trace.turnSwitch(blacksTurn, blackRemaining, whiteRemaining);
+        determineMoves();
+
+        deHighlight();
+        // Create dimming effect to show only the pieces that can capture
+        dimNonCaptures(mustCapture != 0);
+        updateTurnLabel();
+        checkComputerTurn();
+        analyzePosition();
+    }
+
+    // Show whose turn it is in the label from the driver
+    public void updateTurnLabel() {
+        if (blacksTurn)
+            gameInfo.setText("Black's turn");
+        else
+            gameInfo.setText("White's turn");
+    }
+
+    // Set (or remove, with null) the computer opponent and which color it plays
+    public void setComputerPlayer(ComputerPlayer player, boolean playsBlack) {
+        if (computer != null && computer != player)
+            computer.shutdown();
+        computer = player;
+        computerIsBlack = playsBlack;
+        updateTurnLabel();
+        checkComputerTurn();
+    }
+
+    // Start a new game against a player on the network, once the server has found one (see NetworkPlayer)
+    public void startNetworkGame(NetworkPlayer player, boolean remoteIsBlack) {
+        if (computer != null && computer != player)
+            computer.shutdown();
+        computer = player;
+        computerIsBlack = remoteIsBlack;
+        undoStates.clear();
+        redoStates.clear();
+        state = new GameState();
+        journalJump();
+        showState();
+    }
+
+    // Return true if the computer is the one who has to move now
+    public boolean computersTurn() {
+        return computer != null && !state.isGameOver() && state.continuingSquare() < 0
+                && state.blacksTurn() == computerIsBlack;
+    }
+
+    // Turn analysis on (or off, with null) and start analyzing the position
+    public void setAnalysis(AnalysisPanel panel) {
+        if (analysis != null && panel != analysis)
+            analysis.stopAnalysis();
+        analysis = panel;
+        analyzePosition();
+    }
+
+    // Let the analysis panel know the position changed, it only analyzes while a person is to move
+    private void analyzePosition() {
+        if (analysis != null)
+            analysis.positionChanged(state, !computersTurn());
+    }
+
+    // Start the computer thinking if it's their turn
+    private void checkComputerTurn() {
+        if (computersTurn()) {
+            gameInfo.setText(computerIsBlack ? "Black is thinking..." : "White is thinking...");
+            computer.requestMove(this, state);
+        }
+        else if (computer != null && state.isGameOver())
+            computer.gameOver(this, state);
+    }
+
+    // Called by ComputerPlayer on the event dispatch thread once it has chosen a move
+    public void computerMoved(GameState searched, long move) {
+        // Ignore moves for a position that is no longer on the board
+        if (searched != state || move == MoveCode.NONE)
+            return;
+        movePiece(move);
+        switchTurn();
+    }
+
+    /*
+    Calculate all possible piece movements
+    Only the pieces near the squares that changed since last time are looked at again (see MoveCache),
+    then the capture rule is a couple of mask operations.
+     */
+    public void determineMoves() {
+        moves.update(state);
+        mustCapture = moves.mustCapture(state);
+        captureTargets = moves.captureTargets(state);
+        // Counting the moves isn't free, so only do it when something is listening
+        if (Trace.isEnabled() || Trace.isRecording())
+            Trace.moveGeneration(moves.count(state), mustCapture != 0);
+    }
+
+    // Turn the highlight on or off for every tile in a mask of squares
+    private void setHighlights(int squares, boolean on) {
+        while (squares != 0) {
+            tileAt(Integer.numberOfTrailingZeros(squares)).setHighlight(on);
+            squares &= squares - 1;
+        }
+    }
+
+    // Check if a 1D coordinate is on the board (from 0 to 7)
+    public boolean onBoard(int val) {
+        return val > -1 && val < ROW_SIZE;
+    }
+
+    // Conversions between tiles and bitboard square numbers (see BitboardPosition)
+    public Tile tileAt(int square) {
+        return tiles[BitboardPosition.column(square)][BitboardPosition.row(square)];
+    }
+
+    public int squareOf(Tile t) {
+        return BitboardPosition.square((t.x - PADDING) / TILE_SIZE_PX, t.y / TILE_SIZE_PX);
+    }
+
+    /*
+        Call this method to make a move, DON'T CALL Tile.setPiece() DIRECTLY
+        This method will apply the move to the game state, copy the new state onto the tiles
+        |->check if the game is over
+           |-> if yes, show end of game dialog
+        |->redraw graphics
+        Returns true if the move was a capture.
+     */
+    public boolean movePiece(long move) {
+        // The analysis is of the position before this move, stop it before anything else happens
+        if (analysis != null)
+            analysis.stopAnalysis();
+        // Remember the state at the start of each turn, and a new move means there's nothing to redo
+        if (state.continuingSquare() < 0) {
+            undoStates.add(state);
+            redoStates.clear();
+        }
+        state = state.apply(move);
+        if (journal != null)
+            journal.moved(move, state);
+        if (MoveCode.isCapture(move))
+            Trace.capture(MoveCode.from(move) + 1, MoveCode.to(move) + 1, Integer.bitCount(MoveCode.captured(move)));
+        syncTiles();
+        refresh();
+        if (state.result() == GameState.WHITE_WINS)
+            showDialog("Game over!", "White wins!", JOptionPane.INFORMATION_MESSAGE);
+        else if (state.result() == GameState.BLACK_WINS)
+            showDialog("Game over!", "Black wins!", JOptionPane.INFORMATION_MESSAGE);
+        return MoveCode.isCapture(move);
+    }
+
+    /*
+    Take back the last turn. Against the computer, its reply is taken back too,
+    so it's the player's turn again. Returns false if there is nothing to undo.
+     */
+    public boolean undo() {
+        if (undoStates.isEmpty() || movingPiece || (computer != null && !computer.allowsUndo()))
+            return false;
+        if (computer != null)
+            computer.cancel();
+        do {
+            redoStates.add(state);
+            state = undoStates.remove(undoStates.size() - 1);
+        } while (computersTurn() && !undoStates.isEmpty());
+        journalJump();
+        showState();
+        return true;
+    }
+
+    // Play a turn taken back by undo() again. Returns false if there is nothing to redo
+    public boolean redo() {
+        if (redoStates.isEmpty() || movingPiece || (computer != null && !computer.allowsUndo()))
+            return false;
+        if (computer != null)
+            computer.cancel();
+        do {
+            undoStates.add(state);
+            state = redoStates.remove(redoStates.size() - 1);
+        } while (computersTurn() && !redoStates.isEmpty());
+        journalJump();
+        showState();
+        return true;
+    }
+
+    // The game so far as a PDN game record (see PdnWriter), without any tags
+    public PdnGame toPdn() {
+        PdnGame game = new PdnGame();
+        game.start = undoStates.isEmpty() ? state : undoStates.get(0);
+        // Each turn is the full move that leads from one remembered state to the next
+        ArrayList<GameState> turns = new ArrayList<GameState>(undoStates);
+        if (state.continuingSquare() < 0)
+            turns.add(state);
+        for (int i = 1; i < turns.size(); i++) {
+            for (long move : turns.get(i - 1).fullMoves()) {
+                if (turns.get(i - 1).apply(move).equals(turns.get(i))) {
+                    game.addMove(move);
+                    break;
+                }
+            }
+        }
+        game.result = PdnGame.result(state);
+        return game;
+    }
+
+    // Show a game from a PDN record, its moves can be undone one turn at a time
+    public void loadGame(PdnGame game) {
+        if (movingPiece || (computer != null && !computer.allowsUndo()))
+            return;
+        if (computer != null)
+            computer.cancel();
+        undoStates.clear();
+        redoStates.clear();
+        state = game.start;
+        for (int i = 0; i < game.moveCount; i++) {
+            undoStates.add(state);
+            state = state.apply(game.moves[i]);
+        }
+        journalJump();
+        showState();
+    }
+
+    // Carry on the game recovered by a journal, the moves replayed from it can be undone
+    public void resume(MoveJournal recovered) {
+        undoStates.clear();
+        redoStates.clear();
+        state = recovered.start;
+        for (int i = 0; i < recovered.moveCount; i++) {
+            if (state.continuingSquare() < 0)
+                undoStates.add(state);
+            state = state.apply(recovered.moves[i]);
+        }
+        showState();
+    }
+
+    // The board jumped to a state no move leads to, the journal needs all of it
+    private void journalJump() {
+        if (journal != null)
+            journal.jumped(state);
+    }
+
+    // Show the current state after jumping to it with undo(), redo() or loadGame()
+    private void showState() {
+        syncTiles();
+        determineMoves();
+        deHighlight();
+        dimNonCaptures(mustCapture != 0);
+        updateTurnLabel();
+        checkComputerTurn();
+        analyzePosition();
+    }
+
+    // Update the tiles (and piece counts) to match the game state
+    public void syncTiles() {
+        for (int sq = 0; sq < variant.squares; sq++) {
+            Tile t = tileAt(sq);
+            boolean black = state.isBlack(sq);
+            if (!black && !state.isWhite(sq)) {
+                t.clearPiece();
+                continue;
+            }
+            // Keep the existing piece if it already matches, so its move list survives
+            if (!t.holdsPiece || t.piece.black != black || (t.piece.crowned && !state.isKing(sq)))
+                t.setPiece(new CheckersPiece(black));
+            if (state.isKing(sq) && !t.piece.crowned)
+                t.piece.crown();
+        }
+        blacksTurn = state.blacksTurn();
+        whiteRemaining = state.whiteCount();
+        blackRemaining = state.blackCount();
+    }
+
+    // Remove highlight from all tiles on the board
+    public void deHighlight() {
+        for (Tile[] ts : tiles) {
+            for (Tile t : ts) {
+                if (t.playable)
+                    t.setHighlight(false);
+            }
+        }
+    }
+
+    // Helper method to make showing dialog boxes easier
+    public void showDialog(String title, String msg, int type) {
+        JOptionPane.showMessageDialog(
+                null,
+                msg,
+                title,
+                type
+        );
+    }
+
+    // Apply visual dim effect to tiles that are not 'involved in capture' (see involvedInCapture())
+    public void dimNonCaptures(boolean flag) {
+        for (Tile[] ts : tiles) {
+            for (Tile t : ts) {
+                if (!involvedInCapture(t))
+                    t.dimmed = flag;
+                else
+                    t.dimmed = !flag;
+            }
+        }
+        refresh();
+    }
+
+    // Return true if this tile holds a piece that can capture another piece
+    // or if this tile can be the end location of a capture.
+    public boolean involvedInCapture(Tile t) {
+        return t.playable && ((mustCapture | captureTargets) & (1 << squareOf(t))) != 0;
+    }
+
+    // Source for the piece dragging visual effect, intercept mouse dragging with MouseMotionListener implementation
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        if (!movingPiece)
+            return;
+        // Only repaint where the piece was and where it is now, the board underneath is cached
+        int oldX = movingPieceCurrent.x;
+        int oldY = movingPieceCurrent.y;
+        movingPieceCurrent.set(e.getX(), e.getY());
+        int left = Math.min(oldX, e.getX()) - TILE_SIZE_PX;
+        int top = Math.min(oldY, e.getY()) - TILE_SIZE_PX;
+        int right = Math.max(oldX, e.getX()) + TILE_SIZE_PX;
+        int bottom = Math.max(oldY, e.getY()) + TILE_SIZE_PX;
+        repaint(left, top, right - left, bottom - top);
+    }
+
+    @Override
+    public void mouseEntered(MouseEvent e) {}
+    @Override
+    public void mouseExited(MouseEvent e) {}
+    @Override
+    public void mouseClicked(MouseEvent e) {}
+
+    @Override
+    public void mouseMoved(MouseEvent e) {
+
+    }
+}
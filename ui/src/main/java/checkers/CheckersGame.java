@@ -0,0 +1,325 @@
+/*
+    The driver class for the checkers game. Manages the window, which includes a Board,
+    reset, undo and redo JButtons and an analysis panel that can be shown beside the board.
+    Implements ActionListener in order to give functionality to the buttons
+
+    @author (Cameron Labelle)
+    @version (April 2024)
+ */
+package checkers;
+
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.JLabel;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+public class CheckersGame implements ActionListener {
+
+    // Window widgets
+    JFrame frame;
+    JPanel buttonPanel;
+    JButton resetButton;
+    JButton undoButton;
+    JButton redoButton;
+    JButton saveButton;
+    JButton loadButton;
+    JButton traceButton;
+    JCheckBox analyzeBox;
+    AnalysisPanel analysisPanel;
+    JComboBox<String> opponentChoice;
+    JComboBox<String> thinkTimeChoice;
+    JLabel gameInfo;
+    Board gameBoard;
+
+    // Options for the opponent and think time drop downs, indexes matter (see applyOpponent())
+    final String[] OPPONENTS = {"Two players", "Computer plays white", "Computer plays black", "Network game"};
+    final String[] THINK_TIMES = {"1 second", "3 seconds", "10 seconds"};
+    final long[] THINK_MILLIS = {1000, 3000, 10000};
+    // Threads the computer searches with, set with -Dcheckers.threads=N (defaults to every core)
+    final int SEARCH_THREADS = Integer.getInteger("checkers.threads", Runtime.getRuntime().availableProcessors());
+    // Server for network games, -Dcheckers.server=host:port (see GameServer)
+    final String SERVER = System.getProperty("checkers.server", "localhost:" + GameProtocol.DEFAULT_PORT);
+    // The computer's search, -Dcheckers.engine=mcts for Monte Carlo tree search (see MctsSearch)
+    final boolean USE_MCTS = "mcts".equals(System.getProperty("checkers.engine"));
+    // Endgame tablebase for the computer, loaded from -Dcheckers.tablebase=<directory> (see EndgameTablebase)
+    EndgameTablebase tablebase;
+    // Opening book for the computer, loaded from -Dcheckers.book=<file> (see OpeningBook)
+    OpeningBook book;
+    // How the computer scores positions, a network from -Dcheckers.nnue=<file> (see NnueEvaluator) or the default weights
+    Evaluator evaluator = new Evaluator();
+    // Shared by the computer player and the analysis, so analyzing on the player's time helps the computer
+    TranspositionTable table = new TranspositionTable(32);
+    Analyzer analyzer;
+    // Keeps the game on disk so it's resumed next time, in -Dcheckers.journal=<file> ("none" to turn it off)
+    MoveJournal journal;
+
+    public CheckersGame() {
+        // Initialize window
+        frame = new JFrame();
+        frame.setTitle("Game of Checkers - Cameron");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        loadTablebase();
+        loadBook();
+        loadNetwork();
+        // Draw the piece pictures now rather than during the first paint
+        PieceSprites.load();
+
+        // Initialize widgets
+        buttonPanel = new JPanel();
+        resetButton = new JButton("Reset");
+        resetButton.addActionListener(this);
+        undoButton = new JButton("Undo");
+        undoButton.addActionListener(this);
+        redoButton = new JButton("Redo");
+        redoButton.addActionListener(this);
+        saveButton = new JButton("Save");
+        saveButton.addActionListener(this);
+        loadButton = new JButton("Load");
+        loadButton.addActionListener(this);
+        traceButton = new JButton("Dump trace");
+        traceButton.addActionListener(this);
+        opponentChoice = new JComboBox<String>(OPPONENTS);
+        opponentChoice.addActionListener(this);
+        thinkTimeChoice = new JComboBox<String>(THINK_TIMES);
+        thinkTimeChoice.addActionListener(this);
+        analyzeBox = new JCheckBox("Analyze");
+        analyzeBox.addActionListener(this);
+        gameInfo = new JLabel("Black's turn");
+        gameBoard = new Board(gameInfo);
+        openJournal();
+        analyzer = new Analyzer(evaluator, table);
+        analyzer.setTablebase(tablebase);
+        analysisPanel = new AnalysisPanel(analyzer, evaluator.manValue);
+        analysisPanel.setVisible(false);
+
+        // Add widgets to JPanels, then JPanels to JFrame
+        buttonPanel.add(resetButton);
+        buttonPanel.add(undoButton);
+        buttonPanel.add(redoButton);
+        buttonPanel.add(saveButton);
+        buttonPanel.add(loadButton);
+        buttonPanel.add(opponentChoice);
+        buttonPanel.add(thinkTimeChoice);
+        buttonPanel.add(analyzeBox);
+        // Only shown when tracing is on (-Dcheckers.trace=true), see Trace
+        if (Trace.isEnabled())
+            buttonPanel.add(traceButton);
+        buttonPanel.add(gameInfo);
+
+        frame.getContentPane().add(gameBoard, BorderLayout.NORTH);
+        frame.getContentPane().add(buttonPanel, BorderLayout.SOUTH);
+        frame.getContentPane().add(analysisPanel, BorderLayout.EAST);
+        frame.pack();
+        frame.setVisible(true);
+    }
+
+    // Give the board the computer opponent chosen in the drop downs (if any)
+    public void applyOpponent() {
+        int choice = opponentChoice.getSelectedIndex();
+        if (choice == 0) {
+            gameBoard.setComputerPlayer(null, false);
+            return;
+        }
+        if (choice == 3) {
+            // The board holds the player until the server has found an opponent, then starts a new game against them
+            int colon = SERVER.lastIndexOf(':');
+            NetworkPlayer player = new NetworkPlayer(SERVER.substring(0, colon), Integer.parseInt(SERVER.substring(colon + 1)));
+            gameBoard.setComputerPlayer(player, true);
+            gameInfo.setText("Waiting for an opponent...");
+            player.connect(gameBoard);
+            return;
+        }
+        long millis = THINK_MILLIS[thinkTimeChoice.getSelectedIndex()];
+        ComputerPlayer player = new ComputerPlayer(0, millis, 0, SEARCH_THREADS);
+        player.tablebase = tablebase;
+        player.book = book;
+        player.table = table;
+        player.useMcts = USE_MCTS;
+        player.evaluator = evaluator;
+        gameBoard.setComputerPlayer(player, choice == 2);
+    }
+
+    // Ask for a file and write the game in it as PDN (see PdnWriter)
+    public void saveGame() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("PDN games", "pdn"));
+        if (chooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION)
+            return;
+        File file = chooser.getSelectedFile();
+        if (!file.getName().contains("."))
+            file = new File(file.getPath() + ".pdn");
+        PdnGame game = gameBoard.toPdn();
+        int opponent = opponentChoice.getSelectedIndex();
+        game.setTag("Event", "Casual game");
+        game.setTag("Date", new java.text.SimpleDateFormat("yyyy.MM.dd").format(new java.util.Date()));
+        game.setTag("Black", opponent == 2 ? "Computer" : "Player");
+        game.setTag("White", opponent == 1 ? "Computer" : "Player");
+        game.setTag("Result", game.result);
+        try (Writer out = new BufferedWriter(new FileWriter(file))) {
+            new PdnWriter(out).write(game);
+        }
+        catch (IOException ex) {
+            gameBoard.showDialog("Save failed", "Could not save the game: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Ask for a PDN file and show its first game on the board
+    public void loadGame() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("PDN games", "pdn"));
+        if (chooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION)
+            return;
+        PdnGame game = new PdnGame();
+        try (PdnReader reader = PdnReader.open(chooser.getSelectedFile())) {
+            if (!reader.next(game)) {
+                gameBoard.showDialog("Load failed", "There are no games in that file.", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        catch (IOException ex) {
+            gameBoard.showDialog("Load failed", "Could not read the file: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        gameBoard.loadGame(game);
+        // Show the moves up to the problem, so the player can see where it went wrong
+        if (!game.isValid())
+            gameBoard.showDialog("Load failed", game.error, JOptionPane.WARNING_MESSAGE);
+    }
+
+    // Open the journal and carry on the game in it, the board just starts a new game if that fails
+    private void openJournal() {
+        String file = System.getProperty("checkers.journal", new File(System.getProperty("user.home"), ".checkers-journal").getPath());
+        if (file.equals("none"))
+            return;
+        try {
+            journal = new MoveJournal(new File(file));
+        }
+        catch (IOException e) {
+            System.out.println("Could not open the journal, the game won't be kept: " + e.getMessage());
+            return;
+        }
+        if (journal.damaged)
+            System.out.println("The end of the journal was damaged, resuming from before it");
+        gameBoard.resume(journal);
+        gameBoard.journal = journal;
+        // Write what's queued before the program exits
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::close));
+    }
+
+    // Map the opening book if a file was given
+    private void loadBook() {
+        String file = System.getProperty("checkers.book");
+        if (file == null)
+            return;
+        try {
+            book = new OpeningBook(new File(file));
+            System.out.println("Loaded " + book.size() + " opening book moves from " + file);
+        }
+        catch (IOException e) {
+            System.out.println("Could not load opening book: " + e.getMessage());
+        }
+    }
+
+    // Load the evaluation network if a file was given, the computer uses the default weights otherwise
+    private void loadNetwork() {
+        String file = System.getProperty("checkers.nnue");
+        if (file == null)
+            return;
+        try {
+            NnueEvaluator network = NnueEvaluator.load(file);
+            evaluator = network;
+            System.out.println("Loaded evaluation network from " + file + " (" + network.net.kernel.name() + " kernel)");
+        }
+        catch (IOException e) {
+            System.out.println("Could not load evaluation network: " + e.getMessage());
+        }
+    }
+
+    // Map the tablebase files if a directory was given, the computer just plays without one otherwise
+    private void loadTablebase() {
+        String dir = System.getProperty("checkers.tablebase");
+        if (dir == null)
+            return;
+        tablebase = new EndgameTablebase(new File(dir), Integer.getInteger("checkers.tablebase.pieces", 4));
+        try {
+            System.out.println("Loaded " + tablebase.load() + " tablebase slices from " + dir);
+        }
+        catch (IOException e) {
+            System.out.println("Could not load tablebase: " + e.getMessage());
+            tablebase = null;
+        }
+    }
+
+    // Start the program from cmd line
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // Host network games instead of opening a window
+        if (args.length > 0 && args[0].equals("--server")) {
+            GameServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        new CheckersGame();
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        // Handle button actions
+        if (e.getSource() == resetButton) {
+            // Reset game by initializing a new Board instance, add that to frame.
+            gameInfo.setText("Black's turn");
+            // Stop the old board's computer player from thinking
+            gameBoard.setComputerPlayer(null, false);
+            gameBoard.journal = null;
+            frame.getContentPane().remove(gameBoard);
+            gameBoard = new Board(gameInfo);
+            // The journal starts over with the new game
+            if (journal != null) {
+                journal.newGame(gameBoard.state);
+                gameBoard.journal = journal;
+            }
+            frame.getContentPane().add(gameBoard, BorderLayout.NORTH);
+            applyOpponent();
+            gameBoard.setAnalysis(analyzeBox.isSelected() ? analysisPanel : null);
+            // Update window
+            frame.revalidate();
+        }
+        else if (e.getSource() == undoButton) {
+            gameBoard.undo();
+        }
+        else if (e.getSource() == redoButton) {
+            gameBoard.redo();
+        }
+        else if (e.getSource() == saveButton) {
+            saveGame();
+        }
+        else if (e.getSource() == loadButton) {
+            loadGame();
+        }
+        else if (e.getSource() == opponentChoice || e.getSource() == thinkTimeChoice) {
+            applyOpponent();
+        }
+        else if (e.getSource() == analyzeBox) {
+            // Show or hide the analysis beside the board, the window grows to fit it
+            analysisPanel.setVisible(analyzeBox.isSelected());
+            frame.pack();
+            gameBoard.setAnalysis(analyzeBox.isSelected() ? analysisPanel : null);
+        }
+        else if (e.getSource() == traceButton) {
+            // Debug; print the most recent trace events to the console
+            Trace.dump(System.out);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+    This class represents a single checkers game piece.
+    Store its graphical representation as a unicode character, which is drawn from PieceSprites
+
+
+    @author (Cameron Labelle)
+    @version (April 2024)
+ */
+package checkers;
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+public class CheckersPiece{
+    final static char CHECKERS_MAN = '\u26C2'; // \u26C2
+    final static char CHECKERS_KING = '\u26C3'; // \u26C3
+    char symbol = CHECKERS_MAN;
+    Color color;
+    boolean crowned = false;
+    boolean black;
+
+    // Constructor; pass true to make piece black, false to be white.
+    public CheckersPiece(boolean black) {
+        this.black = black;
+        if (black)
+            color = Color.BLACK;
+        else
+            color = Color.WHITE;
+    }
+
+    // Call this method to make the piece a king when it reaches the other side of the board
+    public void crown() {
+        crowned = true;
+        symbol = CHECKERS_KING;
+    }
+
+    // Draw the checkers piece in the tile at an x, y position.
+    public void draw(int x, int y, Graphics g) {
+        draw(x, y, g, PieceSprites.NORMAL);
+    }
+
+    // Draw the piece in one of the sprite variants (see PieceSprites)
+    public void draw(int x, int y, Graphics g, int variant) {
+        PieceSprites.draw(g, black, crowned, variant, x, y);
+    }
+
+    // Draw the piece centered at an x, y position (used for piece dragging effect)
+    public void drawCenteredAt(int x, int y, Graphics g) {
+        drawCenteredAt(x, y, g, PieceSprites.NORMAL);
+    }
+
+    public void drawCenteredAt(int x, int y, Graphics g, int variant) {
+        PieceSprites.drawCentered(g, black, crowned, variant, x, y);
+    }
+}
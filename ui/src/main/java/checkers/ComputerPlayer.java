@@ -0,0 +1,148 @@
+/*
+    A computer opponent for the Board. Searches for a move with a ParallelSearch (or a MctsSearch
+    when useMcts is set) from a background thread (SwingWorker), so the window keeps painting while it thinks.
+    The chosen move is handed back to the Board on the event dispatch thread.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import javax.swing.SwingWorker;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ComputerPlayer {
+    // Search budget for each move, a zero means no limit of that kind
+    int maxDepth;
+    long maxMillis;
+    long maxNodes;
+    int threads;
+
+    // Kept between moves, so positions searched last turn don't have to be searched again.
+    // Made by the first search unless one is given (CheckersGame shares its own)
+    TranspositionTable table;
+    // Optional, used to play endgames perfectly
+    EndgameTablebase tablebase;
+    // Optional, book moves are played instantly without searching
+    OpeningBook book;
+    Random random = new Random();
+    // How positions are scored, the default weights unless one is given. Made with the search, so a
+    // player that never searches (NetworkPlayer) doesn't make one
+    Evaluator evaluator;
+    // Search with Monte Carlo tree search instead of alpha-beta
+    boolean useMcts = false;
+
+    private SwingWorker<Long, Void> worker;
+    // Stops the search for the current request, each request has its own so a cancel can't be lost
+    private AtomicBoolean stopFlag;
+    private ParallelSearch search;
+    private MctsSearch mcts;
+
+    // Constructor; pass the search budget per move (see SearchEngine.setLimits()) and number of threads
+    public ComputerPlayer(int maxDepth, long maxMillis, long maxNodes, int threads) {
+        this.maxDepth = maxDepth;
+        this.maxMillis = maxMillis;
+        this.maxNodes = maxNodes;
+        this.threads = threads;
+    }
+
+    // The search is created the first time it's needed, since it starts a thread pool
+    private ParallelSearch search() {
+        if (search == null) {
+            if (table == null)
+                table = new TranspositionTable(32);
+            search = new ParallelSearch(evaluator(), threads, table);
+            search.setLimits(maxDepth, maxMillis, maxNodes);
+            search.setTablebase(tablebase);
+        }
+        return search;
+    }
+
+    // Also kept between moves, so the tree under the move played is searched further next turn
+    private MctsSearch mcts() {
+        if (mcts == null)
+            mcts = new MctsSearch(evaluator(), threads);
+        return mcts;
+    }
+
+    private Evaluator evaluator() {
+        if (evaluator == null)
+            evaluator = new Evaluator();
+        return evaluator;
+    }
+
+    /*
+    Start thinking about a position in the background.
+    Once a move is found board.computerMoved() is called on the event dispatch thread.
+     */
+    public void requestMove(final Board board, final GameState state) {
+        cancel();
+        final ParallelSearch searcher = useMcts ? null : search();
+        final MctsSearch treeSearcher = useMcts ? mcts() : null;
+        final AtomicBoolean stop = new AtomicBoolean();
+        stopFlag = stop;
+        worker = new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() {
+                // A cancelled search that hasn't started yet shouldn't hold up the next one
+                if (isCancelled() || stop.get())
+                    return MoveCode.NONE;
+                if (book != null) {
+                    long move = book.pickMove(state, random);
+                    if (move != MoveCode.NONE)
+                        return move;
+                }
+                if (treeSearcher != null)
+                    return treeSearcher.search(state, maxMillis, maxNodes, stop);
+                return searcher.search(state.toPosition(), stop);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled())
+                    return;
+                try {
+                    board.computerMoved(state, get());
+                }
+                catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    // Stop thinking and throw away the result
+    public void cancel() {
+        if (worker != null) {
+            worker.cancel(false);
+            stopFlag.set(true);
+            worker = null;
+        }
+    }
+
+    // Stop thinking and release the search threads, call when this player is no longer needed
+    public void shutdown() {
+        cancel();
+        if (search != null)
+            search.shutdown();
+        search = null;
+        if (mcts != null)
+            mcts.shutdown();
+        mcts = null;
+    }
+
+    // Called by the board when a move ends the game, so nothing is left to think about
+    public void gameOver(Board board, GameState state) {}
+
+    // Whether the board may take back moves played against this player
+    public boolean allowsUndo() {
+        return true;
+    }
+
+    public boolean isThinking() {
+        return worker != null && !worker.isDone();
+    }
+}
@@ -0,0 +1,250 @@
+/*
+    An opponent playing from somewhere else, through a GameServer (see GameProtocol).
+
+    To the Board it looks like a ComputerPlayer that takes a while to think: when it's the remote
+    player's turn, requestMove() sends the move the local player just made, and the reply arrives
+    through board.computerMoved() like a computer's move would. Undo and redo are turned off,
+    since the move has already been sent.
+
+    Connecting and sending happen on a thread of their own and a second thread waits for messages,
+    so the event dispatch thread never waits on the network.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+public class NetworkPlayer extends ComputerPlayer {
+    final String host;
+    final int port;
+
+    private SocketChannel channel;
+    private final ExecutorService sender;
+    private Board board;
+
+    // Used on the event dispatch thread only: the position both sides agree on, and the one the board waits in
+    private GameState agreed;
+    private GameState waiting;
+    private volatile boolean closed = false;
+
+    // Constructor; the server to play through, see connect()
+    public NetworkPlayer(String host, int port) {
+        super(0, 0, 0, 1);
+        this.host = host;
+        this.port = port;
+        sender = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Network");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /*
+    Connect and ask for a game. Once an opponent is found the board starts a new game against
+    this player (see Board.startNetworkGame()), on the event dispatch thread.
+     */
+    public void connect(final Board board) {
+        this.board = board;
+        sender.execute(() -> {
+            try {
+                channel = SocketChannel.open(new InetSocketAddress(host, port));
+                channel.socket().setTcpNoDelay(true);
+                write(ByteBuffer.wrap(new byte[]{GameProtocol.JOIN}));
+                Thread reader = new Thread(this::readMessages, "Network reader");
+                reader.setDaemon(true);
+                reader.start();
+            }
+            catch (IOException e) {
+                failed("Could not connect to " + host + ":" + port + " (" + e.getMessage() + ")");
+            }
+        });
+    }
+
+    // Called when it's the remote player's turn: send the local player's move, if they made one
+    @Override
+    public void requestMove(Board board, GameState state) {
+        waiting = state;
+        sendMove(state);
+    }
+
+    // The local player's last move may also have won the game, the server needs to see it too
+    @Override
+    public void gameOver(Board board, GameState state) {
+        sendMove(state);
+    }
+
+    // Send the move that leads from the agreed position to the board's, if there is one
+    private void sendMove(GameState state) {
+        if (agreed == null || state.equals(agreed))
+            return;
+        long move = fullMove(agreed, state);
+        agreed = state;
+        if (move == MoveCode.NONE) {
+            failed("The board and the game on the server don't match");
+            return;
+        }
+        final ByteBuffer message = ByteBuffer.allocate(GameProtocol.MAX_MESSAGE);
+        GameProtocol.putMove(message, GameProtocol.MOVE, move);
+        message.flip();
+        sender.execute(() -> {
+            try {
+                write(message);
+            }
+            catch (IOException e) {
+                failed("Lost the connection to the server (" + e.getMessage() + ")");
+            }
+        });
+    }
+
+    // The complete move that leads from one state to the other, MoveCode.NONE if there isn't one
+    private static long fullMove(GameState from, GameState to) {
+        for (long move : from.fullMoves()) {
+            if (from.apply(move).equals(to))
+                return move;
+        }
+        return MoveCode.NONE;
+    }
+
+    private void write(ByteBuffer message) throws IOException {
+        while (message.hasRemaining())
+            channel.write(message);
+    }
+
+    // Runs on the reader thread until the connection closes
+    private void readMessages() {
+        ByteBuffer in = ByteBuffer.allocate(256);
+        long[] legal = new long[MoveCode.MAX_MOVES];
+        // The game as the server tells it, kept on this thread
+        GameState served = null;
+        boolean remoteBlack = false;
+        try {
+            while (!closed) {
+                if (channel.read(in) < 0)
+                    throw new IOException("the server closed the connection");
+                in.flip();
+                while (in.hasRemaining()) {
+                    byte type = in.get(in.position());
+                    int size = GameProtocol.payloadSize(type);
+                    if (size < 0)
+                        throw new IOException("unknown message " + type);
+                    if (in.remaining() < 1 + size)
+                        break;
+                    in.get();
+                    switch (type) {
+                        case GameProtocol.START:
+                            remoteBlack = in.get() == 0;
+                            in.getInt();
+                            served = new GameState();
+                            final boolean black = remoteBlack;
+                            SwingUtilities.invokeLater(() -> started(black));
+                            break;
+                        case GameProtocol.MOVED:
+                            if (served == null)
+                                throw new IOException("move before the game started");
+                            boolean remoteMove = served.blacksTurn() == remoteBlack;
+                            final long move = GameProtocol.readMove(in, served, legal);
+                            if (move == MoveCode.NONE)
+                                throw new IOException("the server sent a move that isn't legal");
+                            served = served.apply(move);
+                            // The server also confirms our own moves, those are already on the board
+                            if (remoteMove)
+                                SwingUtilities.invokeLater(() -> remoteMoved(move));
+                            break;
+                        case GameProtocol.ILLEGAL:
+                            failed("The server refused the move");
+                            break;
+                        case GameProtocol.END:
+                            in.get();
+                            final byte reason = in.get();
+                            SwingUtilities.invokeLater(() -> ended(reason));
+                            break;
+                        default:
+                            throw new IOException("unexpected message " + type);
+                    }
+                }
+                in.compact();
+            }
+        }
+        catch (IOException e) {
+            if (!closed)
+                failed("Lost the connection to the server (" + e.getMessage() + ")");
+        }
+    }
+
+    // On the event dispatch thread: an opponent was found
+    private void started(boolean remoteBlack) {
+        if (closed)
+            return;
+        agreed = new GameState();
+        waiting = null;
+        board.startNetworkGame(this, remoteBlack);
+    }
+
+    // On the event dispatch thread: the remote player moved
+    private void remoteMoved(long move) {
+        GameState searched = waiting;
+        if (closed || searched == null)
+            return;
+        waiting = null;
+        agreed = searched.apply(move);
+        board.computerMoved(searched, move);
+    }
+
+    // On the event dispatch thread: the game is over. The board already shows a normal win
+    private void ended(byte reason) {
+        if (closed || reason == GameProtocol.END_RESULT)
+            return;
+        String text = reason == GameProtocol.END_RESIGNED ? "Your opponent resigned."
+                : reason == GameProtocol.END_LEFT ? "Your opponent left the game." : "The game is a draw (move limit).";
+        board.showDialog("Game over!", text, JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void failed(final String message) {
+        if (closed)
+            return;
+        SwingUtilities.invokeLater(() -> {
+            if (board != null)
+                board.showDialog("Network game", message, JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    // Moves already sent can't be taken back
+    @Override
+    public boolean allowsUndo() {
+        return false;
+    }
+
+    // Nothing to stop, the remote player is thinking for themselves
+    @Override
+    public void cancel() {}
+
+    // Leave the game, closing the connection makes the server give it to the opponent
+    @Override
+    public void shutdown() {
+        closed = true;
+        sender.execute(() -> {
+            try {
+                if (channel != null)
+                    channel.close();
+            }
+            catch (IOException e) {
+                // Closing anyway
+            }
+        });
+        sender.shutdown();
+    }
+
+    @Override
+    public boolean isThinking() {
+        return waiting != null;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+    Measures how long each paint of the Board takes and how many bytes it allocates,
+    over the most recent frames, so we can check that painting stays fast and creates no garbage.
+
+    Allocations are read from the JVM's per-thread allocation counter
+    (com.sun.management.ThreadMXBean). JVMs without one report -1 bytes.
+    Nothing here allocates after construction, so measuring doesn't change what is measured.
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+public class PaintStats {
+    // Number of recent frames kept
+    final static int FRAMES = 256;
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final long[] frameNanos = new long[FRAMES];
+    private final long[] frameBytes = new long[FRAMES];
+    private final long[] sorted = new long[FRAMES];
+    private int next = 0;
+    private long frames = 0;
+    private long startNanos;
+    private long startBytes;
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) bean;
+            if (counter.isThreadAllocatedMemorySupported()) {
+                counter.setThreadAllocatedMemoryEnabled(true);
+                return counter;
+            }
+        }
+        return null;
+    }
+
+    // Bytes allocated so far by the calling thread, or -1 if the JVM can't tell
+    public static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // Call at the start of a paint
+    public void begin() {
+        startBytes = allocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    // Call at the end of a paint, on the same thread as begin()
+    public void end() {
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+        frameNanos[next] = nanos;
+        frameBytes[next] = bytes;
+        next = (next + 1) % FRAMES;
+        frames++;
+    }
+
+    // Total frames measured
+    public long frames() {
+        return frames;
+    }
+
+    private int kept() {
+        return (int) Math.min(frames, FRAMES);
+    }
+
+    // Paint time in microseconds that the given percent of recent frames were at or under, e.g. 50, 95, 99
+    public synchronized double percentileMicros(double percent) {
+        int n = kept();
+        if (n == 0)
+            return 0;
+        System.arraycopy(frameNanos, 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+        int at = (int) Math.ceil(percent / 100 * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, at))] / 1000.0;
+    }
+
+    // Average bytes allocated per recent frame, -1 if unknown
+    public double averageBytes() {
+        int n = kept();
+        if (n == 0 || THREADS == null)
+            return THREADS == null ? -1 : 0;
+        long total = 0;
+        for (int i = 0; i < n; i++)
+            total += frameBytes[i];
+        return (double) total / n;
+    }
+
+    // Most bytes allocated by one recent frame, -1 if unknown
+    public long maxBytes() {
+        if (THREADS == null)
+            return -1;
+        long max = 0;
+        for (int i = 0; i < kept(); i++)
+            max = Math.max(max, frameBytes[i]);
+        return max;
+    }
+
+    // One line summary, this allocates so don't call it from inside a measured paint
+    public String summary() {
+        return String.format(java.util.Locale.ROOT, "paint p50 %.0fus p95 %.0fus p99 %.0fus, %.0f B/frame (max %d), %d frames",
+                percentileMicros(50), percentileMicros(95), percentileMicros(99), averageBytes(), maxBytes(), frames);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+    Pictures of every kind of piece, drawn once into one shared image (a sprite atlas)
+    so that painting a piece is a single image copy instead of building a font and
+    measuring text each time.
+
+    There is a sprite for a man and a king of each color, each in three variants:
+    normal, highlighted (the piece being held by the player) and dimmed (a piece that
+    can't move because another piece has to capture).
+    The atlas is one row of TILE_SIZE x TILE_SIZE cells, see index().
+
+    @author (Cameron Labelle)
+    @version (October 2026)
+ */
+package checkers;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+public class PieceSprites {
+    final static int TILE_SIZE = 60;
+    final static int PIECE_SIZE = 50;
+    // Variants of each sprite
+    final static int NORMAL = 0;
+    final static int HIGHLIGHTED = 1;
+    final static int DIMMED = 2;
+    final static int VARIANTS = 3;
+
+    private static BufferedImage atlas;
+
+    // Render the atlas if it hasn't been yet, call at startup so the first paint doesn't have to
+    public static synchronized BufferedImage load() {
+        if (atlas == null)
+            atlas = render();
+        return atlas;
+    }
+
+    // Cell of a sprite in the atlas
+    static int index(boolean black, boolean king, int variant) {
+        return ((black ? 2 : 0) + (king ? 1 : 0)) * VARIANTS + variant;
+    }
+
+    // Draw a piece in the tile whose top left corner is at x, y
+    public static void draw(Graphics g, boolean black, boolean king, int variant, int x, int y) {
+        BufferedImage sprites = atlas == null ? load() : atlas;
+        int sx = index(black, king, variant) * TILE_SIZE;
+        g.drawImage(sprites, x, y, x + TILE_SIZE, y + TILE_SIZE, sx, 0, sx + TILE_SIZE, TILE_SIZE, null);
+    }
+
+    // Draw a piece centered at x, y
+    public static void drawCentered(Graphics g, boolean black, boolean king, int variant, int x, int y) {
+        draw(g, black, king, variant, x - TILE_SIZE / 2, y - TILE_SIZE / 2);
+    }
+
+    private static BufferedImage render() {
+        BufferedImage image = new BufferedImage(TILE_SIZE * 4 * VARIANTS, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(new Font("Monospaced", Font.PLAIN, PIECE_SIZE));
+        FontMetrics fm = g.getFontMetrics();
+        for (int c = 0; c < 2; c++) {
+            boolean black = c == 1;
+            for (int k = 0; k < 2; k++) {
+                boolean king = k == 1;
+                String glyph = String.valueOf(king ? CheckersPiece.CHECKERS_KING : CheckersPiece.CHECKERS_MAN);
+                // Center the glyph in its cell, the man and king symbols are slightly different sizes
+                Rectangle2D r = fm.getStringBounds(glyph, g);
+                int pX = (TILE_SIZE - (int) r.getWidth()) / 2;
+                int pY = (TILE_SIZE - (int) r.getHeight()) / 2 + fm.getAscent();
+                Color color = black ? Color.BLACK : Color.WHITE;
+                for (int v = 0; v < VARIANTS; v++) {
+                    int x = index(black, king, v) * TILE_SIZE + pX;
+                    int y = pY;
+                    // Keep each sprite inside its own cell
+                    g.setClip(index(black, king, v) * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE);
+                    if (v == HIGHLIGHTED) {
+                        // A glow around the piece, drawn by offsetting the glyph in every direction
+                        g.setColor(Tile.playableHighlight);
+                        for (int dx = -2; dx <= 2; dx += 2) {
+                            for (int dy = -2; dy <= 2; dy += 2) {
+                                g.drawString(glyph, x + dx, y + dy);
+                            }
+                        }
+                    }
+                    g.setColor(color);
+                    g.drawString(glyph, x, y);
+                    if (v == DIMMED) {
+                        // The same shade a dimmed tile gets, but only over the piece
+                        g.setComposite(AlphaComposite.SrcAtop);
+                        g.setColor(Tile.ignoreByCapture);
+                        g.fillRect(index(black, king, v) * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE);
+                        g.setComposite(AlphaComposite.SrcOver);
+                    }
+                }
+            }
+        }
+        g.dispose();
+        return image;
+    }
+}
@@ -6,6 +6,8 @@
     @author (Cameron Labelle)
     @version (April 2024)
  */
+package checkers;
+
 import java.awt.Color;
 import java.awt.BasicStroke;
 import java.awt.Graphics;
@@ -57,38 +59,29 @@ public class Tile extends Position2D{
         Graphics2D g = (Graphics2D)gr;
         g.setColor(myColor);
         g.fillRect(x, y, TILE_SIZE, TILE_SIZE);
-        // Call the draw() on CheckersPiece if this tile has one
-        if (holdsPiece)
-            piece.draw(x, y, g);
         // Highlighted tiles don't have borders (depth effect) or dim effect applied to them
+        boolean dim = dimmed && !highlighted;
         if (!highlighted) {
             g.setColor(borderColor);
             g.setStroke(borderSize);
             // borderSize is 2 by default so offset into the tile by one pixel on each side
             g.drawRect(x + 1, y + 1, TILE_SIZE - 2,  TILE_SIZE - 2);
-            if (dimmed) {
+            if (dim) {
                 g.setColor(ignoreByCapture);
                 g.fillRect(x, y, TILE_SIZE, TILE_SIZE);
             }
         }
+        // Call the draw() on CheckersPiece if this tile has one, the dimmed sprite already has the dim effect
+        if (holdsPiece)
+            piece.draw(x, y, g, dim ? PieceSprites.DIMMED : PieceSprites.NORMAL);
     }
 
-    // Take the piece from this tile and return it (technically a value copy of it)
+    // Take the piece from this tile and return it (null if there isn't one)
     public CheckersPiece takePiece() {
-        if (holdsPiece) {
-            // Copy piece and important values not defined in constructor
-            CheckersPiece copy = new CheckersPiece(piece.color == Color.BLACK);
-            copy.moves = piece.moves;
-            copy.crowned = piece.crowned;
-            copy.symbol = piece.symbol;
-            // Remove the piece stored in this Tile
-            piece = null;
-            holdsPiece = false;
-            return copy;
-        }
-        // Hope this doesn't happen
-        else
-            return null;
+        CheckersPiece taken = piece;
+        piece = null;
+        holdsPiece = false;
+        return taken;
     }
 
     // Apply highlight effect (set color to bright green)
@@ -106,6 +99,12 @@ public class Tile extends Position2D{
         piece = newPiece;
     }
 
+    // Remove the piece held in this Tile, if any
+    public void clearPiece() {
+        holdsPiece = false;
+        piece = null;
+    }
+
     public String toString() {
         return "(" + x + ", " + y + ")";
     }